@@ -0,0 +1,79 @@
+package net.sentientturtle.nee.benchmark;
+
+import net.sentientturtle.html.Frame;
+import net.sentientturtle.html.RenderingException;
+import net.sentientturtle.html.context.Utf8HtmlContext;
+import net.sentientturtle.nee.data.DataSources;
+import net.sentientturtle.nee.output.ZipArchiveWriter;
+import net.sentientturtle.nee.page.PageKind;
+import net.sentientturtle.nee.util.ExceptionUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/// Parallel writing of rendered pages to a {@link ZipArchiveWriter}, including their gzip-compressed copies, as done by {@link net.sentientturtle.nee.Main}
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-native-access=ALL-UNNAMED")
+public class ArchiveWriterBenchmark {
+    private static final int PAGE_COUNT = 1000;
+
+    private record RenderedPage(String path, byte[] data) {}
+
+    /// Deflater compression level of the archive
+    @Param({"1", "-1", "9"})
+    public int level;
+
+    private List<RenderedPage> pages;
+    private Path archive;
+
+    @Setup
+    public void setup() throws IOException {
+        DataSources dataSources = BenchmarkData.dataSources(1.0);
+        pages = PageKind.TYPE.streamSupplier.apply(dataSources.sdeData())
+            .limit(PAGE_COUNT)
+            .map(page -> render(page, dataSources))
+            .toList();
+        archive = Files.createTempFile("nee-benchmark", ".zip");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(archive);
+    }
+
+    @Benchmark
+    public long write() throws IOException {
+        try (ZipArchiveWriter writer = new ZipArchiveWriter(archive, level)) {
+            pages.parallelStream()
+                .forEach(page -> {
+                    try {
+                        writer.write(page.path(), page.data(), true);
+                    } catch (IOException e) {
+                        ExceptionUtil.sneakyThrow(e);
+                    }
+                });
+        }
+        return Files.size(archive);
+    }
+
+    private static RenderedPage render(Frame page, DataSources dataSources) {
+        Utf8HtmlContext context = new Utf8HtmlContext(page.getPageKind().getFolderDepth(), dataSources);
+        try {
+            page.renderTo(context);
+            return new RenderedPage(page.getPath().replace('\\', '/'), Arrays.copyOf(context.getBuffer(), context.length()));
+        } catch (RenderingException e) {
+            return ExceptionUtil.sneakyThrow(e);
+        } finally {
+            context.release();
+        }
+    }
+}
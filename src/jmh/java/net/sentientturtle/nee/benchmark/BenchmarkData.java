@@ -0,0 +1,77 @@
+package net.sentientturtle.nee.benchmark;
+
+import net.sentientturtle.nee.Main;
+import net.sentientturtle.nee.data.DataSources;
+import net.sentientturtle.nee.data.datatypes.Type;
+import net.sentientturtle.nee.data.sde.SDEData;
+import net.sentientturtle.nee.util.ExceptionUtil;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Set;
+import java.util.zip.Deflater;
+
+/// Shared data sources for benchmarks, generated instead of loaded from a game install
+public final class BenchmarkData {
+    private static final long SEED = 1;
+    private static final HashMap<Double, DataSources> DATA_SOURCES = new HashMap<>();
+
+    private BenchmarkData() {}
+
+    /// Returns synthetic data sources of the given scale, and configures {@link Main} as for a build without icon generation
+    ///
+    /// Data of each scale is generated once, and shared by all benchmarks in the JVM.
+    ///
+    /// @param scale Size of the data relative to the current SDE, see {@link SyntheticSDEData#SyntheticSDEData(long, double)}
+    public static synchronized DataSources dataSources(double scale) {
+        DataSources dataSources = DATA_SOURCES.get(scale);
+        if (dataSources == null) {
+            configure();
+            try {
+                SyntheticSDEData sdeData = new SyntheticSDEData(SEED, scale);
+                packagedVolumes(sdeData);
+                dataSources = new DataSources(
+                    sdeData,
+                    SyntheticSharedCache.create(),
+                    SyntheticFSDData.generate(sdeData, SEED),
+                    "0"
+                );
+            } catch (IOException e) {
+                ExceptionUtil.sneakyThrow(e);
+            }
+            DATA_SOURCES.put(scale, dataSources);
+        }
+        return dataSources;
+    }
+
+    /// Points {@link net.sentientturtle.nee.components.TypeVolume} to a local file instead of downloading packaged volumes, with an entry for each ship
+    ///
+    /// Packaged volumes are only read once per JVM, so only the ships of the first generated data have packaged volumes.
+    private static void packagedVolumes(SDEData sdeData) throws IOException {
+        StringBuilder json = new StringBuilder("{");
+        for (Type type : sdeData.getTypes().values()) {
+            if (sdeData.getGroups().get(type.groupID).categoryID == 6) {
+                if (json.length() > 1) json.append(',');
+                json.append('"').append(type.typeID).append("\":").append(Math.ceil(type.volume / 10));
+            }
+        }
+        json.append('}');
+
+        Path file = Files.createTempFile("nee-packagedvolumes", ".json");
+        file.toFile().deleteOnExit();
+        Files.writeString(file, json);
+        System.setProperty("net.sentientturtle.nee.packagedVolumes", file.toUri().toString());
+    }
+
+    private static void configure() {
+        Main.RES_FOLDER = Path.of("./rsc/");
+        Main.TEMP_DIR = Main.RES_FOLDER.resolve("temp");
+        Main.DEPLOYMENT_URL = "https://localhost/";
+        Main.COMPRESSION = Deflater.DEFAULT_COMPRESSION;
+        Main.GENERATE_ICONS = false;
+        Main.IS_DEV_BUILD = false;
+        Main.PRE_COMPRESSED_FILES = Set.of("html", "css", "js", "json", "txt");
+    }
+}
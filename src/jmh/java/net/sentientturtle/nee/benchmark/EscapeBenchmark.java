@@ -0,0 +1,135 @@
+package net.sentientturtle.nee.benchmark;
+
+import net.sentientturtle.html.HTMLUtil;
+import net.sentientturtle.html.context.Utf8HtmlContext;
+import net.sentientturtle.nee.data.DataSources;
+import net.sentientturtle.nee.data.datatypes.Type;
+import net.sentientturtle.nee.util.EVEText;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/// Escaping of type names and descriptions, as done for every page
+///
+/// Each benchmark escapes the names or descriptions of the first {@value #COUNT} types, a mix of strings that do and do not need escaping.
+/// The `legacy` benchmarks use the previous chained {@link String#replace} escaping as a baseline.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-native-access=ALL-UNNAMED")
+public class EscapeBenchmark {
+    private static final int COUNT = 500;
+
+    private DataSources dataSources;
+    private String[] names;
+    private String[] descriptions;
+
+    @Setup
+    public void setup() {
+        dataSources = BenchmarkData.dataSources(1.0);
+
+        List<String> names = new ArrayList<>(COUNT);
+        List<String> descriptions = new ArrayList<>(COUNT);
+        for (Type type : dataSources.sdeData().getTypes().values()) {
+            if (names.size() == COUNT) break;
+            // Every other name gets characters that require escaping
+            names.add(names.size() % 2 == 0 ? type.name : type.name + " <\"Special\" & 'Limited'>");
+            if (type.description != null) descriptions.add(type.description);
+        }
+        this.names = names.toArray(String[]::new);
+        this.descriptions = descriptions.toArray(String[]::new);
+    }
+
+    @Benchmark
+    public void escapeText(Blackhole blackhole) {
+        for (String name : names) blackhole.consume(HTMLUtil.escapeText(name));
+    }
+
+    @Benchmark
+    public void escapeAttributeValue(Blackhole blackhole) {
+        for (String name : names) blackhole.consume(HTMLUtil.escapeAttributeValue(name));
+    }
+
+    @Benchmark
+    public void escapeFileNameURL(Blackhole blackhole) {
+        for (String name : names) blackhole.consume(HTMLUtil.escapeFileNameURL(name));
+    }
+
+    @Benchmark
+    public int writeEscapedText() throws IOException {
+        Utf8HtmlContext context = new Utf8HtmlContext(0, dataSources);
+        try {
+            for (String name : names) HTMLUtil.writeEscapedText(context, name);
+            return context.length();
+        } finally {
+            context.release();
+        }
+    }
+
+    @Benchmark
+    public void legacyEscapeText(Blackhole blackhole) {
+        for (String name : names) blackhole.consume(legacyEscapeText(name));
+    }
+
+    @Benchmark
+    public void legacyEscapeAttributeValue(Blackhole blackhole) {
+        for (String name : names) blackhole.consume(legacyEscapeAttributeValue(name));
+    }
+
+    @Benchmark
+    public void legacyEscapeFileNameURL(Blackhole blackhole) {
+        for (String name : names) blackhole.consume(legacyEscapeFileNameURL(name));
+    }
+
+    @Benchmark
+    public int legacyWriteEscapedText() throws IOException {
+        Utf8HtmlContext context = new Utf8HtmlContext(0, dataSources);
+        try {
+            for (String name : names) context.write(legacyEscapeText(name));
+            return context.length();
+        } finally {
+            context.release();
+        }
+    }
+
+    @Benchmark
+    public void eveTextEscape(Blackhole blackhole) {
+        for (String description : descriptions) blackhole.consume(EVEText.escape(description, dataSources.sdeData(), true));
+    }
+
+    private static String legacyEscapeText(String text) {
+        return text
+                .replace("&", "&amp;")
+                .replace("<", "&lt;")
+                .replace(">", "&gt;");
+    }
+
+    private static String legacyEscapeAttributeValue(String value) {
+        return value
+                .replace("&", "&amp;")
+                .replace("<", "&lt;")
+                .replace(">", "&gt;")
+                .replace("'", "&#39;")
+                .replace("\"", "&quot;");
+    }
+
+    private static String legacyEscapeFileNameURL(String name) {
+        return name
+            .replace("<", "")
+            .replace(">", "")
+            .replace(":", "")
+            .replace("\"", "''")
+            .replace("/", "-")
+            .replace("\\", "-")
+            .replace("|", "-")
+            .replace("?", "")
+            .replace("#", "")
+            .replace("*", "");
+    }
+}
@@ -0,0 +1,69 @@
+package net.sentientturtle.nee.benchmark;
+
+import net.sentientturtle.html.RenderingException;
+import net.sentientturtle.html.context.Utf8HtmlContext;
+import net.sentientturtle.nee.data.DataSources;
+import net.sentientturtle.nee.data.sde.SDEData;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/// {@link SDEData#format_with_unit} over the attribute values of types, with the mix of units found on type pages
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-native-access=ALL-UNNAMED")
+public class FormatBenchmark {
+    private static final int COUNT = 2000;
+
+    private DataSources dataSources;
+    private double[] values;
+    private Integer[] units;
+
+    @Setup
+    public void setup() {
+        dataSources = BenchmarkData.dataSources(1.0);
+        SDEData sde = dataSources.sdeData();
+
+        values = new double[COUNT];
+        units = new Integer[COUNT];
+        int i = 0;
+        outer:
+        for (Map<Integer, Double> typeAttributes : sde.getTypeAttributes().values()) {
+            for (Map.Entry<Integer, Double> entry : typeAttributes.entrySet()) {
+                if (i == COUNT) break outer;
+                values[i] = entry.getValue();
+                units[i] = sde.getAttributes().get(entry.getKey()).unitID;
+                i++;
+            }
+        }
+        if (i < COUNT) throw new IllegalStateException("Not enough attribute values: " + i);
+    }
+
+    @Benchmark
+    public void format(Blackhole blackhole) {
+        SDEData sde = dataSources.sdeData();
+        for (int i = 0; i < COUNT; i++) {
+            blackhole.consume(sde.format_with_unit(values[i], units[i]));
+        }
+    }
+
+    @Benchmark
+    public int formatAndRender() throws RenderingException, IOException {
+        SDEData sde = dataSources.sdeData();
+        Utf8HtmlContext context = new Utf8HtmlContext(0, dataSources);
+        try {
+            for (int i = 0; i < COUNT; i++) {
+                sde.format_with_unit(values[i], units[i]).renderTo(context);
+            }
+            return context.length();
+        } finally {
+            context.release();
+        }
+    }
+}
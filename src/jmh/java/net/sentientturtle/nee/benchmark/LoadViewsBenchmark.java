@@ -0,0 +1,57 @@
+package net.sentientturtle.nee.benchmark;
+
+import net.sentientturtle.nee.data.sde.SDEData;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/// Computing the views of {@link SDEData}, as done once on load, over data of increasing size
+///
+/// Views are computed on first access, so each benchmark accesses all views after reloading them; `loadViews` one at a time, and `computeViews` concurrently.
+///
+/// Larger scales may be benchmarked with `-p scale=10,100`, which need a correspondingly larger heap, e.g. `-jvmArgsAppend -Xmx32g`
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-native-access=ALL-UNNAMED")
+public class LoadViewsBenchmark {
+    /// Size of the data, see {@link SyntheticSDEData#SyntheticSDEData(long, double)}
+    @Param({"0.1", "1"})
+    public double scale;
+
+    private SyntheticSDEData sdeData;
+
+    @Setup
+    public void setup() {
+        sdeData = (SyntheticSDEData) BenchmarkData.dataSources(scale).sdeData();
+    }
+
+    @Benchmark
+    public void loadViews(Blackhole blackhole) {
+        sdeData.reloadViews();
+        blackhole.consume(sdeData.getCategoryGroups());
+        blackhole.consume(sdeData.getGroupTypes());
+        blackhole.consume(sdeData.getMaterialActivityMap());
+        blackhole.consume(sdeData.getProductActivityMap());
+        blackhole.consume(sdeData.getSkillActivityMap());
+        blackhole.consume(sdeData.getOutputSchematicMap());
+        blackhole.consume(sdeData.getInputSchematicMap());
+        blackhole.consume(sdeData.getOreReprocessingMap());
+        blackhole.consume(sdeData.getMarketGroupTypeMap());
+        blackhole.consume(sdeData.getMarketGroupChildMap());
+        blackhole.consume(sdeData.getConstellationSolarSystemMap());
+        blackhole.consume(sdeData.getRegionSolarSystemMap());
+        blackhole.consume(sdeData.getRegionConstellationMap());
+        blackhole.consume(sdeData.getRequiresSkillMap());
+        blackhole.consume(sdeData.getParentTypeMap());
+    }
+
+    @Benchmark
+    public void computeViews() {
+        sdeData.reloadViews();
+        sdeData.computeViews();
+    }
+}
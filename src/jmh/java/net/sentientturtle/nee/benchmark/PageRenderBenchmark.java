@@ -0,0 +1,76 @@
+package net.sentientturtle.nee.benchmark;
+
+import net.sentientturtle.html.Frame;
+import net.sentientturtle.html.RenderingException;
+import net.sentientturtle.html.context.Utf8HtmlContext;
+import net.sentientturtle.nee.data.DataSources;
+import net.sentientturtle.nee.page.PageKind;
+import net.sentientturtle.nee.page.ShipTreePage;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/// Rendering of a single page into a {@link Utf8HtmlContext}
+///
+/// For each page kind, the page of median rendered size is benchmarked.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-native-access=ALL-UNNAMED")
+public class PageRenderBenchmark {
+    public enum Kind {
+        TYPE,
+        COMPARISON,
+        MAP,
+        SHIP_TREE
+    }
+
+    @Param
+    public Kind kind;
+
+    /// Size of the data, see {@link SyntheticSDEData#SyntheticSDEData(long, double)}
+    @Param("1")
+    public double scale;
+
+    private DataSources dataSources;
+    private Frame page;
+
+    @Setup
+    public void setup() throws RenderingException {
+        dataSources = BenchmarkData.dataSources(scale);
+        List<Frame> pages = switch (kind) {
+            case TYPE -> PageKind.TYPE.streamSupplier.apply(dataSources.sdeData()).toList();
+            case COMPARISON -> PageKind.Comparison.streamSupplier.apply(dataSources.sdeData()).toList();
+            case MAP -> PageKind.MAP.streamSupplier.apply(dataSources.sdeData()).toList();
+            case SHIP_TREE -> List.of(new ShipTreePage());
+        };
+
+        record Sized(Frame page, int length) {}
+        List<Sized> sized = new ArrayList<>(pages.size());
+        for (Frame frame : pages) {
+            sized.add(new Sized(frame, render(frame)));
+        }
+        sized.sort(Comparator.comparingInt(Sized::length));
+        page = sized.get(sized.size() / 2).page();
+    }
+
+    @Benchmark
+    public int render() throws RenderingException {
+        return render(page);
+    }
+
+    private int render(Frame frame) throws RenderingException {
+        Utf8HtmlContext context = new Utf8HtmlContext(frame.getPageKind().getFolderDepth(), dataSources);
+        try {
+            frame.renderTo(context);
+            return context.length();
+        } finally {
+            context.release();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package net.sentientturtle.nee.benchmark;
+
+import net.sentientturtle.nee.output.ZipArchiveWriter;
+import net.sentientturtle.nee.util.ExceptionUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+/// Parallel copying of resource files into a {@link ZipArchiveWriter} without compression, as done for shared cache resources by {@link net.sentientturtle.nee.Main}
+///
+/// Files are either read onto the heap, or memory-mapped and written from the mapped buffer
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-native-access=ALL-UNNAMED")
+public class ResourceCopyBenchmark {
+    private static final int FILE_COUNT = 1000;
+    private static final int FILE_SIZE = 48 * 1024;
+
+    @Param({"false", "true"})
+    public boolean mapped;
+
+    private Path folder;
+    private List<Path> files;
+    private Path archive;
+
+    @Setup
+    public void setup() throws IOException {
+        folder = Files.createTempDirectory("nee-benchmark-resources");
+        files = new ArrayList<>(FILE_COUNT);
+        // Random data, as image files do not compress
+        Random random = new Random(0);
+        byte[] data = new byte[FILE_SIZE];
+        for (int i = 0; i < FILE_COUNT; i++) {
+            random.nextBytes(data);
+            Path file = folder.resolve(i + ".png");
+            Files.write(file, data);
+            files.add(file);
+        }
+        archive = Files.createTempFile("nee-benchmark", ".zip");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        for (Path file : files) Files.delete(file);
+        Files.delete(folder);
+        Files.deleteIfExists(archive);
+    }
+
+    @Benchmark
+    public long write() throws IOException {
+        try (ZipArchiveWriter writer = new ZipArchiveWriter(archive, Deflater.NO_COMPRESSION)) {
+            files.parallelStream()
+                .forEach(file -> {
+                    try {
+                        String name = "res/" + file.getFileName();
+                        if (mapped) {
+                            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                                writer.write(name, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), false);
+                            }
+                        } else {
+                            writer.write(name, Files.readAllBytes(file), false);
+                        }
+                    } catch (IOException e) {
+                        ExceptionUtil.sneakyThrow(e);
+                    }
+                });
+        }
+        return Files.size(archive);
+    }
+}
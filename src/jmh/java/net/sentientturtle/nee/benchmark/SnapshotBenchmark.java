@@ -0,0 +1,51 @@
+package net.sentientturtle.nee.benchmark;
+
+import net.sentientturtle.nee.data.sde.SDEData;
+import net.sentientturtle.nee.data.sde.SnapshotSDEData;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/// Writing and reading a {@link SnapshotSDEData} of the synthetic SDE, as done on startup in place of loading the SDE
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-native-access=ALL-UNNAMED")
+public class SnapshotBenchmark {
+    private static final String KEY = "benchmark";
+
+    /// Size of the data, see {@link SyntheticSDEData#SyntheticSDEData(long, double)}
+    @Param({"0.1", "1"})
+    public double scale;
+
+    private SDEData sdeData;
+    private Path snapshot;
+
+    @Setup
+    public void setup() throws IOException {
+        sdeData = BenchmarkData.dataSources(scale).sdeData();
+        snapshot = Files.createTempFile("nee-benchmark", ".snapshot");
+        SnapshotSDEData.write(sdeData, snapshot, KEY);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(snapshot);
+    }
+
+    @Benchmark
+    public long write() throws IOException {
+        SnapshotSDEData.write(sdeData, snapshot, KEY);
+        return Files.size(snapshot);
+    }
+
+    @Benchmark
+    public SDEData read() throws IOException {
+        return SnapshotSDEData.read(snapshot, KEY);
+    }
+}
@@ -0,0 +1,101 @@
+package net.sentientturtle.nee.benchmark;
+
+import net.sentientturtle.nee.components.ItemStats;
+import net.sentientturtle.nee.components.ModuleFitting;
+import net.sentientturtle.nee.data.datatypes.Group;
+import net.sentientturtle.nee.data.datatypes.Type;
+import net.sentientturtle.nee.data.sde.SDEData;
+import net.sentientturtle.nee.data.sharedcache.FSDData;
+
+import java.util.*;
+
+/// Generated {@link FSDData}, matching the mutaplasmids, command burst charges, stations, and ship graphics of a {@link SyntheticSDEData}
+public final class SyntheticFSDData {
+    private static final String[] RACES = {"amarr", "caldari", "gallente", "minmatar"};
+    // Station operation service IDs, as mapped to services by Main
+    private static final int[] SERVICE_IDS = {5, 7, 10, 13, 14, 17, 21, 25, 26};
+
+    private SyntheticFSDData() {}
+
+    public static FSDData generate(SDEData sdeData, long seed) {
+        Random random = new Random(seed);
+
+        LinkedHashMap<Integer, FSDData.Graphic> graphics = new LinkedHashMap<>();
+        for (Type type : sdeData.getTypes().values()) {
+            if (type.graphicID != null && !graphics.containsKey(type.graphicID)) {
+                String race = RACES[random.nextInt(RACES.length)];
+                graphics.put(type.graphicID, new FSDData.Graphic(
+                    random.nextInt(20),
+                    new FSDData.IconInfo("res:/dx9/model/ship/" + race + "/" + type.graphicID),
+                    race,
+                    race + "base",
+                    "hull" + type.graphicID
+                ));
+            }
+        }
+
+        // Mutaplasmids mutate a module into a variant with mutated attributes
+        List<Integer> modules = new ArrayList<>();
+        for (Group group : sdeData.getCategoryGroups().getOrDefault(7, Set.of())) {
+            for (Type type : sdeData.getGroupTypes().getOrDefault(group.groupID, Set.of())) {
+                modules.add(type.typeID);
+            }
+        }
+        List<Integer> mutatedAttributes = new ArrayList<>(ItemStats.INCLUDED_ATTRIBUTES);
+        mutatedAttributes.addAll(ModuleFitting.INCLUDED_ATTRIBUTES);
+        Collections.sort(mutatedAttributes);
+
+        LinkedHashMap<Integer, FSDData.DynamicAttributes> dynamicAttributes = new LinkedHashMap<>();
+        for (Type mutaplasmid : sdeData.getGroupTypes().getOrDefault(1964, Set.of())) {
+            int resultingType = modules.get(random.nextInt(modules.size()));
+            List<Integer> applicableTypes = new ArrayList<>(sdeData.getVariants().getOrDefault(resultingType, Set.of(resultingType)));
+
+            LinkedHashMap<Integer, FSDData.DyAttribute> attributes = new LinkedHashMap<>();
+            for (int i = 0; i < 3 + random.nextInt(6); i++) {
+                double range = random.nextDouble() * 0.4;
+                attributes.put(
+                    mutatedAttributes.get(random.nextInt(mutatedAttributes.size())),
+                    new FSDData.DyAttribute(1 - range, 1 + range * random.nextDouble(), random.nextInt(4) == 0 ? random.nextBoolean() : null)
+                );
+            }
+            dynamicAttributes.put(mutaplasmid.typeID, new FSDData.DynamicAttributes(List.of(new FSDData.IOMapping(resultingType, applicableTypes)), attributes));
+        }
+
+        LinkedHashMap<Integer, FSDData.WarfareBuff> warfareBuffs = new LinkedHashMap<>();
+        HashMap<Integer, String> localizationStrings = new HashMap<>();
+        for (int buffID = 1; buffID <= SyntheticSDEData.WARFARE_BUFF_COUNT; buffID++) {
+            int displayNameID = 100_000 + buffID;
+            localizationStrings.put(displayNameID, "Warfare Buff " + buffID);
+            warfareBuffs.put(buffID, new FSDData.WarfareBuff(
+                displayNameID,
+                "buff_" + buffID,
+                List.of(new FSDData.BuffModifier(ItemStats.WARFARE_BUFF_ATTRIBUTES[buffID % ItemStats.WARFARE_BUFF_ATTRIBUTES.length])),
+                random.nextBoolean() ? "ShowNormal" : "ShowInverted"
+            ));
+        }
+
+        LinkedHashMap<Integer, FSDData.Operation> stationOperations = new LinkedHashMap<>();
+        for (int operationID = 1; operationID <= SyntheticSDEData.STATION_OPERATION_COUNT; operationID++) {
+            stationOperations.put(operationID, new FSDData.Operation(
+                Arrays.stream(SERVICE_IDS).filter(_ -> random.nextBoolean()).toArray()
+            ));
+        }
+
+        LinkedHashMap<Integer, FSDData.TypeList> typeLists = new LinkedHashMap<>();
+        List<Integer> groupIDs = new ArrayList<>(sdeData.getGroups().keySet());
+        for (int typeListID = 1; typeListID <= 20; typeListID++) {
+            typeLists.put(typeListID, new FSDData.TypeList(
+                "Type List " + typeListID,
+                null,
+                List.of(),
+                List.of(groupIDs.get(random.nextInt(groupIDs.size())), groupIDs.get(random.nextInt(groupIDs.size()))),
+                List.of(),
+                List.of(),
+                List.of(),
+                List.of()
+            ));
+        }
+
+        return new FSDData(typeLists, dynamicAttributes, graphics, stationOperations, warfareBuffs, localizationStrings);
+    }
+}
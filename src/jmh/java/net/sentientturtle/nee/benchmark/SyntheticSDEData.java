@@ -0,0 +1,676 @@
+package net.sentientturtle.nee.benchmark;
+
+import net.sentientturtle.nee.components.ItemStats;
+import net.sentientturtle.nee.components.TypeSkills;
+import net.sentientturtle.nee.data.datatypes.*;
+import net.sentientturtle.nee.data.sde.SDEData;
+import net.sentientturtle.nee.page.ShipTreePage;
+import net.sentientturtle.nee.page.TypePage;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/// Generated {@link SDEData}, for benchmarking without an SDE download
+///
+/// Data is generated from a fixed seed, and is shaped after the real SDE; Type IDs used by the ship tree, and the attribute, group, and market group IDs that pages look up directly are present.
+/// The data is generated in its patched form, so {@link SDEData#patch()} is not applied.
+///
+/// At a scale of 1.0, type and solar system counts approximate the published types and the solar systems of the current SDE, about 20'000 types and 8'000 solar systems.
+/// Group and constellation counts grow with the scale, as do the types of each category; Ships, map regions, and attributes are fixed, as every published ship must be listed in the ship tree.
+/// Attribute counts per type follow a log-normal distribution around a median for each category, with a skew towards commonly used attributes.
+public class SyntheticSDEData extends SDEData {
+    private static final String[] WORDS = {
+        "Ardent", "Basalt", "Corvid", "Dawn", "Ember", "Fallow", "Gale", "Hollow", "Ion", "Jade", "Kestrel", "Lumen",
+        "Mire", "Nadir", "Onyx", "Pale", "Quill", "Rift", "Sable", "Tessel", "Umbra", "Vigil", "Warden", "Xeno", "Yonder", "Zenith"
+    };
+    // Units which format any value; Units referring to other data or enumerations are only assigned to specific attributes
+    private static final Integer[] GENERIC_UNITS = {null, null, null, 1, 2, 3, 9, 10, 101, 104, 105, 107, 108, 109, 111, 113, 114, 121, 124, 127, 133, 139, 205};
+
+    // Attributes below this ID may be referred to directly by the website, and are only assigned to specific types
+    private static final int GENERIC_ATTRIBUTE_START = 6000;
+    private static final int ATTRIBUTE_COUNT = 8000;
+    // Plain listed module stats, excluding those that require other attributes to be present
+    private static final int[] MODULE_STAT_ATTRIBUTES = {20, 54, 64, 66, 70, 72, 80, 99, 103, 120};
+    private static final int TYPES_PER_GROUP = 20;
+    private static final int CONSTELLATIONS_PER_REGION = 10;
+    private static final int SYSTEMS_PER_CONSTELLATION = 8;
+    static final int WARFARE_BUFF_COUNT = 12;
+    static final int STATION_OPERATION_COUNT = 20;
+
+    private final Map<Integer, Category> categories = produceMap();
+    private final Map<Integer, Group> groups = produceMap();
+    private final Map<Integer, Type> types = produceMap();
+    private final Map<Integer, TypeTraits> typeTraits = produceMap();
+    private final Map<Integer, Attribute> attributes = produceMap();
+    private final Map<Integer, Map<Integer, Double>> typeAttributes = produceMap();
+    private final Map<Integer, Effect> effects = produceMap();
+    private final Map<Integer, Set<Integer>> typeEffects = produceMap();
+    private final Map<Integer, String> eveIcons = produceMap();
+    private final Map<Integer, EnumMap<IndustryActivityType, IndustryActivity>> bpActivities = produceMap();
+    private final Map<Integer, Map<Integer, Integer>> reprocessingMaterials = produceMap();
+    private final Map<Integer, PlanetSchematic> planetSchematics = produceMap();
+    private final Map<Integer, MetaGroup> metaGroups = produceMap();
+    private final Map<Integer, Set<Integer>> variants = produceMap();
+    private final Map<Integer, Integer> metaTypes = produceMap();
+    private final Map<Integer, SolarSystem> solarSystems = produceMap();
+    private final Map<Integer, Constellation> constellations = produceMap();
+    private final Map<Integer, Region> regions = produceMap();
+    private final Map<Integer, Set<Integer>> outJumps = produceMap();
+    private final Map<Integer, Set<Integer>> inJumps = produceMap();
+    private final Map<Integer, Set<Celestial>> celestials = produceMap();
+    private final Map<Integer, Set<Station>> stations = produceMap();
+    private final Map<Integer, Faction> factions = produceMap();
+    private final Map<Integer, MarketGroup> marketGroups = produceMap();
+
+    private final Random random;
+    private final double scale;
+    private int nextTypeID = 100_000;
+    private int nextGroupID = 10_000;
+
+    /// Generates data at a scale of 1.0, see {@link #SyntheticSDEData(long, double)}
+    public SyntheticSDEData(long seed) {
+        this(seed, 1.0);
+    }
+
+    /// @param seed  Seed of the random generator; The same seed and scale always produce the same data
+    /// @param scale Size of the data relative to the current SDE
+    public SyntheticSDEData(long seed, double scale) {
+        if (!(scale > 0)) throw new IllegalArgumentException("Scale must be positive: " + scale);
+        this.random = new Random(seed);
+        this.scale = scale;
+
+        generateAttributes();
+        generateItems();
+        generateMap();
+
+        loadViews();
+    }
+
+    /// Recomputes the views of this data, as done once on load
+    public void reloadViews() {
+        loadViews();
+    }
+
+    /// @return Number of IDs that are generated at scale 1.0 as `count`; At least 1
+    private int scaled(int count) {
+        return Math.max(1, (int) Math.round(count * scale));
+    }
+
+    private void generateAttributes() {
+        // Attributes with fixed units, as used by the website's components
+        Map<Integer, Integer> knownUnits = new HashMap<>();
+        for (int id : new int[]{9, 263, 265, 114, 116, 117, 118, 68, 83, 84}) knownUnits.put(id, 113);         // Hitpoints, damage
+        for (int id : new int[]{109, 110, 111, 113, 267, 268, 269, 270, 271, 272, 273, 274, 974, 975, 976, 977}) knownUnits.put(id, 108);  // Resonances
+        for (int id : new int[]{55, 73, 479, 669}) knownUnits.put(id, 101);                                   // Milliseconds
+        for (int id : new int[]{12, 13, 14, 1137, 1367}) knownUnits.put(id, 122);                              // Slots
+        for (int id : new int[]{101, 102}) knownUnits.put(id, 141);                                           // Hardpoints
+        for (int id : new int[]{6, 482, 90, 97}) knownUnits.put(id, 114);                                     // Capacitor
+        for (int id : new int[]{50, 48}) knownUnits.put(id, 106);                                             // CPU
+        for (int id : new int[]{30, 11}) knownUnits.put(id, 107);                                             // Powergrid
+        for (int id : new int[]{38, 77, 283, 2055}) knownUnits.put(id, 9);                                    // Volume
+        for (int id : new int[]{128, 1547}) knownUnits.put(id, 117);                                          // Size class
+        for (int id : TypeSkills.SKILL_ATTRIBUTES) knownUnits.put(id, 116);
+        for (int id : TypePage.CAN_BE_FITTED_TO_TYPE_ATTRIBUTES) knownUnits.put(id, 116);
+        for (int id : TypePage.CAN_BE_FITTED_TO_GROUP_ATTRIBUTES) knownUnits.put(id, 115);
+        for (int id : TypePage.USED_WITH_GROUP_ATTRIBUTES) knownUnits.put(id, 115);
+        knownUnits.put(37, 11);
+        knownUnits.put(76, 1);
+        knownUnits.put(552, 1);
+        knownUnits.put(600, 144);
+        knownUnits.put(1271, 128);
+
+        for (int attributeID = 1; attributeID <= ATTRIBUTE_COUNT; attributeID++) {
+            String name = name(2);
+            int iconID = 1000 + random.nextInt(500);
+            eveIcons.put(iconID, "res:/ui/texture/icons/" + iconID + ".png");
+
+            Integer unitID = knownUnits.containsKey(attributeID) ? knownUnits.get(attributeID) : GENERIC_UNITS[random.nextInt(GENERIC_UNITS.length)];
+            attributes.put(attributeID, new Attribute(
+                attributeID,
+                attributeID == 38 ? 40 : random.nextInt(40),
+                name.replace(" ", ""),
+                name,
+                unitID,
+                iconID,
+                random.nextInt(10) > 0,
+                random.nextBoolean()
+            ));
+        }
+    }
+
+    private void generateItems() {
+        // Icons referred to directly by the website
+        for (int iconID : new int[]{67, 76, 168, 293, 294, 295, 387, 1385, 1386, 1387, 1388, 1390, 1392, 1400, 1401, 1405, 1443, 1668, 2355, 3266, 3756, 21065, 21729}) {
+            eveIcons.put(iconID, "res:/ui/texture/icons/" + iconID + ".png");
+        }
+
+        metaGroups.put(1, new MetaGroup(1, "Tech I"));
+        metaGroups.put(2, new MetaGroup(2, "Tech II"));
+        metaGroups.put(4, new MetaGroup(4, "Faction"));
+        metaGroups.put(6, new MetaGroup(6, "Deadspace"));
+
+        marketGroups.put(-1, new MarketGroup(-1, null, "Items", null));
+        marketGroups.put(9, new MarketGroup(9, -1, "Ship Equipment", "Ship modules"));
+        marketGroups.put(2202, new MarketGroup(2202, -1, "Structure Equipment", "Structure modules"));
+        marketGroups.put(4, new MarketGroup(4, -1, "Ships", "Ships"));
+
+        List<Type> skills = new ArrayList<>();
+        category(16, "Skill", scaled(25), TYPES_PER_GROUP, skills::add);
+        for (int i = 0; i < skills.size(); i++) {
+            // Skills may require earlier skills, forming prerequisite chains without cycles
+            Map<Integer, Double> attributes = genericAttributes(skills.get(i), 12);
+            if (i > 0 && random.nextBoolean()) {
+                attributes.put(TypeSkills.SKILL_ATTRIBUTES[0], (double) skills.get(random.nextInt(i)).typeID);
+                attributes.put(TypeSkills.LEVEL_ATTRIBUTES[0], (double) (1 + random.nextInt(5)));
+            }
+        }
+
+        // Ships, in every group of the ship tree, including every ship listed in the tree
+        categories.put(6, new Category(6, "Ship", null, true));
+        int[][] shipGroups = shipTreeField("GROUP_ORDER", int[][].class);
+        List<Integer> shipGroupIDs = new ArrayList<>();
+        for (int[] shipClass : shipGroups) {
+            for (int groupID : shipClass) {
+                groups.put(groupID, new Group(groupID, 6, name(1) + " Class", null, true));
+                shipGroupIDs.add(groupID);
+            }
+        }
+        int shipIndex = 0;
+        for (int typeID : shipTreeShips()) {
+            Type ship = type(typeID, shipGroupIDs.get(shipIndex++ % shipGroupIDs.size()), 4);
+            shipAttributes(ship, skills);
+        }
+
+        List<Type> modules = new ArrayList<>();
+        category(7, "Module", scaled(250), TYPES_PER_GROUP, modules::add);
+        for (Type module : modules) {
+            Map<Integer, Double> attributes = genericAttributes(module, 60);
+            attributes.put(50, (double) random.nextInt(100));
+            attributes.put(30, (double) random.nextInt(2000));
+            attributes.put(6, random.nextDouble() * 100);
+            attributes.put(73, (double) (1000 + random.nextInt(10000)));
+            attributes.put(633, (double) random.nextInt(15));
+            for (int i = 0; i < random.nextInt(4); i++) {
+                attributes.put(MODULE_STAT_ATTRIBUTES[random.nextInt(MODULE_STAT_ATTRIBUTES.length)], genericValue(null));
+            }
+            skillRequirements(attributes, skills);
+            typeEffects.put(module.typeID, Set.of(11 + random.nextInt(3)));
+        }
+        for (int effectID = 11; effectID <= 13; effectID++) {
+            effects.put(effectID, new Effect(effectID, name(1) + "Power"));
+        }
+
+        List<Type> charges = new ArrayList<>();
+        category(8, "Charge", scaled(100), TYPES_PER_GROUP, charges::add);
+        for (Type charge : charges) {
+            Map<Integer, Double> attributes = genericAttributes(charge, 35);
+            if (random.nextInt(20) == 0) {
+                // Command burst charge, see SyntheticFSDData for the buffs
+                for (int i = 0; i < 1 + random.nextInt(ItemStats.WARFARE_BUFF_ATTRIBUTES.length); i++) {
+                    attributes.put(ItemStats.WARFARE_BUFF_ATTRIBUTES[i], (double) (1 + random.nextInt(WARFARE_BUFF_COUNT)));
+                    attributes.put(random.nextBoolean() ? ItemStats.WARFARE_BUFF_MULTIPLIER_ATTRIBUTES[i] : ItemStats.WARFARE_BUFF_VALUE_ATTRIBUTES[i], Math.round(random.nextDouble() * 400 - 200) / 10.0);
+                }
+            } else {
+                for (int damage : new int[]{114, 116, 117, 118}) attributes.put(damage, random.nextDouble() * 200);
+            }
+        }
+
+        List<Type> materials = new ArrayList<>();
+        category(4, "Material", 2, 8, materials::add);
+        for (Type material : materials) {
+            genericAttributes(material, 3);
+        }
+        List<Type> ores = new ArrayList<>();
+        category(25, "Asteroid", scaled(40), TYPES_PER_GROUP, ores::add);
+        for (Type ore : ores) {
+            genericAttributes(ore, 8);
+            Map<Integer, Integer> yield = produceMap();
+            for (int i = 0; i < 1 + random.nextInt(3); i++) {
+                yield.put(materials.get(random.nextInt(materials.size())).typeID, 1 + random.nextInt(400));
+            }
+            reprocessingMaterials.put(ore.typeID, yield);
+        }
+
+        List<Type> commodities = new ArrayList<>();
+        category(43, "Planetary Commodities", scaled(10), 10, commodities::add);
+        for (int schematicID = 1; schematicID < commodities.size(); schematicID++) {
+            genericAttributes(commodities.get(schematicID), 4);
+            Map<Integer, Integer> inputs = produceMap();
+            inputs.put(commodities.get(schematicID - 1).typeID, 40);
+            planetSchematics.put(schematicID, new PlanetSchematic(schematicID, 3600, commodities.get(schematicID).typeID, 5, inputs));
+        }
+
+        // Trade goods, making up the bulk of types, and mutaplasmids; See SyntheticFSDData for the mutaplasmid's dynamic attributes
+        List<Type> tradeGoods = new ArrayList<>();
+        category(17, "Commodity", scaled(400), TYPES_PER_GROUP, tradeGoods::add);
+        for (Type tradeGood : tradeGoods) {
+            genericAttributes(tradeGood, 3);
+        }
+        groups.put(1964, new Group(1964, 17, "Mutaplasmids", null, true));
+        for (int i = 0; i < scaled(100); i++) {
+            genericAttributes(type(nextTypeID++, 1964, -1), 3);
+        }
+
+        // Blueprints manufacturing modules and ships
+        categories.put(9, new Category(9, "Blueprint", null, true));
+        int blueprintGroupID = nextGroupID++;
+        groups.put(blueprintGroupID, new Group(blueprintGroupID, 9, "Blueprints", null, true));
+        List<Type> products = new ArrayList<>(modules);
+        products.addAll(charges);
+        products.addAll(types.values().stream().filter(type -> groups.get(type.groupID).categoryID == 6).toList());
+        for (Type product : products) {
+            if (random.nextInt(3) > 0) continue;
+            Type blueprint = type(nextTypeID++, blueprintGroupID, product.name + " Blueprint", null);
+
+            Map<Integer, Integer> materialMap = produceMap();
+            for (int i = 0; i < 2 + random.nextInt(5); i++) {
+                materialMap.put(materials.get(random.nextInt(materials.size())).typeID, 1 + random.nextInt(5000));
+            }
+            Map<Integer, Integer> skillMap = produceMap();
+            skillMap.put(skills.get(random.nextInt(skills.size())).typeID, 1 + random.nextInt(5));
+
+            EnumMap<IndustryActivityType, IndustryActivity> activities = new EnumMap<>(IndustryActivityType.class);
+            activities.put(IndustryActivityType.MANUFACTURING, new IndustryActivity(
+                blueprint.typeID, IndustryActivityType.MANUFACTURING, 600 + random.nextInt(30000), materialMap, Map.of(product.typeID, 1), Map.of(), skillMap
+            ));
+            activities.put(IndustryActivityType.COPYING, new IndustryActivity(
+                blueprint.typeID, IndustryActivityType.COPYING, 600 + random.nextInt(30000), Map.of(), Map.of(), Map.of(), skillMap
+            ));
+            bpActivities.put(blueprint.typeID, activities);
+        }
+
+        // Variants of modules and ships, with the lowest typeID as Tech I parent
+        List<Type> variantCandidates = new ArrayList<>(types.values().stream().filter(type -> {
+            int categoryID = groups.get(type.groupID).categoryID;
+            return categoryID == 6 || categoryID == 7;
+        }).toList());
+        Collections.shuffle(variantCandidates, random);
+        for (int i = 0; i + 4 <= variantCandidates.size() / 2; i += 4) {
+            Set<Integer> variantSet = produceIntSet();
+            List<Type> group = variantCandidates.subList(i, i + 2 + random.nextInt(3));
+            group.sort(Comparator.comparingInt(type -> type.typeID));
+            for (int j = 0; j < group.size(); j++) {
+                Type variant = group.get(j);
+                variantSet.add(variant.typeID);
+                variants.put(variant.typeID, variantSet);
+                metaTypes.put(variant.typeID, j == 0 ? 1 : new int[]{2, 4, 6}[random.nextInt(3)]);
+            }
+        }
+
+        // Trait bonuses for ships
+        for (Type type : types.values()) {
+            if (groups.get(type.groupID).categoryID != 6) continue;
+            Map<Integer, List<TypeTraits.Bonus>> skillBonuses = produceMap();
+            skillBonuses.put(skills.get(random.nextInt(skills.size())).typeID, List.of(bonus(), bonus()));
+            typeTraits.put(type.typeID, new TypeTraits(List.of(), List.of(bonus()), skillBonuses));
+        }
+    }
+
+    private void generateMap() {
+        int[] factionIDs = {500001, 500002, 500003, 500004};
+        for (int factionID : factionIDs) {
+            factions.put(factionID, new Faction(factionID, name(2), 1443));
+        }
+
+        int sunGroupID = nextGroupID++;
+        categories.put(2, new Category(2, "Celestial", null, true));
+        groups.put(sunGroupID, new Group(sunGroupID, 2, "Sun", null, true));
+        int sunTypeID = type(nextTypeID++, sunGroupID, "Sun G5 (Yellow)", null).typeID;
+
+        List<Integer> regionIDs = new ArrayList<>(Cluster.KSPACE_REGIONS);
+        regionIDs.addAll(Cluster.WSPACE_REGIONS);
+        Collections.sort(regionIDs);
+
+        int constellationID = 20_000_000;
+        int solarSystemID = 30_000_000;
+        int itemID = 40_000_000;
+        int stationID = 60_000_000;
+        List<Integer> previousSystems = new ArrayList<>();
+        for (int regionID : regionIDs) {
+            boolean wormhole = regionID >= 11_000_000;
+            Integer factionID = wormhole || random.nextInt(3) == 0 ? null : factionIDs[random.nextInt(factionIDs.length)];
+            Integer wormholeClassID = wormhole ? 1 + random.nextInt(6) : null;
+            regions.put(regionID, new Region(regionID, name(1) + " " + name(1), coordinate(), coordinate(), coordinate(), -1e17, -1e17, -2e17, 1e17, 1e17, 3e17, factionID, wormholeClassID));
+
+            for (int c = 0; c < scaled(CONSTELLATIONS_PER_REGION); c++) {
+                constellationID++;
+                constellations.put(constellationID, new Constellation(regionID, constellationID, name(1) + "-" + c, coordinate(), coordinate(), coordinate(), -1e16, -1e16, -1e16, 1e16, 1e16, 1e16, factionID, wormholeClassID));
+
+                for (int s = 0; s < SYSTEMS_PER_CONSTELLATION; s++) {
+                    solarSystemID++;
+                    double security = wormhole ? -1.0 : Math.round((random.nextDouble() * 2 - 1) * 10) / 10.0;
+                    String systemName = wormhole ? "J" + (100_000 + solarSystemID % 900_000) : name(1) + "-" + (s + 1);
+                    solarSystems.put(solarSystemID, new SolarSystem(regionID, constellationID, solarSystemID, systemName, coordinate(), coordinate(), coordinate(), security, factionID, sunTypeID, wormholeClassID));
+
+                    Set<Celestial> systemCelestials = produceSet();
+                    systemCelestials.add(new Celestial(++itemID, sunTypeID, 6, systemName + " - Star", null, null));
+                    int planets = 1 + random.nextInt(10);
+                    for (int p = 1; p <= planets; p++) {
+                        systemCelestials.add(new Celestial(++itemID, sunTypeID, 7, systemName + " " + roman(p), p, null));
+                        for (int m = 1; m <= random.nextInt(4); m++) {
+                            systemCelestials.add(new Celestial(++itemID, sunTypeID, 8, systemName + " " + roman(p) + " - Moon " + m, p, m));
+                        }
+                        if (random.nextInt(4) == 0) {
+                            systemCelestials.add(new Celestial(++itemID, sunTypeID, 9, systemName + " " + roman(p) + " - Asteroid Belt 1", p, 1));
+                        }
+                    }
+                    celestials.put(solarSystemID, systemCelestials);
+
+                    if (!wormhole && random.nextInt(4) == 0) {
+                        Set<Station> systemStations = produceSet();
+                        EnumSet<Station.Service> services = EnumSet.noneOf(Station.Service.class);
+                        for (Station.Service service : Station.Service.values()) {
+                            if (random.nextBoolean()) services.add(service);
+                        }
+                        // Services are generated as already patched in from the station operation, see SyntheticFSDData for the operations
+                        systemStations.add(new Station(++stationID, sunTypeID, systemName + " - " + name(2) + " Station", 1 + random.nextInt(STATION_OPERATION_COUNT), services));
+                        stations.put(solarSystemID, systemStations);
+                    }
+
+                    if (!wormhole) {
+                        // Connect to a random earlier system, and to the previous system in the constellation
+                        if (!previousSystems.isEmpty()) jump(solarSystemID, previousSystems.get(random.nextInt(previousSystems.size())));
+                        if (s > 0) jump(solarSystemID, solarSystemID - 1);
+                        previousSystems.add(solarSystemID);
+                    }
+                }
+            }
+        }
+    }
+
+    private void category(int categoryID, String name, int groupCount, int typesPerGroup, java.util.function.Consumer<Type> consumer) {
+        categories.put(categoryID, new Category(categoryID, name, null, true));
+        for (int g = 0; g < groupCount; g++) {
+            int groupID = nextGroupID++;
+            groups.put(groupID, new Group(groupID, categoryID, name(1) + " " + name, null, true));
+            int marketGroupID = categoryID == 7 ? 9 : -1;
+            for (int t = 0; t < typesPerGroup; t++) {
+                consumer.accept(type(nextTypeID++, groupID, marketGroupID));
+            }
+        }
+    }
+
+    private Type type(int typeID, int groupID, Integer marketGroupID) {
+        return type(typeID, groupID, name(2), marketGroupID);
+    }
+
+    private Type type(int typeID, int groupID, String name, Integer marketGroupID) {
+        // Ships share graphics between hulls, see SyntheticFSDData for the graphics
+        Integer graphicID = groups.get(groupID).categoryID == 6 ? 1 + random.nextInt(scaled(500)) : null;
+        Type type = new Type(
+            typeID,
+            groupID,
+            name,
+            description(),
+            random.nextDouble() * 1e6,
+            random.nextDouble() * 1e3,
+            random.nextInt(4) == 0 ? random.nextDouble() * 500 : 0.0,
+            true,
+            null,
+            graphicID,
+            marketGroupID
+        );
+        types.put(typeID, type);
+        return type;
+    }
+
+    private void shipAttributes(Type ship, List<Type> skills) {
+        Map<Integer, Double> attributes = genericAttributes(ship, 150);
+        for (int hp : new int[]{9, 263, 265}) attributes.put(hp, 100 + random.nextDouble() * 20000);
+        for (int resonance : new int[]{109, 110, 111, 113, 267, 268, 269, 270, 271, 272, 273, 274}) attributes.put(resonance, 0.2 + random.nextDouble() * 0.8);
+        for (int slots : new int[]{12, 13, 14}) attributes.put(slots, (double) random.nextInt(8));
+        attributes.put(101, (double) random.nextInt(4));
+        attributes.put(102, (double) random.nextInt(6));
+        attributes.put(1137, 3.0);
+        attributes.put(1547, (double) (1 + random.nextInt(4)));
+        attributes.put(48, 100 + random.nextDouble() * 500);
+        attributes.put(11, 50 + random.nextDouble() * 5000);
+        attributes.put(482, 100 + random.nextDouble() * 5000);
+        attributes.put(55, 100_000 + random.nextDouble() * 1_000_000);
+        attributes.put(479, 100_000 + random.nextDouble() * 1_000_000);
+        attributes.put(552, 20 + random.nextDouble() * 500);
+        attributes.put(37, 50 + random.nextDouble() * 500);
+        attributes.put(600, 1 + random.nextDouble() * 5);
+        attributes.put(76, 20_000 + random.nextDouble() * 100_000);
+        attributes.put(564, 50 + random.nextDouble() * 800);
+        attributes.put(192, (double) (3 + random.nextInt(8)));
+        attributes.put(208 + random.nextInt(4), 10 + random.nextDouble() * 40);
+        if (random.nextBoolean()) {
+            attributes.put(283, 25.0 * random.nextInt(10));
+            attributes.put(1271, 25.0 * random.nextInt(10));
+        }
+        if (random.nextInt(8) == 0) {
+            attributes.put(2216, (double) (1 + random.nextInt(5)));
+            attributes.put(2055, 10_000 + random.nextDouble() * 100_000);
+            for (int squadrons : new int[]{2217, 2218, 2219}) attributes.put(squadrons, (double) random.nextInt(4));
+        }
+        skillRequirements(attributes, skills);
+    }
+
+    /// Assigns a log-normally distributed number of attributes to a type, favouring lower attribute IDs as commonly used attributes
+    ///
+    /// @param medianCount Median number of attributes
+    private Map<Integer, Double> genericAttributes(Type type, int medianCount) {
+        int pool = ATTRIBUTE_COUNT - GENERIC_ATTRIBUTE_START;
+        int count = (int) Math.min(pool / 2, Math.max(1, Math.round(medianCount * Math.exp(0.4 * random.nextGaussian()))));
+
+        Map<Integer, Double> attributes = produceAttributeMap();
+        while (attributes.size() < count) {
+            double skew = random.nextDouble();
+            int attributeID = GENERIC_ATTRIBUTE_START + (int) (pool * skew * skew);
+            Integer unitID = this.attributes.get(attributeID).unitID;
+            if (unitID != null && (unitID == 115 || unitID == 116 || unitID == 117)) continue;
+            attributes.put(attributeID, genericValue(unitID));
+        }
+        typeAttributes.put(type.typeID, attributes);
+        return attributes;
+    }
+
+    /// Value for an attribute of the given unit, log-uniformly distributed over the unit's typical range
+    private double genericValue(Integer unitID) {
+        return switch (unitID == null ? -1 : unitID) {
+            case 108, 109, 111, 127 -> random.nextDouble();
+            case 101 -> Math.round(Math.pow(10, 2 + random.nextDouble() * 4));
+            case 1 -> Math.round(Math.pow(10, random.nextDouble() * 5));
+            default -> random.nextInt(5) < 2
+                ? Math.round(Math.pow(10, random.nextDouble() * 4))
+                : Math.round(Math.pow(10, random.nextDouble() * 6 - 2) * 100) / 100.0;
+        };
+    }
+
+    private void skillRequirements(Map<Integer, Double> attributes, List<Type> skills) {
+        for (int i = 0; i < 1 + random.nextInt(3); i++) {
+            attributes.put(TypeSkills.SKILL_ATTRIBUTES[i], (double) skills.get(random.nextInt(skills.size())).typeID);
+            attributes.put(TypeSkills.LEVEL_ATTRIBUTES[i], (double) (1 + random.nextInt(5)));
+        }
+    }
+
+    private void jump(int from, int to) {
+        outJumps.computeIfAbsent(from, this::produceIntSet).add(to);
+        inJumps.computeIfAbsent(to, this::produceIntSet).add(from);
+        outJumps.computeIfAbsent(to, this::produceIntSet).add(from);
+        inJumps.computeIfAbsent(from, this::produceIntSet).add(to);
+    }
+
+    private TypeTraits.Bonus bonus() {
+        return new TypeTraits.Bonus((double) (5 + random.nextInt(20)), "bonus to " + name(2).toLowerCase() + " " + name(1).toLowerCase(), 105);
+    }
+
+    private String name(int words) {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) name.append(' ');
+            name.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return name.toString();
+    }
+
+    private String description() {
+        StringBuilder description = new StringBuilder();
+        int sentences = 1 + random.nextInt(6);
+        for (int i = 0; i < sentences; i++) {
+            description.append(name(1 + random.nextInt(4))).append(" & ").append(name(2).toLowerCase());
+            if (random.nextInt(4) == 0) {
+                description.append(" <b>").append(name(1)).append("</b>");
+            }
+            if (random.nextInt(6) == 0 && !types.isEmpty()) {
+                description.append(" <a href=showinfo:").append(100_000 + random.nextInt(types.size())).append(">").append(name(1)).append("</a>");
+            }
+            description.append(". ");
+            if (random.nextInt(5) == 0) description.append("<br><br>");
+        }
+        return description.toString();
+    }
+
+    private double coordinate() {
+        return (random.nextDouble() * 2 - 1) * 1e17;
+    }
+
+    private static String roman(int number) {
+        return new String[]{"", "I", "II", "III", "IV", "V", "VI", "VII", "VIII", "IX", "X", "XI"}[number];
+    }
+
+    /// Every ship listed in the ship tree; Reading these lists keeps the synthetic data in step with {@link ShipTreePage}
+    private static Set<Integer> shipTreeShips() {
+        Set<Integer> ships = new TreeSet<>();
+        for (Field field : ShipTreePage.class.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) && field.getType() == int[].class && field.getName().endsWith("_SHIPS")) {
+                for (int typeID : shipTreeField(field.getName(), int[].class)) {
+                    ships.add(typeID);
+                }
+            }
+        }
+        return ships;
+    }
+
+    private static <T> T shipTreeField(String name, Class<T> type) {
+        try {
+            Field field = ShipTreePage.class.getDeclaredField(name);
+            field.setAccessible(true);
+            return type.cast(field.get(null));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Ship tree field not found: " + name, e);
+        }
+    }
+
+    @Override
+    public Map<Integer, Category> getCategories() {
+        return categories;
+    }
+
+    @Override
+    public Map<Integer, Group> getGroups() {
+        return groups;
+    }
+
+    @Override
+    public Map<Integer, Type> getTypes() {
+        return types;
+    }
+
+    @Override
+    public Map<Integer, TypeTraits> getTypeTraits() {
+        return typeTraits;
+    }
+
+    @Override
+    public Map<Integer, Attribute> getAttributes() {
+        return attributes;
+    }
+
+    @Override
+    public Map<Integer, Map<Integer, Double>> getTypeAttributes() {
+        return typeAttributes;
+    }
+
+    @Override
+    public Map<Integer, Effect> getEffects() {
+        return effects;
+    }
+
+    @Override
+    public Map<Integer, Set<Integer>> getTypeEffects() {
+        return typeEffects;
+    }
+
+    @Override
+    public Map<Integer, String> getEveIcons() {
+        return eveIcons;
+    }
+
+    @Override
+    public Map<Integer, EnumMap<IndustryActivityType, IndustryActivity>> getBpActivities() {
+        return bpActivities;
+    }
+
+    @Override
+    public Map<Integer, Map<Integer, Integer>> getReprocessingMaterials() {
+        return reprocessingMaterials;
+    }
+
+    @Override
+    public Map<Integer, PlanetSchematic> getPlanetSchematics() {
+        return planetSchematics;
+    }
+
+    @Override
+    public Map<Integer, MetaGroup> getMetaGroups() {
+        return metaGroups;
+    }
+
+    @Override
+    public Map<Integer, Set<Integer>> getVariants() {
+        return variants;
+    }
+
+    @Override
+    public Map<Integer, Integer> getMetaTypes() {
+        return metaTypes;
+    }
+
+    @Override
+    public Map<Integer, SolarSystem> getSolarSystems() {
+        return solarSystems;
+    }
+
+    @Override
+    public Map<Integer, Constellation> getConstellations() {
+        return constellations;
+    }
+
+    @Override
+    public Map<Integer, Region> getRegions() {
+        return regions;
+    }
+
+    @Override
+    public Map<Integer, Set<Integer>> getOutJumps() {
+        return outJumps;
+    }
+
+    @Override
+    public Map<Integer, Set<Integer>> getInJumps() {
+        return inJumps;
+    }
+
+    @Override
+    public Map<Integer, Set<Celestial>> getCelestials() {
+        return celestials;
+    }
+
+    @Override
+    public Map<Integer, Set<Station>> getStations() {
+        return stations;
+    }
+
+    @Override
+    public Map<Integer, Faction> getFactions() {
+        return factions;
+    }
+
+    @Override
+    public Map<Integer, MarketGroup> getMarketGroups() {
+        return marketGroups;
+    }
+}
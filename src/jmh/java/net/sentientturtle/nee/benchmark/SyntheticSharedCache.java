@@ -0,0 +1,75 @@
+package net.sentientturtle.nee.benchmark;
+
+import net.sentientturtle.nee.data.sharedcache.SharedCacheReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.stream.Stream;
+
+/// {@link SharedCacheReader} that contains every resource, each a placeholder image
+///
+/// Backed by an empty cache folder, as SharedCacheReader requires a cache index to exist.
+public class SyntheticSharedCache extends SharedCacheReader {
+    // 1x1 transparent PNG
+    private static final byte[] PLACEHOLDER = Base64.getDecoder().decode("iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAYAAAAfFcSJAAAADUlEQVR42mNkYPhfDwAChwGA60e6kgAAAABJRU5ErkJggg==");
+
+    private final Path placeholderFile;
+
+    private SyntheticSharedCache(Path cacheFolder) throws IOException {
+        super(cacheFolder);
+        this.placeholderFile = cacheFolder.resolve("ResFiles/placeholder.png");
+    }
+
+    /// Creates the cache in a new temporary folder, which is deleted when the JVM exits
+    public static SyntheticSharedCache create() throws IOException {
+        Path folder = Files.createTempDirectory("nee-sharedcache");
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> delete(folder)));
+        Files.createDirectories(folder.resolve("tq"));
+        Files.createDirectories(folder.resolve("ResFiles"));
+        Files.writeString(folder.resolve("tq/resfileindex.txt"), "");
+        Files.write(folder.resolve("ResFiles/placeholder.png"), PLACEHOLDER);
+        return new SyntheticSharedCache(folder);
+    }
+
+    private static void delete(Path folder) {
+        try (Stream<Path> files = Files.walk(folder)) {
+            // Contents are deleted before the folders containing them
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to delete synthetic shared cache " + folder + ": " + e);
+        }
+    }
+
+    @Override
+    public boolean containsResource(String resource) {
+        return true;
+    }
+
+    @Override
+    public String getResourceHash(String resource) {
+        return HexFormat.of().toHexDigits(resource.toLowerCase().hashCode());
+    }
+
+    @Override
+    public Path getPath(String resource) {
+        return placeholderFile;
+    }
+
+    @Override
+    public byte[] getBytes(String resource) {
+        return PLACEHOLDER;
+    }
+
+    @Override
+    public InputStream getInputStream(String resource) {
+        return new ByteArrayInputStream(PLACEHOLDER);
+    }
+}
@@ -0,0 +1,54 @@
+package net.sentientturtle.nee.benchmark;
+
+import net.sentientturtle.nee.data.sde.YAMLDataExportReader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/// {@link YAMLDataExportReader#readTypes} over a bundled sample of the SDE's `fsd/types.yaml`
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-native-access=ALL-UNNAMED")
+public class YamlReaderBenchmark {
+    private Path sdeZip;
+    private YAMLDataExportReader reader;
+
+    @Setup
+    public void setup() throws IOException {
+        sdeZip = Files.createTempFile("nee-sde", ".zip");
+        try (
+            InputStream sample = YamlReaderBenchmark.class.getResourceAsStream("/sde/fsd/types.yaml");
+            ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(sdeZip))
+        ) {
+            if (sample == null) throw new IOException("Missing sample resource /sde/fsd/types.yaml");
+            zip.putNextEntry(new ZipEntry("fsd/types.yaml"));
+            sample.transferTo(zip);
+            zip.closeEntry();
+        }
+        reader = new YAMLDataExportReader(sdeZip);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        reader.close();
+        Files.deleteIfExists(sdeZip);
+    }
+
+    @Benchmark
+    public void readTypes(Blackhole blackhole) throws IOException {
+        reader.readTypes((typeID, type) -> {
+            blackhole.consume(typeID);
+            blackhole.consume(type);
+        });
+    }
+}
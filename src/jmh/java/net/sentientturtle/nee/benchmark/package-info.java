@@ -0,0 +1,5 @@
+/// JMH benchmarks, run with `gradle jmh`
+///
+/// Benchmarks use generated data from {@link net.sentientturtle.nee.benchmark.BenchmarkData} instead of a game install.
+/// Benchmarks with a `scale` parameter can be run over larger data sets, e.g. `gradle jmh -Pjmh="LoadViews -p scale=10,100 -jvmArgsAppend -Xmx32g"`
+package net.sentientturtle.nee.benchmark;
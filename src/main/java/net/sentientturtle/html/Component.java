@@ -1,15 +1,26 @@
 package net.sentientturtle.html;
 
 import net.sentientturtle.html.context.HtmlContext;
+import net.sentientturtle.nee.data.DataSources;
 import org.jspecify.annotations.Nullable;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /// Top level class for reusable HTML "components"
 ///
 /// Components consist of a DIV with some subclass-specified content & style
 public abstract class Component extends Element {
+    // Rendered content of components that are rendered on multiple pages, see Component#contentKey
+    // Held per DataSources instance, and released with it; Each is bounded by no longer adding entries once full
+    private static final int CONTENT_CACHE_SIZE = 1 << 15;
+    private record ContentKey(Class<? extends Component> component, Object key, int folderDepth) {}
+    private static final Map<DataSources, ConcurrentHashMap<ContentKey, PrerenderedHTML>> CONTENT_CACHES = Collections.synchronizedMap(new WeakHashMap<>());
+
     /// @param className Unique className for this component
     protected Component(String tagName, String className) {
         super(tagName);
@@ -34,7 +45,8 @@ public abstract class Component extends Element {
     public final void renderTo(HtmlContext context) throws RenderingException {
         try {
             // This is a bit janky, but we want the component's own content to precede any content added through Element#content
-            var componentContent = getContent(context);
+            Object key = contentKey(context);
+            var componentContent = key != null ? new HTML[]{cachedContent(context, key)} : getContent(context);
             var newContent = new ArrayList<HTML>(this.content.size() + componentContent.length);
 
             Collections.addAll(newContent, componentContent);
@@ -51,6 +63,25 @@ public abstract class Component extends Element {
         if (script != null) context.registerJavascript(script);
     }
 
+    private PrerenderedHTML cachedContent(HtmlContext context, Object key) throws RenderingException, IOException {
+        var contentCache = CONTENT_CACHES.computeIfAbsent(context.dataSources, _ -> new ConcurrentHashMap<>());
+        var contentKey = new ContentKey(this.getClass(), key, context.getFolderDepth());
+        PrerenderedHTML content = contentCache.get(contentKey);
+        if (content == null) {
+            content = PrerenderedHTML.render(context.getFolderDepth(), context.dataSources, c -> HTML.multi(getContent(c)));
+            if (content.hasIDs()) throw new IllegalStateException("Components with cached content must not use IDs: " + this.getClass().getName());
+            if (contentCache.size() < CONTENT_CACHE_SIZE) contentCache.putIfAbsent(contentKey, content);
+        }
+        return content;
+    }
+
+    /// Key under which the content of this component is cached between pages, or null if the content is not cached
+    ///
+    /// Components of the same class with the same key must have the same content in documents with the same folder depth, and that content must not use IDs
+    protected @Nullable Object contentKey(HtmlContext context) {
+        return null;
+    }
+
     /// HTML content for this Component
     protected abstract HTML[] getContent(HtmlContext context);
 
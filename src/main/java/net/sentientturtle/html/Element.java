@@ -156,7 +156,7 @@ public non-sealed class Element implements HTML {
             HTMLAttribute value = attribute.getValue();
             if (value != null) {
                 context.write("='");
-                context.write(HTMLUtil.escapeAttributeValue(value.resolve(context)));
+                HTMLUtil.writeEscapedAttributeValue(context, value.resolve(context));
                 context.write("'");
             }
         }
@@ -2,11 +2,19 @@ package net.sentientturtle.html;
 
 import net.sentientturtle.html.context.HtmlContext;
 import net.sentientturtle.nee.Main;
+import net.sentientturtle.nee.data.DataSources;
 import net.sentientturtle.nee.data.ResourceLocation;
 import net.sentientturtle.nee.page.PageKind;
+import net.sentientturtle.nee.util.ExceptionUtil;
 import org.jspecify.annotations.Nullable;
 
+import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 import static net.sentientturtle.html.HTML.*;
 
@@ -41,18 +49,42 @@ public abstract non-sealed class Frame implements Document, HTML {
         throw new UnsupportedOperationException("Elements do not support toString; use HTML#renderTo instead");
     }
 
-    @Override
-    public void renderTo(HtmlContext context) throws RenderingException {
+    private record TemplateKey(String name, int folderDepth) {}
+    // Held per DataSources instance, and released with it
+    private static final Map<DataSources, ConcurrentHashMap<TemplateKey, PrerenderedHTML>> TEMPLATES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /// Fragment that is identical in every document with the same folder depth, pre-rendered once per folder depth
+    ///
+    /// @param name    Unique name for the fragment
+    /// @param factory Creates the fragment's HTML, requesting any IDs from the context it is given
+    protected static HTML template(HtmlContext context, String name, Function<HtmlContext, HTML> factory) {
+        DataSources dataSources = context.dataSources;
+        var templates = TEMPLATES.computeIfAbsent(dataSources, _ -> new ConcurrentHashMap<>());
+        return templates.computeIfAbsent(new TemplateKey(name, context.getFolderDepth()), key -> {
+            try {
+                return PrerenderedHTML.render(key.folderDepth, dataSources, factory);
+            } catch (RenderingException | IOException e) {
+                return ExceptionUtil.sneakyThrow(e);
+            }
+        });
+    }
+
+    /// Document head, with per-page title and opengraph tags
+    protected Element getHead(HtmlContext context) {
         var head = HEAD().content(
-            META().attribute("charset", "UTF-8"),
-            META().attribute("name", "viewport").attribute("content", "width=device-width, initial-scale=1, minimum-scale=1"),
+            template(context, "head_meta", _ -> HTML.multi(
+                META().attribute("charset", "UTF-8"),
+                META().attribute("name", "viewport").attribute("content", "width=device-width, initial-scale=1, minimum-scale=1")
+            )),
             TITLE(this.title()),
-            LINK().attribute("rel", "stylesheet").attribute("href", c -> c.pathTo("stylesheet.css") + "?v=" + Main.BUILD_NUMBER),
-            LINK().attribute("rel", "stylesheet").attribute("href", c -> c.pathTo("theme.css")).id(context.tryID("theme_stylesheet")),
-            LINK().attribute("rel", "icon").attribute("href", c -> ResourceLocation.file("bookicon.png").getURI(c))
+            template(context, "head_links", c -> HTML.multi(
+                LINK().attribute("rel", "stylesheet").attribute("href", c.pathTo("stylesheet.css") + "?v=" + Main.BUILD_NUMBER),
+                LINK().attribute("rel", "stylesheet").attribute("href", c.pathTo("theme.css")).id(c.tryID("theme_stylesheet")),
+                LINK().attribute("rel", "icon").attribute("href", ResourceLocation.file("bookicon.png").getURI(c)),
+                META().attribute("property", "og:site_name").attribute("content", Main.WEBSITE_NAME)
+            ))
         );
 
-        head.content(META().attribute("property", "og:site_name").attribute("content", Main.WEBSITE_NAME));
         head.content(META().attribute("property", "og:title").attribute("content", this.name()));
         String page_description = this.description();
         if (page_description != null) {
@@ -67,10 +99,14 @@ public abstract non-sealed class Frame implements Document, HTML {
             head.content(entry);
         }
 
-        head.content(HTML.RAW("<script type='module' src='" + HTMLUtil.escapeAttributeValue(context.pathTo("script.js")) + "'></script>"));
+        head.content(template(context, "head_script", c -> HTML.RAW("<script type='module' src='" + HTMLUtil.escapeAttributeValue(c.pathTo("script.js")) + "'></script>")));
+        return head;
+    }
 
+    @Override
+    public void renderTo(HtmlContext context) throws RenderingException {
         Element content = DOCUMENT_ROOT().content(
-            head,
+            getHead(context),
             BODY().content(getContent(context))
         );
         try {
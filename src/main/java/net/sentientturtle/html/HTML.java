@@ -19,7 +19,7 @@ import java.util.Objects;
 /// Also serves as container for common HTML element factory methods
 ///
 /// All (direct) implementations should override toString() and direct users to {@link #renderTo(HtmlContext)}
-public sealed interface HTML permits Element, HTML.EmptyHTML, HTML.MultiHTML, HTML.RawHTML, HTML.RepeatHTML, HTML.TextHTML, Frame {
+public sealed interface HTML permits Element, HTML.EmptyHTML, HTML.MultiHTML, HTML.RawHTML, HTML.RepeatHTML, HTML.TextHTML, Frame, PrerenderedHTML {
     /// Empty HTML object, equivalent to a zero-length string in the generated HTML
     static HTML empty() {
         return new EmptyHTML();
@@ -400,7 +400,7 @@ public sealed interface HTML permits Element, HTML.EmptyHTML, HTML.MultiHTML, HT
 
         @Override
         public void renderTo(HtmlContext ctx) throws IOException {
-            ctx.write(HTMLUtil.escapeText(textContent));
+            HTMLUtil.writeEscapedText(ctx, textContent);
         }
     }
 }
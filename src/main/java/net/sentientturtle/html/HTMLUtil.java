@@ -1,7 +1,10 @@
 package net.sentientturtle.html;
 
+import net.sentientturtle.html.context.HtmlContext;
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
 
+import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 
@@ -14,28 +17,80 @@ public class HTMLUtil {
      * e.g. does not prevent scripts being inserted
      *
      * @param value Attribute value to escape
-     * @return Syntax-escaped HTML attribute value
+     * @return Syntax-escaped HTML attribute value; {@code value} itself if it contains no characters that need escaping
      */
     public static String escapeAttributeValue(@NonNull String value) {
-        return value
-                .replace("&", "&amp;")
-                .replace("<", "&lt;")
-                .replace(">", "&gt;")
-                .replace("'", "&#39;")
-                .replace("\"", "&quot;");
+        return escape(value, false);
     }
 
     /**
      * Performs escaping for HTML text content
      *
      * @param text text
-     * @return Escaped HTML text content
+     * @return Escaped HTML text content; {@code text} itself if it contains no characters that need escaping
      */
     public static String escapeText(@NonNull String text) {
-        return text
-                .replace("&", "&amp;")
-                .replace("<", "&lt;")
-                .replace(">", "&gt;");
+        return escape(text, true);
+    }
+
+    /// Writes a syntax-escaped HTML attribute value to {@code context}, without creating an intermediate string; See {@link #escapeAttributeValue(String)}
+    public static void writeEscapedAttributeValue(HtmlContext context, @NonNull String value) throws IOException {
+        writeEscaped(context, value, false);
+    }
+
+    /// Writes escaped HTML text content to {@code context}, without creating an intermediate string; See {@link #escapeText(String)}
+    public static void writeEscapedText(HtmlContext context, @NonNull String text) throws IOException {
+        writeEscaped(context, text, true);
+    }
+
+    /// Escape sequence for a character, or null if it does not need escaping; Quotes only need escaping in attribute values
+    private static @Nullable String escapeSequence(char c, boolean isText) {
+        return switch (c) {
+            case '&' -> "&amp;";
+            case '<' -> "&lt;";
+            case '>' -> "&gt;";
+            case '\'' -> isText ? null : "&#39;";
+            case '"' -> isText ? null : "&quot;";
+            default -> null;
+        };
+    }
+
+    private static String escape(String string, boolean isText) {
+        int length = string.length();
+        int i = 0;
+        while (i < length && escapeSequence(string.charAt(i), isText) == null) i++;
+        if (i == length) return string;
+
+        StringBuilder builder = new StringBuilder(length + 16);
+        builder.append(string, 0, i);
+        for (; i < length; i++) {
+            char c = string.charAt(i);
+            String sequence = escapeSequence(c, isText);
+            if (sequence != null) {
+                builder.append(sequence);
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static void writeEscaped(HtmlContext context, String string, boolean isText) throws IOException {
+        int length = string.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            String sequence = escapeSequence(string.charAt(i), isText);
+            if (sequence != null) {
+                if (i > start) context.write(string, start, i);
+                context.write(sequence);
+                start = i + 1;
+            }
+        }
+        if (start == 0) {
+            context.write(string);
+        } else if (start < length) {
+            context.write(string, start, length);
+        }
     }
 
     /// Hack-y percent-encoding, correct but to be replaced with proper encoding
@@ -52,16 +107,32 @@ public class HTMLUtil {
      * @return Escaped name
      */
     public static String escapeFileNameURL(@NonNull String name) {
-        return name
-            .replace("<", "")
-            .replace(">", "")
-            .replace(":", "")
-            .replace("\"", "''")
-            .replace("/", "-")
-            .replace("\\", "-")
-            .replace("|", "-")
-            .replace("?", "")
-            .replace("#", "")
-            .replace("*", "");
+        int length = name.length();
+        int i = 0;
+        while (i < length && fileNameReplacement(name.charAt(i)) == null) i++;
+        if (i == length) return name;
+
+        StringBuilder builder = new StringBuilder(length + 4);
+        builder.append(name, 0, i);
+        for (; i < length; i++) {
+            char c = name.charAt(i);
+            String replacement = fileNameReplacement(c);
+            if (replacement != null) {
+                builder.append(replacement);
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    /// Replacement for a character in file names, or null if the character is kept
+    private static @Nullable String fileNameReplacement(char c) {
+        return switch (c) {
+            case '<', '>', ':', '?', '#', '*' -> "";
+            case '"' -> "''";
+            case '/', '\\', '|' -> "-";
+            default -> null;
+        };
     }
 }
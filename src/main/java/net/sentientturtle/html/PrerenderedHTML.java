@@ -0,0 +1,83 @@
+package net.sentientturtle.html;
+
+import net.sentientturtle.html.context.HtmlContext;
+import net.sentientturtle.html.context.StringBuilderHtmlContext;
+import net.sentientturtle.nee.data.DataSources;
+import net.sentientturtle.nee.data.ResourceLocation;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.function.Function;
+
+/// HTML rendered ahead of time, for fragments that are identical in every document with the same folder depth
+///
+/// Side effects of rendering (IDs, CSS, Javascript and file dependencies) are recorded, and applied to each context this is rendered to
+public final class PrerenderedHTML implements HTML {
+    private final String html;
+    private final byte[] utf8;
+    private final String[] ids;
+    private final String[] css;
+    private final String[] javascript;
+    private final Map<Path, ResourceLocation.ResourceData> fileDependencies;
+
+    private PrerenderedHTML(StringBuilderHtmlContext context) {
+        this.html = context.getBuffer().toString();
+        this.utf8 = html.getBytes(StandardCharsets.UTF_8);
+        this.ids = context.getUsedIDs().toArray(String[]::new);
+        this.css = context.getCSS().toArray(String[]::new);
+        this.javascript = context.getJavascript().toArray(String[]::new);
+        this.fileDependencies = Map.copyOf(context.getFileDependencies());
+    }
+
+    private PrerenderedHTML(String html) {
+        this.html = html;
+        this.utf8 = html.getBytes(StandardCharsets.UTF_8);
+        this.ids = new String[0];
+        this.css = new String[0];
+        this.javascript = new String[0];
+        this.fileDependencies = Map.of();
+    }
+
+    /// Wraps HTML that has been rendered without side effects, and which does not depend on the folder depth of the document
+    public static PrerenderedHTML of(String html) {
+        return new PrerenderedHTML(html);
+    }
+
+    /// Renders the HTML created by {@code factory}, for documents with the given folder depth
+    ///
+    /// {@code factory} receives the context used for pre-rendering, from which any IDs must be requested
+    public static PrerenderedHTML render(int folderDepth, DataSources dataSources, Function<HtmlContext, HTML> factory) throws RenderingException, IOException {
+        var context = new StringBuilderHtmlContext(folderDepth, dataSources);
+        factory.apply(context).renderTo(context);
+        return new PrerenderedHTML(context);
+    }
+
+    /// @return Whether rendering this HTML used IDs
+    boolean hasIDs() {
+        return ids.length > 0;
+    }
+
+    @Override
+    public String toString() {
+        throw new UnsupportedOperationException("Elements do not support toString; use HTML#renderTo instead");
+    }
+
+    @Override
+    public void renderTo(HtmlContext context) throws IOException {
+        context.write(html, utf8);
+        for (String id : ids) {
+            context.tryID(id);
+        }
+        for (String segment : css) {
+            context.registerCSS(segment);
+        }
+        for (String segment : javascript) {
+            context.registerJavascript(segment);
+        }
+        for (var entry : fileDependencies.entrySet()) {
+            context.addFileDependency(entry.getKey(), entry.getValue());
+        }
+    }
+}
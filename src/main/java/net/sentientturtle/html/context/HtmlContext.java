@@ -10,9 +10,11 @@ import org.jspecify.annotations.NonNull;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /// HTML generation context object; Representing a single HTML document and it's scope
@@ -57,6 +59,11 @@ public abstract class HtmlContext {
         this.fileDependencies = new HashMap<>();
     }
 
+    /// @return Folder depth of this page; 0 if this page is in the website root
+    public int getFolderDepth() {
+        return folderDepth;
+    }
+
     /**
      * @param absolutePath Target path, "absolute" from the website root
      * @return Relative path from this page to {@code absolutePath}
@@ -110,6 +117,11 @@ public abstract class HtmlContext {
     }
 
 
+    /// @return IDs given out in this context
+    public Set<String> getUsedIDs() {
+        return Collections.unmodifiableSet(usedIDs);
+    }
+
     /**
      * Requests an ID, providing it if it has not been given out
      * @throws IllegalStateException If the requested ID has already been given out
@@ -186,4 +198,27 @@ public abstract class HtmlContext {
      * @throws IOException If a write error occurs
      */
     public abstract HtmlContext write(String string) throws IOException;
+
+    /**
+     * Write part of a string to this page
+     * @param string Content to write, raw HTML string
+     * @param start Index of the first character to write
+     * @param end Index after the last character to write
+     * @return This object, for chaining
+     * @throws IOException If a write error occurs
+     */
+    public HtmlContext write(String string, int start, int end) throws IOException {
+        return write(string.substring(start, end));
+    }
+
+    /**
+     * Write content to this page, which has already been encoded as UTF-8
+     * @param string Content to write, raw HTML string
+     * @param utf8 UTF-8 encoding of {@code string}, which contexts producing UTF-8 may use directly
+     * @return This object, for chaining
+     * @throws IOException If a write error occurs
+     */
+    public HtmlContext write(String string, byte[] utf8) throws IOException {
+        return write(string);
+    }
 }
@@ -12,4 +12,9 @@ public class NoopHtmlContext extends HtmlContext {
     public HtmlContext write(String string) {
         return this;
     }
+
+    @Override
+    public HtmlContext write(String string, int start, int end) {
+        return this;
+    }
 }
@@ -4,11 +4,12 @@ import net.sentientturtle.nee.data.DataSources;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.nio.charset.StandardCharsets;
 
 /// {@link HtmlContext} that writes directly to an OutputStream
 public class OutputStreamHtmlContext extends HtmlContext {
     private final OutputStream out;
+    // Scratch buffer for UTF-8 encoding, reused between writes
+    private byte[] buffer = new byte[1024];
 
     public OutputStreamHtmlContext(int folderDepth, DataSources dataSources, OutputStream out) {
         super(folderDepth, dataSources);
@@ -17,7 +18,16 @@ public class OutputStreamHtmlContext extends HtmlContext {
 
     @Override
     public HtmlContext write(String string) throws IOException {
-        out.write(string.getBytes(StandardCharsets.UTF_8));
+        return write(string, 0, string.length());
+    }
+
+    @Override
+    public HtmlContext write(String string, int start, int end) throws IOException {
+        int maxLength = (end - start) * 3;
+        if (maxLength > buffer.length) {
+            buffer = new byte[maxLength];
+        }
+        out.write(buffer, 0, Utf8HtmlContext.encode(string, start, end, buffer, 0));
         return this;
     }
 }
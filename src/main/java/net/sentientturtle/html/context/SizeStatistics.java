@@ -0,0 +1,51 @@
+package net.sentientturtle.html.context;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/// Thread-safe histogram of output sizes, used to estimate the buffer capacity needed for similar output
+///
+/// Sizes are bucketed by their highest set bit and the two bits below it, so each bucket is at most 25% wider than its lower bound.
+public final class SizeStatistics {
+    // Estimates from only a few samples are unreliable
+    private static final int MIN_SAMPLES = 16;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(128);
+    private final LongAdder count = new LongAdder();
+
+    public void record(int size) {
+        buckets.incrementAndGet(bucket(size));
+        count.increment();
+    }
+
+    /// @param percentile Fraction of sizes that the returned size should be able to hold, between 0 and 1
+    /// @param defaultSize Returned if too few sizes have been recorded
+    /// @return A size at least as large as the given percentile of recorded sizes
+    public int percentile(double percentile, int defaultSize) {
+        long total = count.sum();
+        if (total < MIN_SAMPLES) return defaultSize;
+
+        long target = (long) Math.ceil(total * percentile);
+        long cumulative = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            cumulative += buckets.get(i);
+            if (cumulative >= target) return upperBound(i);
+        }
+        // Buckets are updated before the count, so concurrent recording can not cause this
+        return defaultSize;
+    }
+
+    private static int bucket(int size) {
+        if (size < 4) return Math.max(size, 0);
+        int bits = 31 - Integer.numberOfLeadingZeros(size);
+        return ((bits - 1) << 2) | ((size >>> (bits - 2)) & 3);
+    }
+
+    /// @return Exclusive upper bound of the sizes in a bucket
+    private static int upperBound(int bucket) {
+        if (bucket < 4) return bucket + 1;
+        int bits = (bucket >> 2) + 1;
+        long bound = (long) ((4 | (bucket & 3)) + 1) << (bits - 2);
+        return (int) Math.min(bound, Integer.MAX_VALUE - 8);
+    }
+}
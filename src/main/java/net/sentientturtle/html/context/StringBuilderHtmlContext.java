@@ -18,6 +18,12 @@ public class StringBuilderHtmlContext extends HtmlContext {
         return this;
     }
 
+    @Override
+    public HtmlContext write(String string, int start, int end) {
+        this.buffer.append(string, start, end);
+        return this;
+    }
+
     public StringBuilder getBuffer() {
         return buffer;
     }
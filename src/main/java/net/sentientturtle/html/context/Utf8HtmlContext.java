@@ -0,0 +1,156 @@
+package net.sentientturtle.html.context;
+
+import net.sentientturtle.nee.data.DataSources;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/// {@link HtmlContext} that encodes written HTML as UTF-8 directly into a byte buffer
+///
+/// The buffer is borrowed from a per-thread pool on construction, and returned by {@link #release()}.
+/// If the expected length of the output is known, a pooled buffer that is too small for it is not used, and a buffer of the expected size is allocated instead.
+/// Contents are available through {@link #getBuffer()} and {@link #length()} until released, so that they can be handed to a compressor or writer without copying.
+public class Utf8HtmlContext extends HtmlContext {
+    private static final int INITIAL_CAPACITY = 64 * 1024;
+    // Buffers that grew beyond this size are not pooled, to avoid holding on to the memory of outlier pages
+    private static final int MAX_POOLED_CAPACITY = 16 * 1024 * 1024;
+    private static final ThreadLocal<byte[]> POOL = new ThreadLocal<>();
+    private static final LongAdder REUSED = new LongAdder();
+    private static final LongAdder ALLOCATED = new LongAdder();
+    private static final LongAdder GROWN = new LongAdder();
+
+    private byte[] buffer;
+    private int length;
+
+    public Utf8HtmlContext(int folderDepth, DataSources dataSources) {
+        this(folderDepth, dataSources, 0);
+    }
+
+    /// @param expectedLength Expected length of the output in bytes, so that the buffer does not have to grow while writing
+    public Utf8HtmlContext(int folderDepth, DataSources dataSources, int expectedLength) {
+        super(folderDepth, dataSources);
+
+        byte[] pooled = POOL.get();
+        if (pooled != null && pooled.length >= expectedLength) {
+            POOL.remove();
+            this.buffer = pooled;
+            REUSED.increment();
+        } else {
+            // A pooled buffer that is too small is replaced once this context is released
+            this.buffer = new byte[Math.max(INITIAL_CAPACITY, expectedLength)];
+            ALLOCATED.increment();
+        }
+        this.length = 0;
+    }
+
+    @Override
+    public HtmlContext write(String string) {
+        return write(string, 0, string.length());
+    }
+
+    @Override
+    public HtmlContext write(String string, int start, int end) {
+        ensureCapacity(length + (end - start));
+
+        // Fast path for ASCII, which is the vast majority of generated HTML
+        byte[] buffer = this.buffer;
+        int position = this.length;
+        int i = start;
+        for (; i < end; i++) {
+            char c = string.charAt(i);
+            if (c >= 0x80) break;
+            buffer[position++] = (byte) c;
+        }
+        this.length = position;
+
+        if (i < end) {
+            ensureCapacity(length + (end - i) * 3);
+            this.length = encode(string, i, end, this.buffer, this.length);
+        }
+        return this;
+    }
+
+    @Override
+    public HtmlContext write(String string, byte[] utf8) {
+        ensureCapacity(length + utf8.length);
+        System.arraycopy(utf8, 0, buffer, length, utf8.length);
+        length += utf8.length;
+        return this;
+    }
+
+    /// Encodes `string[start..end]` as UTF-8 into `out`, which must have space for `3 * (end - start)` bytes
+    ///
+    /// Unpaired surrogates are encoded as '?', matching {@link String#getBytes(java.nio.charset.Charset)}
+    ///
+    /// @return Position in `out` after the encoded characters
+    static int encode(String string, int start, int end, byte[] out, int position) {
+        for (int i = start; i < end; i++) {
+            char c = string.charAt(i);
+            if (c < 0x80) {
+                out[position++] = (byte) c;
+            } else if (c < 0x800) {
+                out[position++] = (byte) (0xC0 | (c >> 6));
+                out[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                char low;
+                if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(low = string.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, low);
+                    out[position++] = (byte) (0xF0 | (codePoint >> 18));
+                    out[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    out[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    out[position++] = (byte) (0x80 | (codePoint & 0x3F));
+                    i++;
+                } else {
+                    out[position++] = '?';
+                }
+            } else {
+                out[position++] = (byte) (0xE0 | (c >> 12));
+                out[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                out[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return position;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(capacity, buffer.length * 2));
+            GROWN.increment();
+        }
+    }
+
+    /// @return Buffer containing the UTF-8 encoded HTML in its first {@link #length()} bytes; Only valid until {@link #release()}
+    public byte[] getBuffer() {
+        if (buffer == null) throw new IllegalStateException("Context already released");
+        return buffer;
+    }
+
+    /// @return Number of bytes written
+    public int length() {
+        return length;
+    }
+
+    /// Returns the buffer to the current thread's pool; The context must not be written to afterward
+    public void release() {
+        if (buffer != null && buffer.length <= MAX_POOLED_CAPACITY) {
+            POOL.set(buffer);
+        }
+        buffer = null;
+        length = 0;
+    }
+
+    /// @return Number of contexts that used a pooled buffer
+    public static long getReusedBuffers() {
+        return REUSED.sum();
+    }
+
+    /// @return Number of contexts that allocated a new buffer
+    public static long getAllocatedBuffers() {
+        return ALLOCATED.sum();
+    }
+
+    /// @return Number of times a buffer had to grow while writing
+    public static long getGrownBuffers() {
+        return GROWN.sum();
+    }
+}
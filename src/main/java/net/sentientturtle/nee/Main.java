@@ -5,19 +5,28 @@ import com.almworks.sqlite4java.SQLiteException;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import net.sentientturtle.html.Frame;
 import net.sentientturtle.html.HasPersistentUrl;
 import net.sentientturtle.html.RenderingException;
 import net.sentientturtle.html.context.NoopHtmlContext;
-import net.sentientturtle.html.context.StringBuilderHtmlContext;
+import net.sentientturtle.html.context.SizeStatistics;
+import net.sentientturtle.html.context.Utf8HtmlContext;
+import net.sentientturtle.nee.components.ShipFitting;
 import net.sentientturtle.nee.data.*;
 import net.sentientturtle.nee.data.datatypes.Station;
 import net.sentientturtle.nee.data.datatypes.Type;
 import net.sentientturtle.nee.data.sde.*;
 import net.sentientturtle.nee.data.sharedcache.FSDData;
 import net.sentientturtle.nee.data.sharedcache.IconProvider;
+import net.sentientturtle.nee.output.BuildManifest;
+import net.sentientturtle.nee.output.DirectoryOutputSink;
+import net.sentientturtle.nee.output.IncrementalOutputSink;
+import net.sentientturtle.nee.output.OutputSink;
+import net.sentientturtle.nee.output.ZipArchiveWriter;
 import net.sentientturtle.nee.page.*;
 import net.sentientturtle.nee.data.sharedcache.SharedCacheReader;
 import net.sentientturtle.nee.util.ExceptionUtil;
+import org.jspecify.annotations.Nullable;
 
 import java.io.*;
 import java.net.URI;
@@ -32,9 +41,6 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.zip.Deflater;
-import java.util.zip.GZIPOutputStream;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 
 /// Entrypoint for generating website contents
 public class Main {
@@ -45,13 +51,22 @@ public class Main {
     public static Path YAML_SDE_FILE;
     public static Path SQLITE_SDE_FILE;
     public static Path ICON_CACHE_FILE;
+    public static Path RESOURCE_INDEX_CACHE_FILE;
+    public static Path SDE_SNAPSHOT_FILE;
     public static boolean UPDATE_SDE;
+    public static boolean SDE_SNAPSHOT;     // Reuse the loaded SDE data from a snapshot of the previous run
     public static int COMPRESSION;  // No compression is moderately faster
     public static boolean GENERATE_ICONS;
     public static boolean SKIP_RESOURCES;
     public static boolean IS_DEV_BUILD;
     public static String DEPLOYMENT_URL;
     public static Set<String> PRE_COMPRESSED_FILES;
+    public static boolean OUTPUT_TO_DIRECTORY;   // Write website files into a directory instead of an archive
+    public static int OUTPUT_WRITER_THREADS;     // Threads writing files when outputting to a directory
+    public static boolean INCREMENTAL_BUILD;     // Reuse files unchanged since the previous build
+    public static Path SHARD_FOLDER;             // Data plane and output segments of sharded builds, see ShardedBuild
+    public static long RESOURCE_CACHE_SIZE;      // Maximum size of shared cache resource data kept in memory, in bytes
+    public static int ICON_THREADS;              // Threads used to generate type icons ahead of writing resources
 
     public static boolean USE_SQLITE = false;
 
@@ -59,8 +74,8 @@ public class Main {
     public static final String WEBSITE_NAME = "New Eden Encyclopedia";
     public static final String WEBSITE_ABBREVIATION = "NEE";
 
-    // Browser cache busting variable
-    public static final String BUILD_NUMBER = String.valueOf(TimeUnit.MILLISECONDS.toMinutes(System.currentTimeMillis()) % (3600 * 24 * 7));
+    // Browser cache busting variable, carried over from the previous build in incremental builds
+    public static String BUILD_NUMBER = String.valueOf(TimeUnit.MILLISECONDS.toMinutes(System.currentTimeMillis()) % (3600 * 24 * 7));
 
     static {
         System.setProperty("sqlite4java.library.path", "./native");
@@ -68,8 +83,7 @@ public class Main {
 
     private static DataSources initializedData = null;
 
-    public static DataSources initialize(boolean patch) throws IOException {
-        if (initializedData != null) return initializedData;
+    private static void loadProperties() throws IOException {
         String propertyPath = System.getProperty("net.sentientturtle.nee.properties", "./nee.properties");
 
         Properties properties = new Properties();
@@ -103,7 +117,10 @@ public class Main {
             YAML_SDE_FILE = RES_FOLDER.resolve("sde.zip");
             SQLITE_SDE_FILE = RES_FOLDER.resolve("sde.db");
             ICON_CACHE_FILE = RES_FOLDER.resolve("iconcache.zip");
+            RESOURCE_INDEX_CACHE_FILE = RES_FOLDER.resolve("resfileindex.cache");
+            SDE_SNAPSHOT_FILE = RES_FOLDER.resolve("sde.snapshot");
             UPDATE_SDE = properties.getProperty("UPDATE_SDE", "TRUE").equalsIgnoreCase("TRUE");
+            SDE_SNAPSHOT = properties.getProperty("SDE_SNAPSHOT", "TRUE").equalsIgnoreCase("TRUE");
 
             if (properties.getProperty("COMPRESSION").equalsIgnoreCase("TRUE")) {
                 COMPRESSION = Deflater.DEFAULT_COMPRESSION;
@@ -114,6 +131,13 @@ public class Main {
             GENERATE_ICONS = properties.getProperty("GENERATE_ICONS", "FALSE").equalsIgnoreCase("TRUE");
             SKIP_RESOURCES = properties.getProperty("SKIP_RESOURCES", "FALSE").equalsIgnoreCase("TRUE");
             IS_DEV_BUILD = properties.getProperty("IS_DEV_BUILD", "TRUE").equalsIgnoreCase("TRUE");
+            OUTPUT_TO_DIRECTORY = properties.getProperty("OUTPUT_TO_DIRECTORY", "FALSE").equalsIgnoreCase("TRUE");
+            OUTPUT_WRITER_THREADS = Math.max(1, Integer.parseInt(properties.getProperty("OUTPUT_WRITER_THREADS", String.valueOf(Runtime.getRuntime().availableProcessors() / 2))));
+            INCREMENTAL_BUILD = properties.getProperty("INCREMENTAL_BUILD", "FALSE").equalsIgnoreCase("TRUE");
+            SHARD_FOLDER = Path.of(properties.getProperty("SHARD_FOLDER", "./output/shards/"));
+            RESOURCE_CACHE_SIZE = Long.parseLong(properties.getProperty("RESOURCE_CACHE_MB", "256")) * 1024 * 1024;
+            // Validated here, rather than failing once all pages have been rendered
+            ICON_THREADS = Math.max(1, Integer.parseInt(properties.getProperty("ICON_THREADS", String.valueOf(Runtime.getRuntime().availableProcessors()))));
 
             String files = properties.getProperty("PRE_COMPRESSED_FILES");
             if (files != null) {
@@ -129,11 +153,18 @@ public class Main {
             properties.setProperty("SHARED_CACHE_PATH", "???");
             properties.setProperty("RESOURCE_FOLDER", "./rsc/");
             properties.setProperty("UPDATE_SDE", "FALSE");
+            properties.setProperty("SDE_SNAPSHOT", "TRUE");
             properties.setProperty("COMPRESSION", "FALSE");
             properties.setProperty("GENERATE_ICONS", "FALSE");
             properties.setProperty("SKIP_RESOURCES", "FALSE");
             properties.setProperty("IS_DEV_BUILD", "TRUE");
             properties.setProperty("PRE_COMPRESSED_FILES", "html,css,js,json,txt");
+            properties.setProperty("OUTPUT_TO_DIRECTORY", "FALSE");
+            properties.setProperty("OUTPUT_WRITER_THREADS", String.valueOf(Math.max(1, Runtime.getRuntime().availableProcessors() / 2)));
+            properties.setProperty("INCREMENTAL_BUILD", "FALSE");
+            properties.setProperty("SHARD_FOLDER", "./output/shards/");
+            properties.setProperty("RESOURCE_CACHE_MB", "256");
+            properties.setProperty("ICON_THREADS", String.valueOf(Runtime.getRuntime().availableProcessors()));
             properties.setProperty("DELETE_THIS_KEY", "");
 
             properties.store(new FileWriter(propertyPath), "NEE Generator config");
@@ -141,6 +172,16 @@ public class Main {
             System.out.println("Please configure properties in '" + propertyPath + "'");
             System.exit(-1);
         }
+    }
+
+    public static DataSources initialize(boolean patch) throws IOException {
+        return initialize(patch, false);
+    }
+
+    /// @param publish Whether to also publish the loaded data to {@link #SHARD_FOLDER}, for use by {@link ShardedBuild} workers
+    public static DataSources initialize(boolean patch, boolean publish) throws IOException {
+        if (initializedData != null) return initializedData;
+        loadProperties();
 
         String gameVersion;
         {
@@ -172,7 +213,7 @@ public class Main {
         }
 
         System.out.println("Initializing shared cache...");
-        SharedCacheReader sharedCache = new SharedCacheReader(SHARED_CACHE_PATH);
+        SharedCacheReader sharedCache = new SharedCacheReader(SHARED_CACHE_PATH, RESOURCE_CACHE_SIZE, RESOURCE_INDEX_CACHE_FILE);
         System.out.println("\tConnected to shared cache!");
         System.out.println("Connecting to Python FSD data...");
         FSDData fsdData = new FSDData(sharedCache);
@@ -186,68 +227,42 @@ public class Main {
             }
         }
 
+        // The loaded SDE is snapshot, and reused for as long as the SDE checksum and localization data are unchanged
+        String snapshotKey = null;
+        Path sdeChecksumFile = USE_SQLITE ? SQLITE_SDE_FILE.resolveSibling("sde_sqlite.md5") : YAML_SDE_FILE.resolveSibling("sde_yaml.md5");
+        if (SDE_SNAPSHOT && Files.exists(sdeChecksumFile)) {
+            snapshotKey = (USE_SQLITE ? "sqlite " : "yaml ")
+                + Files.readString(sdeChecksumFile).trim()
+                + " " + sharedCache.getResourceHash("res:/localizationfsd/localization_fsd_en-us.pickle")
+                + (patch ? " patched" : "");
+        }
+
         SDEData sdeData;
         System.out.println("Loading SDE...");
-        if (USE_SQLITE) {
-            try {
-                sdeData = new SQLiteSDEData(new SQLiteConnection(SQLITE_SDE_FILE.toFile()), patch);
-            } catch (SQLiteException e) {
-                throw new IOException(e);
-            }
+        if (snapshotKey != null && (sdeData = SnapshotSDEData.read(SDE_SNAPSHOT_FILE, snapshotKey)) != null) {
+            System.out.println("\tSDE loaded from snapshot!");
         } else {
-            sdeData = new YamlSDEData(new YAMLDataExportReader(YAML_SDE_FILE), fsdData.localizationStrings, patch);
-        }
-        System.out.println("\tSDE loaded!");
-        // Patch FSD into SDE data
-        {
-            Map<Integer, Set<Integer>> mutaplasmidMap = sdeData.produceMap();
-            for (Type mutaplasmid : sdeData.getGroupTypes().getOrDefault(1964, Set.of())) {
-                List<FSDData.IOMapping> ioMappings = fsdData.dynamicAttributes.get(mutaplasmid.typeID)
-                    .inputOutputMapping();
-                if (ioMappings.size() != 1) throw new IllegalStateException("Mutaplasmid IO mappings changed!");
-
-                mutaplasmidMap.computeIfAbsent(
-                    ioMappings.get(0).resultingType(),
-                    sdeData::produceSet
-                ).add(mutaplasmid.typeID);
-            }
-
-            for (Set<Integer> mutaplasmidGroup : mutaplasmidMap.values()) {
-                Integer parentTypeID = mutaplasmidGroup.stream().min(Type.idComparator(sdeData)).orElseThrow();
-
-                for (Integer typeID : mutaplasmidGroup) {
-                    sdeData.getVariants()
-                        .merge(typeID, mutaplasmidGroup, (one, two) -> {
-                            one.addAll(two);
-                            return one;
-                        });
-
-                    sdeData.getParentTypeMap().put(typeID, parentTypeID);
+            if (USE_SQLITE) {
+                try {
+                    sdeData = new SQLiteSDEData(new SQLiteConnection(SQLITE_SDE_FILE.toFile()), patch);
+                } catch (SQLiteException e) {
+                    throw new IOException(e);
                 }
+            } else {
+                sdeData = new YamlSDEData(new YAMLDataExportReader(YAML_SDE_FILE), fsdData.localizationStrings, patch);
             }
-
-            sdeData.getStations()
-                .values()
-                .stream()
-                .flatMap(Set::stream)
-                .forEach(station -> {
-                    for (int serviceID : fsdData.stationOperations.get(station.operationID).services()) {
-                        Station.Service service = switch (serviceID) {
-                            case 5 -> Station.Service.REPROCESSING;
-                            case 7 -> Station.Service.MARKET;
-                            case 10 -> Station.Service.CLONEBAY;
-                            case 13 -> Station.Service.REPAIRSHOP;
-                            case 14 -> Station.Service.INDUSTRY;
-                            case 17 -> Station.Service.FITTING;
-                            case 21 -> Station.Service.INSURANCE;
-                            case 25 -> Station.Service.LPSTORE;
-                            case 26 -> Station.Service.MILITIAOFFICE;
-                            default -> null;
-                        };
-                        if (service != null) station.services.add(service);
-                    }
-                });
+            System.out.println("\tSDE loaded!");
+            if (snapshotKey != null) {
+                SnapshotSDEData.write(sdeData, SDE_SNAPSHOT_FILE, snapshotKey);
+                System.out.println("\tSDE snapshot written!");
+            }
+        }
+        if (publish) {
+            // Shard workers apply the FSD patches themselves, so the data is published before patching
+            ShardedBuild.publish(sdeData, fsdData, gameVersion);
         }
+        patchFSD(sdeData, fsdData);
+        pinResources(sdeData, sharedCache);
         System.out.println("Loading icon cache...");
         IconProvider.readIconCache();
         Runtime.getRuntime().addShutdownHook(new Thread(IconProvider::writeIconCache));
@@ -257,35 +272,219 @@ public class Main {
         return (initializedData = new DataSources(sdeData, sharedCache, fsdData, gameVersion));
     }
 
+    /// Initializes data from the data plane published by {@link #initialize(boolean, boolean)}, without loading FSD data through Python or parsing the SDE
+    ///
+    /// The icon cache is read but not written back, as multiple workers may share it; Workers write the icons they generate to a shard icon cache instead
+    public static DataSources initializeFromDataPlane() throws IOException {
+        if (initializedData != null) return initializedData;
+        loadProperties();
+
+        System.out.println("Initializing shared cache...");
+        SharedCacheReader sharedCache = new SharedCacheReader(SHARED_CACHE_PATH, RESOURCE_CACHE_SIZE, RESOURCE_INDEX_CACHE_FILE);
+        System.out.println("\tConnected to shared cache!");
+
+        System.out.println("Loading data plane...");
+        ShardedBuild.DataPlane published = ShardedBuild.read();
+        BUILD_NUMBER = published.buildNumber();
+        patchFSD(published.sdeData(), published.fsdData());
+        pinResources(published.sdeData(), sharedCache);
+        System.out.println("\tData plane loaded!");
+
+        System.out.println("Loading icon cache...");
+        IconProvider.readIconCache();
+        System.out.println("\tIcon cache loaded");
+
+        System.out.println("Data initialized, game version: " + published.gameVersion());
+        return (initializedData = new DataSources(published.sdeData(), sharedCache, published.fsdData(), published.gameVersion()));
+    }
+
+    /// Pins resources that are read throughout the build in the shared cache's memory; The fallback icon, and the ship fitting icons shown on every ship page
+    private static void pinResources(SDEData sdeData, SharedCacheReader sharedCache) {
+        // Fallback for types without an icon
+        sharedCache.pin("res:/ui/texture/icons/7_64_15.png");
+        for (int iconID : ShipFitting.ICON_IDS) {
+            String resource = sdeData.getEveIcons().get(iconID);
+            if (resource != null) sharedCache.pin(resource);
+        }
+    }
+
+    /// Patches FSD data into SDE data
+    private static void patchFSD(SDEData sdeData, FSDData fsdData) {
+        Map<Integer, Set<Integer>> mutaplasmidMap = sdeData.produceMap();
+        for (Type mutaplasmid : sdeData.getGroupTypes().getOrDefault(1964, Set.of())) {
+            List<FSDData.IOMapping> ioMappings = fsdData.dynamicAttributes.get(mutaplasmid.typeID)
+                .inputOutputMapping();
+            if (ioMappings.size() != 1) throw new IllegalStateException("Mutaplasmid IO mappings changed!");
+
+            mutaplasmidMap.computeIfAbsent(
+                ioMappings.get(0).resultingType(),
+                sdeData::produceSet
+            ).add(mutaplasmid.typeID);
+        }
+
+        // Views are computed lazily; The parent type map must be computed from the unpatched variants, before the variant merge below
+        Map<Integer, Integer> parentTypeMap = sdeData.getParentTypeMap();
+        for (Set<Integer> mutaplasmidGroup : mutaplasmidMap.values()) {
+            Integer parentTypeID = mutaplasmidGroup.stream().min(Type.idComparator(sdeData)).orElseThrow();
+
+            for (Integer typeID : mutaplasmidGroup) {
+                sdeData.getVariants()
+                    .merge(typeID, mutaplasmidGroup, (one, two) -> {
+                        one.addAll(two);
+                        return one;
+                    });
+
+                parentTypeMap.put(typeID, parentTypeID);
+            }
+        }
+
+        sdeData.getStations()
+            .values()
+            .stream()
+            .flatMap(Set::stream)
+            .forEach(station -> {
+                for (int serviceID : fsdData.stationOperations.get(station.operationID).services()) {
+                    Station.Service service = switch (serviceID) {
+                        case 5 -> Station.Service.REPROCESSING;
+                        case 7 -> Station.Service.MARKET;
+                        case 10 -> Station.Service.CLONEBAY;
+                        case 13 -> Station.Service.REPAIRSHOP;
+                        case 14 -> Station.Service.INDUSTRY;
+                        case 17 -> Station.Service.FITTING;
+                        case 21 -> Station.Service.INSURANCE;
+                        case 25 -> Station.Service.LPSTORE;
+                        case 26 -> Station.Service.MILITIAOFFICE;
+                        default -> null;
+                    };
+                    if (service != null) station.services.add(service);
+                }
+            });
+    }
+
     public static Path OUTPUT_DIR = Path.of("./output");
 
     public static void main(String[] args) throws IOException {
+        if (args.length > 0) {
+            ShardedBuild.main(args);
+            return;
+        }
+
         long startTime = System.nanoTime();
         DataSources data = Main.initialize(true);
 
         Files.createDirectories(OUTPUT_DIR);
 
-        // The OS does not like creating thousands of small files, saving to an archive is significantly faster.
-        ZipOutputStream zipOutputStream = new ZipOutputStream(new FileOutputStream(OUTPUT_DIR.resolve("website.zip").toFile()));
-        zipOutputStream.setLevel(COMPRESSION);
+        Path manifestFile = OUTPUT_DIR.resolve("website.manifest");
+        Path previousArchive = OUTPUT_DIR.resolve("website.previous.zip");
+        BuildManifest manifest = null;
+        if (INCREMENTAL_BUILD) {
+            manifest = BuildManifest.load(manifestFile);
+            if (manifest.getPreviousBuildNumber() != null) BUILD_NUMBER = manifest.getPreviousBuildNumber();
+        }
+        // The manifest is only valid for complete output, and is written again once this build completes
+        Files.deleteIfExists(manifestFile);
+
+        // The OS does not like creating thousands of small files, saving to an archive is significantly faster, unless the output is on a tmpfs or similar.
+        // Entries are compressed on the rendering threads, the archive writer only appends finished entries.
+        OutputSink sink;
+        if (OUTPUT_TO_DIRECTORY) {
+            List<String> folders = new ArrayList<>();
+            for (PageKind pageKind : PageKind.values()) {
+                if (pageKind.getFolderDepth() > 0) folders.add(pageKind.getFileFolder());
+            }
+            folders.add(ResourceLocation.OUTPUT_RES_FOLDER.toString());
+            sink = new DirectoryOutputSink(OUTPUT_DIR.resolve("website"), folders, OUTPUT_WRITER_THREADS);
+        } else {
+            Path archive = OUTPUT_DIR.resolve("website.zip");
+            if (INCREMENTAL_BUILD) {
+                // If a previous archive is already present, the last build did not complete and its archive is incomplete
+                if (Files.exists(archive) && !Files.exists(previousArchive)) Files.move(archive, previousArchive);
+                sink = new ZipArchiveWriter(archive, COMPRESSION, Files.exists(previousArchive) ? previousArchive : null);
+            } else {
+                sink = new ZipArchiveWriter(archive, COMPRESSION);
+            }
+        }
+        final IncrementalOutputSink incremental = manifest != null ? new IncrementalOutputSink(sink, manifest) : null;
+        final OutputSink output = incremental != null ? incremental : sink;
+
+        RenderedPages rendered;
+        try {
+            rendered = writePages(data, PageKind.pageStream(data.sdeData()), output, incremental);
+            writeSiteFiles(data, output, rendered.css(), rendered.js());
+        } catch (Throwable t) {
+            abort(output, t);
+            throw t;
+        }
+
+        if (manifest != null && manifest.getPreviousBuildNumber() != null && (manifest.isChanged("stylesheet.css") || manifest.isChanged("script.js"))) {
+            System.out.println("WARNING: Stylesheet or script changed, but the build number was kept for this incremental build. Browsers may use outdated cached copies; run a full build to update the build number.");
+        }
+
+        System.out.println("Finalizing output...");
+        output.close();
+
+        if (manifest != null) {
+            manifest.write(manifestFile, BUILD_NUMBER);
+            Files.deleteIfExists(previousArchive);
 
+            List<String> changedFiles = manifest.getChanged();
+            Files.write(OUTPUT_DIR.resolve("changed_files.txt"), changedFiles, StandardCharsets.UTF_8);
+            System.out.println("Reused " + incremental.getReusedCount() + " unchanged files, " + changedFiles.size() + " files changed.");
+        }
+
+        writeRedirects(rendered.redirects());
+
+        System.out.println("Took: " + TimeUnit.SECONDS.convert(System.nanoTime() - startTime, TimeUnit.NANOSECONDS) + " seconds.");
+        System.out.println("Generated: " + rendered.pageCount() + " pages.");
+        System.out.println("Formatted values: " + data.sdeData().getFormatCacheHits() + " cached, " + data.sdeData().getFormatCacheMisses() + " formatted.");
+        System.out.println("Shared cache resources: " + data.sharedCache().getCacheHits() + " cached, " + data.sharedCache().getCacheMisses() + " read, " + data.sharedCache().getCacheEvictions() + " evicted.");
+    }
+
+    /// Releases output that will not be completed due to a build failure, leaving the failure to be rethrown by the caller
+    static void abort(OutputSink output, Throwable failure) {
+        try {
+            output.abort();
+        } catch (Throwable t) {
+            failure.addSuppressed(t);
+        }
+    }
+
+    /// Side products of rendering pages, which are written once all pages have been rendered
+    ///
+    /// @param redirects Webserver redirects from persistent URLs to page URLs
+    /// @param css       CSS segments used by the pages, to be joined into the stylesheet
+    /// @param js        Javascript segments used by the pages, to be joined into the script
+    record RenderedPages(int pageCount, Collection<String> redirects, Set<String> css, Set<String> js) {}
+
+    /// Renders and writes pages, followed by the resources they depend on
+    ///
+    /// @param incremental Incremental output wrapping `output`, or null if this is not an incremental build
+    static RenderedPages writePages(DataSources data, Stream<Frame> pages, OutputSink output, @Nullable IncrementalOutputSink incremental) throws IOException {
         Set<String> css = Collections.synchronizedSet(new LinkedHashSet<>());
         Set<String> js = Collections.synchronizedSet(new LinkedHashSet<>());
 
         ConcurrentLinkedQueue<String> redirects = new ConcurrentLinkedQueue<>();
         ConcurrentHashMap<Path, ResourceLocation.ResourceData> dependencies = new ConcurrentHashMap<>();
 
+        // Buffers are sized to hold most pages of the same kind rendered so far, rather than growing while rendering
+        EnumMap<PageKind, SizeStatistics> pageSizes = new EnumMap<>(PageKind.class);
+        for (PageKind pageKind : PageKind.values()) pageSizes.put(pageKind, new SizeStatistics());
+
+        long viewStart = System.nanoTime();
+        data.sdeData().computeViews();
+        System.out.println("Computed SDE views in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - viewStart) + "ms");
+
         System.out.println("Writing pages...");
         final AtomicInteger pageCount = new AtomicInteger(0);
-        PageKind.pageStream(data.sdeData())
-            .parallel()
+        pages.parallel()
             .forEach(page -> {
-                var context = new StringBuilderHtmlContext(page.getPageKind().getFolderDepth(), data);
+                SizeStatistics sizes = pageSizes.get(page.getPageKind());
+                var context = new Utf8HtmlContext(page.getPageKind().getFolderDepth(), data, sizes.percentile(0.95, 0));
 
                 try {
                     page.renderTo(context);
+                    sizes.record(context.length());
 
-                    byte[] bytes = context.getBuffer().toString().getBytes(StandardCharsets.UTF_8);
                     String filePath = page.getPath().replace('\\', '/');
 
                     if (page instanceof HasPersistentUrl persistentUrl) {
@@ -295,20 +494,8 @@ public class Main {
                         );
                     }
 
-                    boolean gzip = PRE_COMPRESSED_FILES.contains(filePath.substring(filePath.lastIndexOf('.') + 1).toLowerCase());
-                    synchronized (zipOutputStream) {
-                        zipOutputStream.putNextEntry(new ZipEntry(filePath));
-                        zipOutputStream.write(bytes);
-                        zipOutputStream.closeEntry();
-
-                        if (gzip) {
-                            zipOutputStream.putNextEntry(new ZipEntry(filePath + ".gz"));
-                            GZIPOutputStream gzipOutputStream = new GZIPOutputStream(zipOutputStream);
-                            gzipOutputStream.write(bytes);
-                            gzipOutputStream.finish();
-                            zipOutputStream.closeEntry();
-                        }
-                    }
+                    // The rendered page is compressed straight from the context's buffer
+                    output.write(filePath, context.getBuffer(), context.length(), isPreCompressed(filePath));
                     int count = pageCount.incrementAndGet();
                     if (count % 500 == 0) {
                         System.out.println("\t" + count);
@@ -319,12 +506,26 @@ public class Main {
                     ExceptionUtil.sneakyThrow(e);
                 } catch (Exception e) {
                     ExceptionUtil.sneakyThrow(new RenderingException("Exception in page: " + page.getPath(), e));
+                } finally {
+                    context.release();
                 }
 
                 css.addAll(context.getCSS());
                 js.addAll(context.getJavascript());
             });
 
+        System.out.println("Page buffers: " + Utf8HtmlContext.getReusedBuffers() + " reused, " + Utf8HtmlContext.getAllocatedBuffers() + " allocated, " + Utf8HtmlContext.getGrownBuffers() + " grown.");
+
+        if (!SKIP_RESOURCES) {
+            // Icons are generated up front on a bounded pool, rather than by the resource writing tasks that need them
+            List<ResourceLocation.ResourceData.IconProvider64> icons = dependencies.values()
+                .stream()
+                .filter(resource -> resource instanceof ResourceLocation.ResourceData.IconProvider64)
+                .map(resource -> (ResourceLocation.ResourceData.IconProvider64) resource)
+                .toList();
+            IconProvider.generateTypeIcons64(icons, data, ICON_THREADS);
+        }
+
         System.out.println("Writing resources");
         final AtomicInteger resourceCount = new AtomicInteger(0);
         if (!SKIP_RESOURCES) {
@@ -332,22 +533,13 @@ public class Main {
                 .parallelStream()
                 .forEach(entry -> {
                     try {
-                        byte[] bytes = entry.getValue().getData(data);
+                        ResourceLocation.ResourceData resource = entry.getValue();
                         String filename = entry.getKey().toString().replace('\\', '/');
-                        boolean gzip = PRE_COMPRESSED_FILES.contains(filename.substring(filename.lastIndexOf('.') + 1).toLowerCase());
-
-                        synchronized (zipOutputStream) {
-                            zipOutputStream.putNextEntry(new ZipEntry(filename));
-                            zipOutputStream.write(bytes);
-                            zipOutputStream.closeEntry();
-
-                            if (gzip) {
-                                zipOutputStream.putNextEntry(new ZipEntry(filename + ".gz"));
-                                GZIPOutputStream gzipOutputStream = new GZIPOutputStream(zipOutputStream);
-                                gzipOutputStream.write(bytes);
-                                gzipOutputStream.finish();
-                                zipOutputStream.closeEntry();
-                            }
+                        boolean gzip = isPreCompressed(filename);
+
+                        String version = incremental != null ? resource.getVersion(data) : null;
+                        if (version == null || !incremental.reuse(filename, version, gzip)) {
+                            output.write(filename, resource.getBuffer(data), gzip);
                         }
 
                         int count = resourceCount.incrementAndGet();
@@ -358,62 +550,32 @@ public class Main {
                         ExceptionUtil.sneakyThrow(e);
                     }
                 });
+        } else if (incremental != null) {
+            // Skipped resources are kept as they were in the previous build
+            for (Path dependency : dependencies.keySet()) {
+                String filename = dependency.toString().replace('\\', '/');
+                incremental.retain(filename, isPreCompressed(filename));
+            }
         }
 
-        zipOutputStream.putNextEntry(new ZipEntry("dev_resource/"));
-        zipOutputStream.closeEntry();
+        return new RenderedPages(pageCount.get(), redirects, css, js);
+    }
 
-        zipOutputStream.putNextEntry(new ZipEntry("stylesheet.css"));
-        for (String segment : css) {
-            zipOutputStream.write(segment.getBytes(StandardCharsets.UTF_8));
-            zipOutputStream.write("\n\n".getBytes(StandardCharsets.UTF_8));
-        }
-        if (PRE_COMPRESSED_FILES.contains("css")) {
-            zipOutputStream.putNextEntry(new ZipEntry("stylesheet.css.gz"));
-            GZIPOutputStream gzipOutputStream = new GZIPOutputStream(zipOutputStream);
-            for (String segment : css) {
-                gzipOutputStream.write(segment.getBytes(StandardCharsets.UTF_8));
-                gzipOutputStream.write("\n\n".getBytes(StandardCharsets.UTF_8));
-            }
-            gzipOutputStream.finish();
-            zipOutputStream.closeEntry();
-        }
+    /// Writes the files shared by all pages; The stylesheet, script, themes, favicon and search index
+    static void writeSiteFiles(DataSources data, OutputSink output, Set<String> css, Set<String> js) throws IOException {
+        output.writeDirectory("dev_resource/");
+
+        output.write("stylesheet.css", joinSegments(css), PRE_COMPRESSED_FILES.contains("css"));
 
         try (Stream<Path> themes = Files.list(RES_FOLDER.resolve("themes"))) {
             for (Path theme: ((Iterable<Path>) themes::iterator)) {
-                zipOutputStream.putNextEntry(new ZipEntry("themes/" + theme.getFileName()));
-                Files.copy(theme, zipOutputStream);
-                zipOutputStream.closeEntry();
-
-                if (PRE_COMPRESSED_FILES.contains("css")) {
-                    zipOutputStream.putNextEntry(new ZipEntry("themes/" + theme.getFileName() + ".gz"));
-                    GZIPOutputStream gzipOutputStream = new GZIPOutputStream(zipOutputStream);
-                    Files.copy(theme, gzipOutputStream);
-                    gzipOutputStream.finish();
-                    zipOutputStream.closeEntry();
-                }
-            };
-        }
-
-        zipOutputStream.putNextEntry(new ZipEntry("script.js"));
-        for (String segment : js) {
-            zipOutputStream.write(segment.getBytes(StandardCharsets.UTF_8));
-            zipOutputStream.write("\n\n".getBytes(StandardCharsets.UTF_8));
-        }
-        if (PRE_COMPRESSED_FILES.contains("js")) {
-            zipOutputStream.putNextEntry(new ZipEntry("script.js.gz"));
-            GZIPOutputStream gzipOutputStream = new GZIPOutputStream(zipOutputStream);
-            for (String segment : js) {
-                gzipOutputStream.write(segment.getBytes(StandardCharsets.UTF_8));
-                gzipOutputStream.write("\n\n".getBytes(StandardCharsets.UTF_8));
+                output.write("themes/" + theme.getFileName(), Files.readAllBytes(theme), PRE_COMPRESSED_FILES.contains("css"));
             }
-            gzipOutputStream.finish();
-            zipOutputStream.closeEntry();
         }
 
-        zipOutputStream.putNextEntry(new ZipEntry("favicon.ico"));
-        zipOutputStream.write(Files.readAllBytes(RES_FOLDER.resolve("favicon.ico")));
-        zipOutputStream.closeEntry();
+        output.write("script.js", joinSegments(js), PRE_COMPRESSED_FILES.contains("js"));
+
+        output.write("favicon.ico", Files.readAllBytes(RES_FOLDER.resolve("favicon.ico")), false);
 
         // TODO: Search functionality should be upgraded with something like typesense
         NoopHtmlContext searchContext = new NoopHtmlContext(0, data);
@@ -444,36 +606,36 @@ public class Main {
             String searchJson = "const searchindex = " + objectMapper.writeValueAsString(indexEntries) + ";\nexport default searchindex;";
             byte[] bytes = searchJson.getBytes(StandardCharsets.UTF_8);
 
-            zipOutputStream.putNextEntry(new ZipEntry(ResourceLocation.searchIndex().getURI(searchContext).replace('\\', '/')));
-            zipOutputStream.write(bytes);
-            zipOutputStream.closeEntry();
-
-            if (PRE_COMPRESSED_FILES.contains("json")) {
-                zipOutputStream.putNextEntry(new ZipEntry(
-                    ResourceLocation.searchIndex().getURI(new NoopHtmlContext(0, data)).replace('\\', '/') + ".gz"
-                ));
-                GZIPOutputStream gzipOutputStream = new GZIPOutputStream(zipOutputStream);
-                gzipOutputStream.write(bytes);
-                gzipOutputStream.finish();
-                zipOutputStream.closeEntry();
-            }
+            output.write(ResourceLocation.searchIndex().getURI(searchContext).replace('\\', '/'), bytes, PRE_COMPRESSED_FILES.contains("json"));
         } catch (JsonProcessingException e) {
             ExceptionUtil.sneakyThrow(e);
         }
+    }
 
-        System.out.println("Finalizing zip file...");
-        zipOutputStream.close();
-
+    /// Writes the webserver redirects map
+    static void writeRedirects(Collection<String> redirects) throws IOException {
         System.out.println("Writing webserver files...");
-        FileWriter redirectWriter = new FileWriter(OUTPUT_DIR.resolve("redirects.map").toFile());
-        boolean first = true;
-        for (String redirect : redirects) {
-            if (first) { first = false; } else { redirectWriter.write('\n'); }
-            redirectWriter.write(redirect);
+        try (FileWriter redirectWriter = new FileWriter(OUTPUT_DIR.resolve("redirects.map").toFile())) {
+            boolean first = true;
+            for (String redirect : redirects) {
+                if (first) { first = false; } else { redirectWriter.write('\n'); }
+                redirectWriter.write(redirect);
+            }
         }
-        redirectWriter.flush();
+    }
 
-        System.out.println("Took: " + TimeUnit.SECONDS.convert(System.nanoTime() - startTime, TimeUnit.NANOSECONDS) + " seconds.");
-        System.out.println("Generated: " + pageCount.get() + " pages.");
+    /// Whether a gzip-compressed copy is written for a file, as configured in {@link #PRE_COMPRESSED_FILES}
+    private static boolean isPreCompressed(String path) {
+        return PRE_COMPRESSED_FILES.contains(path.substring(path.lastIndexOf('.') + 1).toLowerCase());
+    }
+
+    /// Joins CSS or JS segments into a single file
+    private static byte[] joinSegments(Set<String> segments) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (String segment : segments) {
+            out.writeBytes(segment.getBytes(StandardCharsets.UTF_8));
+            out.writeBytes("\n\n".getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
     }
 }
@@ -0,0 +1,276 @@
+package net.sentientturtle.nee;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.sentientturtle.html.Frame;
+import net.sentientturtle.nee.data.DataSources;
+import net.sentientturtle.nee.data.sde.SDEData;
+import net.sentientturtle.nee.data.sde.SnapshotSDEData;
+import net.sentientturtle.nee.data.sharedcache.FSDData;
+import net.sentientturtle.nee.data.sharedcache.IconProvider;
+import net.sentientturtle.nee.output.ZipArchiveWriter;
+import net.sentientturtle.nee.page.PageKind;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/// Website generation split across multiple worker processes, which may run on separate machines
+///
+/// A sharded build consists of three steps, each run as a mode of {@link Main#main}:
+/// - `publish`: Loads all data once, and publishes it as a data plane in {@link Main#SHARD_FOLDER};
+///   An SDE snapshot which workers memory-map, the FSD data, and the game version and build number.
+/// - `shard <index> <count>`: Loads the data plane, and renders the pages that hash into the given shard.
+///   The pages and the resources they depend on are written to an archive segment, the icons it generated to a shard icon cache, and the redirects, CSS and JS to a result file.
+/// - `merge <count>`: Copies the archive segments into the website archive as-is, writes the stylesheet, script, search index and redirects map,
+///   and merges the shard icon caches into the icon cache.
+///
+/// `coordinate <count>` runs all three steps, starting the workers as local processes with the same JVM and classpath as the coordinator.
+/// Workers on other machines must share the shard folder with the coordinator, and have a shared cache of the same game version.
+///
+/// Sharded builds always write an archive, and cannot be incremental.
+public final class ShardedBuild {
+    private static final String SDE_FILE = "sde.snapshot";
+    private static final String FSD_FILE = "fsd.json";
+    private static final String PLANE_FILE = "plane.properties";
+
+    /// Data published by the coordinator, the FSD data has not yet been patched into the SDE data
+    record DataPlane(SDEData sdeData, FSDData fsdData, String gameVersion, String buildNumber) {}
+
+    /// Output of a shard that is not written to its archive segment
+    private record ShardResult(int pageCount, List<String> redirects, List<String> css, List<String> js) {}
+
+    private ShardedBuild() {}
+
+    static void main(String[] args) throws IOException {
+        long startTime = System.nanoTime();
+        switch (args[0]) {
+            case "publish" -> {
+                if (args.length != 1) usage();
+                Main.initialize(true, true);
+            }
+            case "shard" -> {
+                if (args.length != 3) usage();
+                int count = Integer.parseInt(args[2]);
+                int index = Integer.parseInt(args[1]);
+                if (index < 0 || index >= count) usage();
+                renderShard(index, count);
+            }
+            case "merge" -> {
+                if (args.length != 2) usage();
+                merge(Main.initializeFromDataPlane(), Integer.parseInt(args[1]));
+            }
+            case "coordinate" -> {
+                if (args.length != 2) usage();
+                int count = Integer.parseInt(args[1]);
+                if (count < 1) usage();
+                DataSources data = Main.initialize(true, true);
+                checkOutputSettings();
+                runWorkers(count);
+                merge(data, count);
+            }
+            default -> usage();
+        }
+        System.out.println("Took: " + TimeUnit.SECONDS.convert(System.nanoTime() - startTime, TimeUnit.NANOSECONDS) + " seconds.");
+    }
+
+    private static void usage() {
+        System.out.println("Usage: [publish | shard <index> <count> | merge <count> | coordinate <count>]");
+        System.exit(1);
+    }
+
+    private static void checkOutputSettings() {
+        if (Main.OUTPUT_TO_DIRECTORY || Main.INCREMENTAL_BUILD) {
+            throw new IllegalStateException("Sharded builds do not support OUTPUT_TO_DIRECTORY or INCREMENTAL_BUILD");
+        }
+    }
+
+    /// Publishes the data plane; The data must not yet have FSD data patched in, as workers patch the data themselves
+    ///
+    /// The plane file is removed first and written last, so that workers cannot read a partially published data plane
+    static void publish(SDEData sdeData, FSDData fsdData, String gameVersion) throws IOException {
+        System.out.println("Publishing data plane...");
+        Files.createDirectories(Main.SHARD_FOLDER);
+        Path planeFile = Main.SHARD_FOLDER.resolve(PLANE_FILE);
+        Files.deleteIfExists(planeFile);
+
+        SnapshotSDEData.write(sdeData, Main.SHARD_FOLDER.resolve(SDE_FILE), snapshotKey(gameVersion, Main.BUILD_NUMBER));
+
+        Path fsdFile = Main.SHARD_FOLDER.resolve(FSD_FILE);
+        Path fsdTempFile = fsdFile.resolveSibling(FSD_FILE + ".tmp");
+        fsdData.write(fsdTempFile);
+        Files.move(fsdTempFile, fsdFile, StandardCopyOption.REPLACE_EXISTING);
+
+        Properties properties = new Properties();
+        properties.setProperty("GAME_VERSION", gameVersion);
+        properties.setProperty("BUILD_NUMBER", Main.BUILD_NUMBER);
+        Path planeTempFile = planeFile.resolveSibling(PLANE_FILE + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(planeTempFile, StandardCharsets.UTF_8)) {
+            properties.store(writer, "NEE data plane");
+        }
+        Files.move(planeTempFile, planeFile, StandardCopyOption.REPLACE_EXISTING);
+        System.out.println("\tData plane published!");
+    }
+
+    /// Reads the data plane published by {@link #publish}
+    static DataPlane read() throws IOException {
+        Path planeFile = Main.SHARD_FOLDER.resolve(PLANE_FILE);
+        if (!Files.exists(planeFile)) throw new IOException("No data plane published in " + Main.SHARD_FOLDER);
+
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(planeFile, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        String gameVersion = properties.getProperty("GAME_VERSION");
+        String buildNumber = properties.getProperty("BUILD_NUMBER");
+
+        SDEData sdeData = SnapshotSDEData.read(Main.SHARD_FOLDER.resolve(SDE_FILE), snapshotKey(gameVersion, buildNumber));
+        if (sdeData == null) throw new IOException("SDE snapshot does not match data plane in " + Main.SHARD_FOLDER);
+        FSDData fsdData = FSDData.read(Main.SHARD_FOLDER.resolve(FSD_FILE));
+
+        return new DataPlane(sdeData, fsdData, gameVersion, buildNumber);
+    }
+
+    private static String snapshotKey(String gameVersion, String buildNumber) {
+        return "data plane " + gameVersion + " " + buildNumber;
+    }
+
+    /// Pages are assigned to shards by the hash of their path, which is the same across processes
+    private static boolean isInShard(Frame page, int index, int count) {
+        return Math.floorMod(page.getPath().hashCode(), count) == index;
+    }
+
+    private static Path segmentFile(int index) {
+        return Main.SHARD_FOLDER.resolve("shard-" + index + ".zip");
+    }
+
+    private static Path iconCacheFile(int index) {
+        return Main.SHARD_FOLDER.resolve("shard-" + index + ".icons.zip");
+    }
+
+    private static Path resultFile(int index) {
+        return Main.SHARD_FOLDER.resolve("shard-" + index + ".json");
+    }
+
+    /// Renders the pages of a shard into its archive segment
+    ///
+    /// The result file is written last, and marks the segment as complete
+    private static void renderShard(int index, int count) throws IOException {
+        DataSources data = Main.initializeFromDataPlane();
+        checkOutputSettings();
+
+        Path resultFile = resultFile(index);
+        Files.deleteIfExists(resultFile);
+
+        System.out.println("Rendering shard " + index + " of " + count);
+        Main.RenderedPages rendered;
+        ZipArchiveWriter output = new ZipArchiveWriter(segmentFile(index), Main.COMPRESSION);
+        try {
+            rendered = Main.writePages(data, PageKind.pageStream(data.sdeData()).filter(page -> isInShard(page, index, count)), output, null);
+        } catch (Throwable t) {
+            Main.abort(output, t);
+            throw t;
+        }
+        output.close();
+        // Workers share the icon cache, so the icons they generate are merged into it by the coordinator
+        IconProvider.writeGeneratedIcons(iconCacheFile(index));
+
+        ShardResult result = new ShardResult(
+            rendered.pageCount(),
+            new ArrayList<>(rendered.redirects()),
+            new ArrayList<>(rendered.css()),
+            new ArrayList<>(rendered.js())
+        );
+        Path tempFile = resultFile.resolveSibling(resultFile.getFileName() + ".tmp");
+        new ObjectMapper().writeValue(tempFile.toFile(), result);
+        Files.move(tempFile, resultFile, StandardCopyOption.REPLACE_EXISTING);
+        System.out.println("Generated: " + rendered.pageCount() + " pages.");
+    }
+
+    /// Starts a local worker process for each shard, and waits for all of them to complete
+    private static void runWorkers(int count) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        for (String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            // A debugger agent cannot be attached to multiple processes on the same port
+            if (!argument.startsWith("-agentlib:jdwp")) command.add(argument);
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(Main.class.getName());
+        command.add("shard");
+
+        System.out.println("Starting " + count + " shard workers...");
+        List<Process> workers = new ArrayList<>(count);
+        for (int index = 0; index < count; index++) {
+            List<String> workerCommand = new ArrayList<>(command);
+            workerCommand.add(String.valueOf(index));
+            workerCommand.add(String.valueOf(count));
+            workers.add(new ProcessBuilder(workerCommand).inheritIO().start());
+        }
+
+        for (int index = 0; index < count; index++) {
+            int exitCode;
+            try {
+                exitCode = workers.get(index).waitFor();
+            } catch (InterruptedException e) {
+                workers.forEach(Process::destroy);
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+            if (exitCode != 0) {
+                workers.forEach(Process::destroy);
+                throw new IllegalStateException("Shard worker " + index + " failed with exit code " + exitCode);
+            }
+        }
+    }
+
+    /// Merges the archive segments of all shards into the website archive, and writes the files shared by all pages
+    private static void merge(DataSources data, int count) throws IOException {
+        checkOutputSettings();
+        Files.createDirectories(Main.OUTPUT_DIR);
+
+        int pageCount = 0;
+        List<String> redirects = new ArrayList<>();
+        Set<String> css = new LinkedHashSet<>();
+        Set<String> js = new LinkedHashSet<>();
+        // Resources used by pages of multiple shards are written by each of those shards, and copied only once
+        HashSet<String> copied = new HashSet<>();
+
+        System.out.println("Merging " + count + " shards...");
+        ZipArchiveWriter output = new ZipArchiveWriter(Main.OUTPUT_DIR.resolve("website.zip"), Main.COMPRESSION);
+        try {
+            ObjectMapper objectMapper = new ObjectMapper();
+            for (int index = 0; index < count; index++) {
+                Path resultFile = resultFile(index);
+                if (!Files.exists(resultFile)) throw new IOException("Shard " + index + " did not complete");
+                ShardResult result = objectMapper.readValue(resultFile.toFile(), ShardResult.class);
+
+                output.copyArchive(segmentFile(index), copied::add);
+                IconProvider.mergeIconCache(iconCacheFile(index));
+                pageCount += result.pageCount;
+                redirects.addAll(result.redirects);
+                css.addAll(result.css);
+                js.addAll(result.js);
+            }
+
+            Main.writeSiteFiles(data, output, css, js);
+        } catch (Throwable t) {
+            Main.abort(output, t);
+            throw t;
+        }
+        System.out.println("Finalizing output...");
+        output.close();
+
+        Main.writeRedirects(redirects);
+        IconProvider.writeIconCache();
+        System.out.println("Generated: " + pageCount + " pages.");
+    }
+}
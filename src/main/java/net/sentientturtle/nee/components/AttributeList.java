@@ -7,6 +7,7 @@ import net.sentientturtle.html.Component;
 import net.sentientturtle.nee.data.datatypes.Attribute;
 import net.sentientturtle.nee.data.datatypes.Type;
 import net.sentientturtle.nee.data.ResourceLocation;
+import net.sentientturtle.nee.page.ComparisonPage;
 import org.jspecify.annotations.Nullable;
 
 import java.util.Map;
@@ -27,6 +28,11 @@ public abstract class AttributeList extends Component {
         this.data = data;
     }
 
+    @Override
+    protected @Nullable Object contentKey(HtmlContext context) {
+        return ComparisonPage.isCompared(context.sde, type) ? type.typeID : null;
+    }
+
     @Override
     protected HTML[] getContent(HtmlContext context) {
         Map<Integer, Attribute> attributeMap = context.sde.getAttributes();
@@ -9,7 +9,9 @@ import net.sentientturtle.nee.data.datatypes.Attribute;
 import net.sentientturtle.nee.data.datatypes.Type;
 import net.sentientturtle.nee.data.sharedcache.FSDData;
 import net.sentientturtle.nee.data.ResourceLocation;
+import net.sentientturtle.nee.page.ComparisonPage;
 import net.sentientturtle.nee.page.TypePage;
+import org.jspecify.annotations.Nullable;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -511,6 +513,11 @@ public class ItemStats extends Component {
         return false;
     }
 
+    @Override
+    protected @Nullable Object contentKey(HtmlContext context) {
+        return ComparisonPage.isCompared(context.sde, type) ? type.typeID : null;
+    }
+
     @Override
     protected HTML[] getContent(HtmlContext context) {
         Map<Integer, Type> types = context.sde.getTypes();
@@ -5,6 +5,8 @@ import net.sentientturtle.html.context.HtmlContext;
 import net.sentientturtle.html.Component;
 import net.sentientturtle.nee.data.ResourceLocation;
 import net.sentientturtle.nee.data.datatypes.Type;
+import net.sentientturtle.nee.page.ComparisonPage;
+import org.jspecify.annotations.Nullable;
 
 
 import java.util.Map;
@@ -16,6 +18,21 @@ import static net.sentientturtle.html.HTML.*;
  * Displays fitting stats of a ship {@link Type}
  */
 public class ShipFitting extends Component {
+    private static final int TURRET_ICON = 387;
+    private static final int LAUNCHER_ICON = 168;
+    private static final int HIGH_SLOT_ICON = 293;
+    private static final int MEDIUM_SLOT_ICON = 294;
+    private static final int LOW_SLOT_ICON = 295;
+    private static final int SUBSYSTEM_ICON = 3756;
+    private static final int RIG_ICON = 3266;
+    private static final int CPU_ICON = 1405;
+    private static final int POWERGRID_ICON = 1400;
+    private static final int CAPACITOR_ICON = 1668;
+    private static final int RECHARGE_ICON = 1392;
+    private static final int SIGNATURE_RADIUS_ICON = 1390;
+    /// IconIDs of the icons shown for every ship
+    public static final int[] ICON_IDS = {TURRET_ICON, LAUNCHER_ICON, HIGH_SLOT_ICON, MEDIUM_SLOT_ICON, LOW_SLOT_ICON, SUBSYSTEM_ICON, RIG_ICON, CPU_ICON, POWERGRID_ICON, CAPACITOR_ICON, RECHARGE_ICON, SIGNATURE_RADIUS_ICON};
+
     private final Type type;
 
     public ShipFitting(Type type) {
@@ -23,6 +40,11 @@ public class ShipFitting extends Component {
         this.type = type;
     }
 
+    @Override
+    protected @Nullable Object contentKey(HtmlContext context) {
+        return ComparisonPage.isCompared(context.sde, type) ? type.typeID : null;
+    }
+
     @Override
     protected HTML[] getContent(HtmlContext context) {
         Map<Integer, Double> typeAttributes = context.sde.getTypeAttributes().getOrDefault(type.typeID, Map.of());
@@ -59,43 +81,43 @@ public class ShipFitting extends Component {
         if (showTurrets) {
             slot_table.content(TR().content(
                 TD().text("Turrets"),
-                TD().content(HTML.repeat(turretHardpoints, IMG(ResourceLocation.ofIconID(387, context), null, 32).className("ship_fitting_icon"))),
+                TD().content(HTML.repeat(turretHardpoints, IMG(ResourceLocation.ofIconID(TURRET_ICON, context), null, 32).className("ship_fitting_icon"))),
                 TD().content(context.sde.format_with_unit(turretHardpoints, context.sde.getAttributes().get(102).unitID))
             ));
         }
         if (showLaunchers) {
             slot_table.content(TR().content(
                 TD().text("Launchers"),
-                TD().content(HTML.repeat(launcherHardpoints, IMG(ResourceLocation.ofIconID(168, context), null, 32).className("ship_fitting_icon"))),
+                TD().content(HTML.repeat(launcherHardpoints, IMG(ResourceLocation.ofIconID(LAUNCHER_ICON, context), null, 32).className("ship_fitting_icon"))),
                 TD().content(context.sde.format_with_unit(launcherHardpoints, context.sde.getAttributes().get(101).unitID))
             ));
         }
         if (showHMLSlots) {
             slot_table.content(TR().content(
                 TD().text("High power"),
-                TD().content(HTML.repeat(highSlots, IMG(ResourceLocation.ofIconID(293, context), null, 32).className("ship_fitting_icon"))),
+                TD().content(HTML.repeat(highSlots, IMG(ResourceLocation.ofIconID(HIGH_SLOT_ICON, context), null, 32).className("ship_fitting_icon"))),
                 TD().content(context.sde.format_with_unit(highSlots, context.sde.getAttributes().get(14).unitID))
             ), TR().content(
                 TD().text("Medium power"),
-                TD().content(HTML.repeat(medSlots, IMG(ResourceLocation.ofIconID(294, context), null, 32).className("ship_fitting_icon"))),
+                TD().content(HTML.repeat(medSlots, IMG(ResourceLocation.ofIconID(MEDIUM_SLOT_ICON, context), null, 32).className("ship_fitting_icon"))),
                 TD().content(context.sde.format_with_unit(medSlots, context.sde.getAttributes().get(13).unitID))
             ), TR().content(
                 TD().text("Low power"),
-                TD().content(HTML.repeat(lowSlots, IMG(ResourceLocation.ofIconID(295, context), null, 32).className("ship_fitting_icon"))),
+                TD().content(HTML.repeat(lowSlots, IMG(ResourceLocation.ofIconID(LOW_SLOT_ICON, context), null, 32).className("ship_fitting_icon"))),
                 TD().content(context.sde.format_with_unit(lowSlots, context.sde.getAttributes().get(12).unitID))
             ));
         }
         if (showSubsystemSlots) {
             slot_table.content(TR().content(
                 TD().text("Subsystem"),
-                TD().content(HTML.repeat(subsystemSlots, IMG(ResourceLocation.ofIconID(3756, context), null, 32).className("ship_fitting_icon"))),
+                TD().content(HTML.repeat(subsystemSlots, IMG(ResourceLocation.ofIconID(SUBSYSTEM_ICON, context), null, 32).className("ship_fitting_icon"))),
                 TD().content(context.sde.format_with_unit(subsystemSlots, context.sde.getAttributes().get(1367).unitID))
             ));
         }
         if (showRigSlots) {
             slot_table.content(TR().content(
                 TD().content(context.sde.format_with_unit(rigSize, context.sde.getAttributes().get(1547).unitID), TEXT(" rig")),
-                TD().content(HTML.repeat(rigSlots, IMG(ResourceLocation.ofIconID(3266, context), null, 32).className("ship_fitting_icon"))),
+                TD().content(HTML.repeat(rigSlots, IMG(ResourceLocation.ofIconID(RIG_ICON, context), null, 32).className("ship_fitting_icon"))),
                 TD().content(
                     context.sde.format_with_unit(rigSlots, context.sde.getAttributes().get(1137).unitID),
                     BR(), TEXT("("),
@@ -108,14 +130,14 @@ public class ShipFitting extends Component {
             stat_table.content(
                 TR().content(
                     TD().content(SPAN("ship_fitting_span").content(
-                        IMG(ResourceLocation.ofIconID(1405, context), null, 32).className("ship_fitting_icon"),
+                        IMG(ResourceLocation.ofIconID(CPU_ICON, context), null, 32).className("ship_fitting_icon"),
                         TEXT("CPU Output:")
                     )),
                     TD().content(context.sde.format_with_unit(cpuOutput, context.sde.getAttributes().get(48).unitID))
                 ),
                 TR().content(
                     TD().content(SPAN("ship_fitting_span").content(
-                        IMG(ResourceLocation.ofIconID(1400, context), null, 32).className("ship_fitting_icon"),
+                        IMG(ResourceLocation.ofIconID(POWERGRID_ICON, context), null, 32).className("ship_fitting_icon"),
                         TEXT("Powergrid output:")
                     )),
                     TD().content(context.sde.format_with_unit(powerGrid, context.sde.getAttributes().get(11).unitID))
@@ -126,14 +148,14 @@ public class ShipFitting extends Component {
             stat_table.content(
                 TR().content(
                     TD().content(SPAN("ship_fitting_span").content(
-                        IMG(ResourceLocation.ofIconID(1668, context), null, 32).className("ship_fitting_icon"),
+                        IMG(ResourceLocation.ofIconID(CAPACITOR_ICON, context), null, 32).className("ship_fitting_icon"),
                         TEXT("Capacitor capacity:")
                     )),
                     TD().content(context.sde.format_with_unit(capacitorCapacity, context.sde.getAttributes().get(482).unitID))
                 ),
                 TR().content(
                     TD().content(SPAN("ship_fitting_span").content(
-                        IMG(ResourceLocation.ofIconID(1392, context), null, 32).className("ship_fitting_icon"),
+                        IMG(ResourceLocation.ofIconID(RECHARGE_ICON, context), null, 32).className("ship_fitting_icon"),
                         TEXT("Recharge:")
                     )),
                     TD().content(context.sde.format_with_unit(capacitorRecharge, context.sde.getAttributes().get(55).unitID))
@@ -144,7 +166,7 @@ public class ShipFitting extends Component {
             double peakRecharge = 2500.0 * capacitorCapacity / capacitorRecharge;
             stat_table.content(TR().content(
                 TD().content(SPAN("ship_fitting_span").content(
-                    IMG(ResourceLocation.ofIconID(1668, context), null, 32).className("ship_fitting_icon"),
+                    IMG(ResourceLocation.ofIconID(CAPACITOR_ICON, context), null, 32).className("ship_fitting_icon"),
                     TEXT("Peak capacitor rate: ")
                 )),
                 TD().content(context.sde.format_with_unit(peakRecharge, -3))
@@ -153,7 +175,7 @@ public class ShipFitting extends Component {
         if (showSignature) {
             stat_table.content(TR().content(
                 TD().content(SPAN("ship_fitting_span").content(
-                        IMG(ResourceLocation.ofIconID(1390, context), null, 32).className("ship_fitting_icon"),
+                        IMG(ResourceLocation.ofIconID(SIGNATURE_RADIUS_ICON, context), null, 32).className("ship_fitting_icon"),
                         TEXT("Signature radius: ")
                     )),
                 TD().content(context.sde.format_with_unit(signatureRadius, context.sde.getAttributes().get(552).unitID))
@@ -6,6 +6,8 @@ import net.sentientturtle.html.Component;
 import net.sentientturtle.nee.data.ResourceLocation;
 import net.sentientturtle.nee.data.sde.SDEData;
 import net.sentientturtle.nee.data.datatypes.Type;
+import net.sentientturtle.nee.page.ComparisonPage;
+import org.jspecify.annotations.Nullable;
 
 import static net.sentientturtle.html.HTML.*;
 
@@ -26,6 +28,11 @@ public abstract class ShipHealth extends Component {
         this.type = type;
     }
 
+    @Override
+    protected @Nullable Object contentKey(HtmlContext context) {
+        return ComparisonPage.isCompared(context.sde, type) ? type.typeID : null;
+    }
+
     @Override
     protected HTML[] getContent(HtmlContext context) {
         var table = TABLE("ship_health_table font_text").content(
@@ -198,7 +205,7 @@ public abstract class ShipHealth extends Component {
 
     // Helper method for fetching hitpoints string
     private HTML getHp(SDEData sdeData, int hpAttributeID) {
-        return sdeData.format_with_unit(sdeData.getTypeAttributes().get(type.typeID).get(hpAttributeID), sdeData.getAttributes().get(hpAttributeID).unitID);
+        return sdeData.format_with_unit(sdeData.getTypeAttribute(type.typeID, hpAttributeID, 0.0), sdeData.getAttributes().get(hpAttributeID).unitID);
     }
 
 
@@ -215,10 +222,10 @@ public abstract class ShipHealth extends Component {
     @SuppressWarnings("WeakerAccess")
     protected Resists getResists(SDEData sdeData, int emAttribute, int thAttribute, int kiAttribute, int exAttribute) {
         return new Resists(
-            sdeData.getTypeAttributes().get(type.typeID).getOrDefault(emAttribute, 1.0),   // Default to 1.0, which is 0% resistance
-            sdeData.getTypeAttributes().get(type.typeID).getOrDefault(thAttribute, 1.0),
-            sdeData.getTypeAttributes().get(type.typeID).getOrDefault(kiAttribute, 1.0),
-            sdeData.getTypeAttributes().get(type.typeID).getOrDefault(exAttribute, 1.0)
+            sdeData.getTypeAttribute(type.typeID, emAttribute, 1.0),   // Default to 1.0, which is 0% resistance
+            sdeData.getTypeAttribute(type.typeID, thAttribute, 1.0),
+            sdeData.getTypeAttribute(type.typeID, kiAttribute, 1.0),
+            sdeData.getTypeAttribute(type.typeID, exAttribute, 1.0)
         );
     }
 
@@ -36,7 +36,7 @@ public class ShipShield extends ShipHealth {
 
     @Override
     protected HTML[] getRechargeText(SDEData sdeData) {
-        double recharge = sdeData.getTypeAttributes().get(super.type.typeID).getOrDefault(479, 0.0);
+        double recharge = sdeData.getTypeAttribute(super.type.typeID, 479, 0.0);
         if (recharge > 0 && recharge < 86400000) {    // Some types have "as good as infinite" recharge times
             return new HTML[]{TEXT("Recharge time: "), sdeData.format_with_unit(recharge, sdeData.getAttributes().get(479).unitID)};
         } else {
@@ -6,6 +6,8 @@ import net.sentientturtle.html.context.HtmlContext;
 import net.sentientturtle.nee.data.datatypes.Attribute;
 import net.sentientturtle.nee.data.datatypes.Type;
 import net.sentientturtle.nee.data.ResourceLocation;
+import net.sentientturtle.nee.page.ComparisonPage;
+import org.jspecify.annotations.Nullable;
 
 import java.util.Map;
 
@@ -22,6 +24,11 @@ public class TypeSensors extends Component {
         this.type = type;
     }
 
+    @Override
+    protected @Nullable Object contentKey(HtmlContext context) {
+        return ComparisonPage.isCompared(context.sde, type) ? type.typeID : null;
+    }
+
     @Override
     protected HTML[] getContent(HtmlContext context) {
         Map<Integer, Attribute> attributeMap = context.sde.getAttributes();
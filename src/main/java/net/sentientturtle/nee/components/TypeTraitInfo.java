@@ -6,8 +6,10 @@ import net.sentientturtle.html.context.HtmlContext;
 import net.sentientturtle.nee.data.datatypes.TypeTraits;
 import net.sentientturtle.nee.data.sde.SDEData;
 import net.sentientturtle.nee.data.datatypes.Type;
+import net.sentientturtle.nee.page.ComparisonPage;
 import net.sentientturtle.nee.page.TypePage;
 import net.sentientturtle.nee.util.EVEText;
+import org.jspecify.annotations.Nullable;
 
 import java.util.List;
 import java.util.Map;
@@ -25,6 +27,11 @@ public class TypeTraitInfo extends Component {
         this.type = type;
     }
 
+    @Override
+    protected @Nullable Object contentKey(HtmlContext context) {
+        return ComparisonPage.isCompared(context.sde, type) ? type.typeID : null;
+    }
+
     @Override
     protected HTML[] getContent(HtmlContext context) {
         boolean first = true;
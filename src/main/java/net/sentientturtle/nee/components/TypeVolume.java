@@ -7,7 +7,9 @@ import net.sentientturtle.html.HTML;
 import net.sentientturtle.html.context.HtmlContext;
 import net.sentientturtle.nee.data.datatypes.Type;
 import net.sentientturtle.nee.data.ResourceLocation;
+import net.sentientturtle.nee.page.ComparisonPage;
 import net.sentientturtle.nee.util.ExceptionUtil;
+import org.jspecify.annotations.Nullable;
 
 import java.io.IOException;
 import java.net.URI;
@@ -26,6 +28,11 @@ public class TypeVolume extends Component {
         this.type = type;
     }
 
+    @Override
+    protected @Nullable Object contentKey(HtmlContext context) {
+        return ComparisonPage.isCompared(context.sde, type) ? type.typeID : null;
+    }
+
     @Override
     protected HTML[] getContent(HtmlContext context) {
         double volume = this.type.volume;
@@ -119,9 +126,10 @@ public class TypeVolume extends Component {
     private static final Map<Integer, Double> PACKAGED_VOLUMES;
     static {
         // Clumsy hack; Packaged volumes are not handled by "proper" data access, this is to be replaced with the original data source
+        // The source may be overridden with a system property, for use without network access
         try {
             PACKAGED_VOLUMES = new ObjectMapper().readValue(
-                new URI("https://sde.hoboleaks.space/tq/repackagedvolumes.json").toURL(),
+                new URI(System.getProperty("net.sentientturtle.nee.packagedVolumes", "https://sde.hoboleaks.space/tq/repackagedvolumes.json")).toURL(),
                 new TypeReference<HashMap<Integer, Double>>() {}
             );
             System.out.println("TEMP: package volumes loaded!");
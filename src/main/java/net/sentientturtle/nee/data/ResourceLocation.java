@@ -5,15 +5,20 @@ import net.sentientturtle.nee.Main;
 import net.sentientturtle.nee.data.datatypes.Group;
 import net.sentientturtle.nee.data.datatypes.Type;
 import net.sentientturtle.nee.data.sharedcache.IconProvider;
+import net.sentientturtle.nee.data.sharedcache.SharedCacheReader;
 import net.sentientturtle.nee.util.MIME;
 import net.sentientturtle.nee.util.ExceptionUtil;
+import org.jspecify.annotations.Nullable;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
 
 /**
@@ -189,12 +194,32 @@ public class ResourceLocation {
         /// Must be thread-safe!
         byte[] getData(DataSources sources) throws IOException;
 
+        /// Cheap identifier for the contents of a resource, which changes whenever the data does; Used to skip unchanged resources in incremental builds
+        /// Returns null if the data must be read to determine whether it changed
+        default @Nullable String getVersion(DataSources sources) {
+            return null;
+        }
+
+        /// Retrieve the file contents of a resource as a read-only buffer; Large resources copied from files as-is return a memory-mapped buffer, to avoid copying them onto the heap
+        /// Must be thread-safe!
+        default ByteBuffer getBuffer(DataSources sources) throws IOException {
+            return ByteBuffer.wrap(getData(sources)).asReadOnlyBuffer();
+        }
+
         /// File (Usually in {@link Main#RES_FOLDER}, but this is not enforced!)
         record File(Path path) implements ResourceData {
             @Override
             public byte[] getData(DataSources sources) throws IOException {
                 return Files.readAllBytes(path);
             }
+
+            @Override
+            public ByteBuffer getBuffer(DataSources sources) throws IOException {
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    if (channel.size() >= SharedCacheReader.MAP_THRESHOLD) return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                }
+                return ResourceData.super.getBuffer(sources);
+            }
         }
 
         /// Remotely hosted resource, usually a URL to some web resource (e.g. EVE Online Image Service images)
@@ -232,6 +257,16 @@ public class ResourceLocation {
             public byte[] getData(DataSources sources) throws IOException {
                 return sources.sharedCache().getBytes(resource);
             }
+
+            @Override
+            public ByteBuffer getBuffer(DataSources sources) throws IOException {
+                return sources.sharedCache().getBuffer(resource);
+            }
+
+            @Override
+            public @Nullable String getVersion(DataSources sources) {
+                return sources.sharedCache().getResourceHash(resource);
+            }
         }
 
         /// Special case data source that doesn't generate data files
@@ -0,0 +1,234 @@
+package net.sentientturtle.nee.data.collections;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/// Attribute values of a single type, mapping attributeID to value
+///
+/// Stored as a sorted array of attributeIDs and a parallel array of values, and iterates in order of attributeID.
+/// Lookups are a binary search. Attributes inserted in ascending order are appended; Others are inserted at their sorted position,
+/// which is cheap enough for loading as types have at most a few hundred attributes.
+///
+/// Null values are not permitted.
+/// This map is not synchronized, but may be read from multiple threads once no longer modified.
+public class AttributeMap extends AbstractMap<Integer, Double> {
+    private int[] attributeIDs;
+    private double[] values;
+    private int size;
+    private int modCount;
+
+    public AttributeMap() {
+        this(8);
+    }
+
+    /// @param capacity Number of attributes this map can hold without resizing
+    public AttributeMap(int capacity) {
+        attributeIDs = new int[capacity];
+        values = new double[capacity];
+    }
+
+    /// @return Index of the attribute, or `-(insertion point) - 1` if not present
+    private int indexOf(int attributeID) {
+        return Arrays.binarySearch(attributeIDs, 0, size, attributeID);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public boolean containsKey(int attributeID) {
+        return indexOf(attributeID) >= 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer i && indexOf(i) >= 0;
+    }
+
+    /// @return Value of the attribute, or `defaultValue` if this map does not contain the attribute
+    public double getDouble(int attributeID, double defaultValue) {
+        int index = indexOf(attributeID);
+        return index >= 0 ? values[index] : defaultValue;
+    }
+
+    @Override
+    public @Nullable Double get(Object key) {
+        if (!(key instanceof Integer i)) return null;
+        int index = indexOf(i);
+        return index >= 0 ? values[index] : null;
+    }
+
+    @Override
+    public Double getOrDefault(Object key, Double defaultValue) {
+        if (!(key instanceof Integer i)) return defaultValue;
+        int index = indexOf(i);
+        return index >= 0 ? values[index] : defaultValue;
+    }
+
+    /// @return True if the attribute was not previously present
+    public boolean put(int attributeID, double value) {
+        // Loaders usually insert in ascending order
+        if (size == 0 || attributeID > attributeIDs[size - 1]) {
+            if (size == attributeIDs.length) grow();
+            attributeIDs[size] = attributeID;
+            values[size] = value;
+            size++;
+            modCount++;
+            return true;
+        }
+
+        int index = indexOf(attributeID);
+        if (index >= 0) {
+            values[index] = value;
+            return false;
+        }
+
+        index = -index - 1;
+        if (size == attributeIDs.length) grow();
+        System.arraycopy(attributeIDs, index, attributeIDs, index + 1, size - index);
+        System.arraycopy(values, index, values, index + 1, size - index);
+        attributeIDs[index] = attributeID;
+        values[index] = value;
+        size++;
+        modCount++;
+        return true;
+    }
+
+    private void grow() {
+        int capacity = Math.max(8, size * 2);
+        attributeIDs = Arrays.copyOf(attributeIDs, capacity);
+        values = Arrays.copyOf(values, capacity);
+    }
+
+    @Override
+    public @Nullable Double put(Integer key, Double value) {
+        Objects.requireNonNull(value);
+        int index = indexOf(key);
+        Double previous = index >= 0 ? values[index] : null;
+        put((int) key, (double) value);
+        return previous;
+    }
+
+    @Override
+    public @Nullable Double remove(Object key) {
+        if (!(key instanceof Integer i)) return null;
+        int index = indexOf(i);
+        if (index < 0) return null;
+        double previous = values[index];
+        removeIndex(index);
+        return previous;
+    }
+
+    private void removeIndex(int index) {
+        System.arraycopy(attributeIDs, index + 1, attributeIDs, index, size - index - 1);
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+        modCount++;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        modCount++;
+    }
+
+    /// Shrinks the backing arrays to the number of attributes
+    public void trimToSize() {
+        if (attributeIDs.length > size) {
+            attributeIDs = Arrays.copyOf(attributeIDs, size);
+            values = Arrays.copyOf(values, size);
+        }
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super Integer, ? super Double> action) {
+        int expectedModCount = modCount;
+        for (int i = 0; i < size; i++) {
+            action.accept(attributeIDs[i], values[i]);
+        }
+        if (modCount != expectedModCount) throw new ConcurrentModificationException();
+    }
+
+    @Override
+    public Set<Entry<Integer, Double>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<Integer, Double>> iterator() {
+                return new Iterator<>() {
+                    private int next = 0;
+                    private int last = -1;
+                    private int expectedModCount = modCount;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < size;
+                    }
+
+                    @Override
+                    public Entry<Integer, Double> next() {
+                        if (modCount != expectedModCount) throw new ConcurrentModificationException();
+                        if (next >= size) throw new NoSuchElementException();
+                        int index = next++;
+                        last = index;
+                        return new Entry<>() {
+                            @Override
+                            public Integer getKey() {
+                                return attributeIDs[index];
+                            }
+
+                            @Override
+                            public Double getValue() {
+                                return values[index];
+                            }
+
+                            @Override
+                            public Double setValue(Double value) {
+                                double previous = values[index];
+                                values[index] = value;
+                                return previous;
+                            }
+
+                            @Override
+                            public boolean equals(Object o) {
+                                return o instanceof Entry<?, ?> e && getKey().equals(e.getKey()) && getValue().equals(e.getValue());
+                            }
+
+                            @Override
+                            public int hashCode() {
+                                return attributeIDs[index] ^ Double.hashCode(values[index]);
+                            }
+
+                            @Override
+                            public String toString() {
+                                return attributeIDs[index] + "=" + values[index];
+                            }
+                        };
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (last < 0) throw new IllegalStateException();
+                        if (modCount != expectedModCount) throw new ConcurrentModificationException();
+                        removeIndex(last);
+                        next = last;
+                        last = -1;
+                        expectedModCount = modCount;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public void clear() {
+                AttributeMap.this.clear();
+            }
+        };
+    }
+}
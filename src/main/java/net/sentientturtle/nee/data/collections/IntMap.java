@@ -0,0 +1,454 @@
+package net.sentientturtle.nee.data.collections;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/// Map with int keys, which iterates in insertion order like {@link LinkedHashMap}
+///
+/// Keys and values are stored in insertion order in flat arrays, and located through an open-addressing hash table of indices into those arrays.
+/// This avoids the boxed key and the entry node per mapping of {@link LinkedHashMap}.
+/// Removed mappings leave a gap in the arrays until the map is next resized.
+///
+/// Null values are permitted, null keys are not.
+/// Like {@link LinkedHashMap}, this map is not synchronized, but may be read from multiple threads once no longer modified.
+public class IntMap<V> extends AbstractMap<Integer, V> {
+    private static final int DEFAULT_CAPACITY = 8;
+    // Marks a removed mapping in the value array
+    private static final Object REMOVED = new Object();
+
+    private int[] keys;
+    private Object[] values;
+    // Index + 1 into keys/values, 0 for an empty slot, -1 for a slot of which the mapping was removed
+    private int[] table;
+    // Number of used positions in keys/values, including removed mappings
+    private int end;
+    private int size;
+    // Number of removed mappings in the table
+    private int tombstones;
+    private int modCount;
+
+    public IntMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /// @param capacity Number of mappings this map can hold without resizing
+    public IntMap(int capacity) {
+        capacity = Math.max(capacity, 2);
+        keys = new int[capacity];
+        values = new Object[capacity];
+        table = new int[tableSize(capacity)];
+    }
+
+    private static int tableSize(int capacity) {
+        // Load factor of at most 0.5
+        return Integer.highestOneBit(capacity * 2 - 1) << 1;
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /// @return Index of the key in keys/values, or -1 if the key is not present
+    private int indexOf(int key) {
+        int[] table = this.table;
+        int mask = table.length - 1;
+        int slot = hash(key) & mask;
+        int entry;
+        while ((entry = table[slot]) != 0) {
+            if (entry > 0 && keys[entry - 1] == key) return entry - 1;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public boolean containsKey(int key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer i && indexOf(i) >= 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public @Nullable V get(int key) {
+        int index = indexOf(key);
+        return index >= 0 ? (V) values[index] : null;
+    }
+
+    @Override
+    public @Nullable V get(Object key) {
+        return key instanceof Integer i ? get((int) i) : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(int key, V defaultValue) {
+        int index = indexOf(key);
+        return index >= 0 ? (V) values[index] : defaultValue;
+    }
+
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        return key instanceof Integer i ? getOrDefault((int) i, defaultValue) : defaultValue;
+    }
+
+    @SuppressWarnings("unchecked")
+    public @Nullable V put(int key, V value) {
+        int index = indexOf(key);
+        if (index >= 0) {
+            V previous = (V) values[index];
+            values[index] = value;
+            return previous;
+        }
+        insert(key, value);
+        return null;
+    }
+
+    @Override
+    public @Nullable V put(Integer key, V value) {
+        return put((int) key, value);
+    }
+
+    public V computeIfAbsent(int key, IntFunction<? extends V> mappingFunction) {
+        int index = indexOf(key);
+        if (index >= 0) {
+            @SuppressWarnings("unchecked")
+            V value = (V) values[index];
+            if (value != null) return value;
+            value = mappingFunction.apply(key);
+            if (value != null) values[index] = value;
+            return value;
+        }
+        V value = mappingFunction.apply(key);
+        if (value != null) insert(key, value);
+        return value;
+    }
+
+    @Override
+    public V computeIfAbsent(Integer key, Function<? super Integer, ? extends V> mappingFunction) {
+        return computeIfAbsent((int) key, mappingFunction::apply);
+    }
+
+    private void insert(int key, V value) {
+        if (end == keys.length) {
+            grow();
+        } else if ((end + tombstones + 1) * 2 > table.length) {
+            rehash(table.length);
+        }
+        keys[end] = key;
+        values[end] = value;
+        end++;
+        size++;
+        modCount++;
+
+        int mask = table.length - 1;
+        int slot = hash(key) & mask;
+        while (table[slot] > 0) slot = (slot + 1) & mask;
+        if (table[slot] < 0) tombstones--;
+        table[slot] = end;
+    }
+
+    private void grow() {
+        // Compact instead of growing if at least a quarter of the entries were removed
+        int capacity = size * 4 > keys.length * 3 ? keys.length * 2 : keys.length;
+        compact(capacity);
+        rehash(tableSize(capacity));
+    }
+
+    /// Moves all mappings to the start of new arrays of the given capacity, in order
+    private void compact(int capacity) {
+        int[] newKeys = new int[capacity];
+        Object[] newValues = new Object[capacity];
+        int position = 0;
+        for (int i = 0; i < end; i++) {
+            if (values[i] != REMOVED) {
+                newKeys[position] = keys[i];
+                newValues[position] = values[i];
+                position++;
+            }
+        }
+        keys = newKeys;
+        values = newValues;
+        end = position;
+    }
+
+    private void rehash(int tableSize) {
+        int[] table = new int[tableSize];
+        int mask = tableSize - 1;
+        for (int i = 0; i < end; i++) {
+            if (values[i] == REMOVED) continue;
+            int slot = hash(keys[i]) & mask;
+            while (table[slot] != 0) slot = (slot + 1) & mask;
+            table[slot] = i + 1;
+        }
+        this.table = table;
+        this.tombstones = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public @Nullable V remove(int key) {
+        int mask = table.length - 1;
+        int slot = hash(key) & mask;
+        int entry;
+        while ((entry = table[slot]) != 0) {
+            if (entry > 0 && keys[entry - 1] == key) {
+                V previous = (V) values[entry - 1];
+                removeAt(slot, entry - 1);
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    @Override
+    public @Nullable V remove(Object key) {
+        return key instanceof Integer i ? remove((int) i) : null;
+    }
+
+    private void removeAt(int slot, int index) {
+        table[slot] = -1;
+        tombstones++;
+        values[index] = REMOVED;
+        size--;
+        modCount++;
+        if (index == end - 1) end--;
+    }
+
+    private void removeIndex(int index) {
+        int mask = table.length - 1;
+        int slot = hash(keys[index]) & mask;
+        while (table[slot] != index + 1) slot = (slot + 1) & mask;
+        removeAt(slot, index);
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(values, 0, end, null);
+        Arrays.fill(table, 0);
+        end = 0;
+        size = 0;
+        tombstones = 0;
+        modCount++;
+    }
+
+    /// Shrinks the backing arrays to the number of mappings
+    public void trimToSize() {
+        if (end != size || keys.length > size) {
+            compact(Math.max(size, 2));
+            rehash(tableSize(keys.length));
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super Integer, ? super V> action) {
+        int expectedModCount = modCount;
+        for (int i = 0; i < end; i++) {
+            Object value = values[i];
+            if (value != REMOVED) action.accept(keys[i], (V) value);
+        }
+        if (modCount != expectedModCount) throw new ConcurrentModificationException();
+    }
+
+    /// Performs the action for each mapping in insertion order, without boxing keys
+    @SuppressWarnings("unchecked")
+    public void forEachInt(IntObjConsumer<? super V> action) {
+        int expectedModCount = modCount;
+        for (int i = 0; i < end; i++) {
+            Object value = values[i];
+            if (value != REMOVED) action.accept(keys[i], (V) value);
+        }
+        if (modCount != expectedModCount) throw new ConcurrentModificationException();
+    }
+
+    @FunctionalInterface
+    public interface IntObjConsumer<V> {
+        void accept(int key, V value);
+    }
+
+    @Override
+    public Set<Entry<Integer, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<Integer, V>> iterator() {
+                return new IndexIterator<>() {
+                    @Override
+                    Entry<Integer, V> get(int index) {
+                        return new IndexEntry(index);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public Spliterator<Entry<Integer, V>> spliterator() {
+                return Spliterators.spliterator(this, Spliterator.ORDERED);
+            }
+
+            @Override
+            public void clear() {
+                IntMap.this.clear();
+            }
+        };
+    }
+
+    @Override
+    public Set<Integer> keySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Integer> iterator() {
+                return new IndexIterator<>() {
+                    @Override
+                    Integer get(int index) {
+                        return keys[index];
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public Spliterator<Integer> spliterator() {
+                return Spliterators.spliterator(this, Spliterator.ORDERED);
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return containsKey(o);
+            }
+
+            @Override
+            public boolean remove(Object o) {
+                int sizeBefore = size;
+                IntMap.this.remove(o);
+                return size != sizeBefore;
+            }
+
+            @Override
+            public void clear() {
+                IntMap.this.clear();
+            }
+        };
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new IndexIterator<>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    V get(int index) {
+                        return (V) values[index];
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public Spliterator<V> spliterator() {
+                return Spliterators.spliterator(this, Spliterator.ORDERED);
+            }
+
+            @Override
+            public void clear() {
+                IntMap.this.clear();
+            }
+        };
+    }
+
+    private final class IndexEntry implements Entry<Integer, V> {
+        private final int index;
+
+        IndexEntry(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public Integer getKey() {
+            return keys[index];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V getValue() {
+            return (V) values[index];
+        }
+
+        @Override
+        public V setValue(V value) {
+            V previous = getValue();
+            values[index] = value;
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Entry<?, ?> e && getKey().equals(e.getKey()) && Objects.equals(getValue(), e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return keys[index] ^ Objects.hashCode(values[index]);
+        }
+
+        @Override
+        public String toString() {
+            return keys[index] + "=" + values[index];
+        }
+    }
+
+    private abstract class IndexIterator<T> implements Iterator<T> {
+        private int next = 0;
+        private int last = -1;
+        private int expectedModCount = modCount;
+
+        abstract T get(int index);
+
+        @Override
+        public boolean hasNext() {
+            while (next < end && values[next] == REMOVED) next++;
+            return next < end;
+        }
+
+        @Override
+        public T next() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (!hasNext()) throw new NoSuchElementException();
+            last = next++;
+            return get(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) throw new IllegalStateException();
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            removeIndex(last);
+            last = -1;
+            expectedModCount = modCount;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package net.sentientturtle.nee.data.collections;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/// Set of ints, which iterates in insertion order like {@link LinkedHashSet}
+///
+/// Elements are stored in insertion order in a flat array, and located through an open-addressing hash table of indices into that array; See {@link IntMap}.
+/// Removed elements leave a gap in the array until the set is next resized.
+///
+/// Null elements are not permitted.
+/// Like {@link LinkedHashSet}, this set is not synchronized, but may be read from multiple threads once no longer modified.
+public class IntSet extends AbstractSet<Integer> {
+    private static final int DEFAULT_CAPACITY = 4;
+
+    private int[] elements;
+    // Positions in elements of removed elements; Null if no element was removed since the last resize
+    private BitSet removed;
+    // Index + 1 into elements, 0 for an empty slot, -1 for a slot of which the element was removed
+    private int[] table;
+    // Number of used positions in elements, including removed elements
+    private int end;
+    private int size;
+    private int tombstones;
+    private int modCount;
+
+    public IntSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /// @param capacity Number of elements this set can hold without resizing
+    public IntSet(int capacity) {
+        capacity = Math.max(capacity, 2);
+        elements = new int[capacity];
+        table = new int[tableSize(capacity)];
+    }
+
+    private static int tableSize(int capacity) {
+        return Integer.highestOneBit(capacity * 2 - 1) << 1;
+    }
+
+    private static int hash(int element) {
+        int h = element * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private boolean isRemoved(int index) {
+        return removed != null && removed.get(index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int element) {
+        int[] table = this.table;
+        int mask = table.length - 1;
+        int slot = hash(element) & mask;
+        int entry;
+        while ((entry = table[slot]) != 0) {
+            if (entry > 0 && elements[entry - 1] == element) return true;
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Integer i && contains((int) i);
+    }
+
+    public boolean add(int element) {
+        if (contains(element)) return false;
+
+        if (end == elements.length) {
+            int capacity = size * 4 > elements.length * 3 ? elements.length * 2 : elements.length;
+            compact(capacity);
+            rehash(tableSize(capacity));
+        } else if ((end + tombstones + 1) * 2 > table.length) {
+            rehash(table.length);
+        }
+        elements[end++] = element;
+        size++;
+        modCount++;
+
+        int mask = table.length - 1;
+        int slot = hash(element) & mask;
+        while (table[slot] > 0) slot = (slot + 1) & mask;
+        if (table[slot] < 0) tombstones--;
+        table[slot] = end;
+        return true;
+    }
+
+    @Override
+    public boolean add(Integer element) {
+        return add((int) element);
+    }
+
+    public boolean remove(int element) {
+        int mask = table.length - 1;
+        int slot = hash(element) & mask;
+        int entry;
+        while ((entry = table[slot]) != 0) {
+            if (entry > 0 && elements[entry - 1] == element) {
+                removeAt(slot, entry - 1);
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return o instanceof Integer i && remove((int) i);
+    }
+
+    private void removeAt(int slot, int index) {
+        table[slot] = -1;
+        tombstones++;
+        if (removed == null) removed = new BitSet(elements.length);
+        removed.set(index);
+        size--;
+        modCount++;
+    }
+
+    private void removeIndex(int index) {
+        int mask = table.length - 1;
+        int slot = hash(elements[index]) & mask;
+        while (table[slot] != index + 1) slot = (slot + 1) & mask;
+        removeAt(slot, index);
+    }
+
+    private void compact(int capacity) {
+        int[] newElements = new int[capacity];
+        int position = 0;
+        for (int i = 0; i < end; i++) {
+            if (!isRemoved(i)) newElements[position++] = elements[i];
+        }
+        elements = newElements;
+        end = position;
+        removed = null;
+    }
+
+    private void rehash(int tableSize) {
+        int[] table = new int[tableSize];
+        int mask = tableSize - 1;
+        for (int i = 0; i < end; i++) {
+            if (isRemoved(i)) continue;
+            int slot = hash(elements[i]) & mask;
+            while (table[slot] != 0) slot = (slot + 1) & mask;
+            table[slot] = i + 1;
+        }
+        this.table = table;
+        this.tombstones = 0;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(table, 0);
+        end = 0;
+        size = 0;
+        tombstones = 0;
+        removed = null;
+        modCount++;
+    }
+
+    /// Shrinks the backing arrays to the number of elements
+    public void trimToSize() {
+        if (end != size || elements.length > size) {
+            compact(Math.max(size, 2));
+            rehash(tableSize(elements.length));
+        }
+    }
+
+    /// Performs the action for each element in insertion order, without boxing
+    public void forEachInt(IntConsumer action) {
+        int expectedModCount = modCount;
+        for (int i = 0; i < end; i++) {
+            if (!isRemoved(i)) action.accept(elements[i]);
+        }
+        if (modCount != expectedModCount) throw new ConcurrentModificationException();
+    }
+
+    @Override
+    public void forEach(Consumer<? super Integer> action) {
+        forEachInt(action::accept);
+    }
+
+    /// @return Array of the elements, in insertion order
+    public int[] toIntArray() {
+        int[] array = new int[size];
+        int position = 0;
+        for (int i = 0; i < end; i++) {
+            if (!isRemoved(i)) array[position++] = elements[i];
+        }
+        return array;
+    }
+
+    @Override
+    public Spliterator<Integer> spliterator() {
+        return Spliterators.spliterator(this, Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL);
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return new Iterator<>() {
+            private int next = 0;
+            private int last = -1;
+            private int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                while (next < end && isRemoved(next)) next++;
+                return next < end;
+            }
+
+            @Override
+            public Integer next() {
+                if (modCount != expectedModCount) throw new ConcurrentModificationException();
+                if (!hasNext()) throw new NoSuchElementException();
+                last = next++;
+                return elements[last];
+            }
+
+            @Override
+            public void remove() {
+                if (last < 0) throw new IllegalStateException();
+                if (modCount != expectedModCount) throw new ConcurrentModificationException();
+                removeIndex(last);
+                last = -1;
+                expectedModCount = modCount;
+            }
+        };
+    }
+}
@@ -0,0 +1,2 @@
+/// Compact collections for EVE Online data, keyed by int IDs
+package net.sentientturtle.nee.data.collections;
@@ -1,18 +1,25 @@
 package net.sentientturtle.nee.data.sde;
 
 import net.sentientturtle.html.HTML;
+import net.sentientturtle.html.HTMLUtil;
 import net.sentientturtle.html.PageLink;
+import net.sentientturtle.html.PrerenderedHTML;
 import net.sentientturtle.nee.components.TypeSkills;
+import net.sentientturtle.nee.data.collections.AttributeMap;
+import net.sentientturtle.nee.data.collections.IntMap;
+import net.sentientturtle.nee.data.collections.IntSet;
 import net.sentientturtle.nee.data.datatypes.*;
 import net.sentientturtle.nee.page.GroupPage;
 import net.sentientturtle.nee.page.TypePage;
+import net.sentientturtle.nee.util.ValueFormatter;
 import org.jspecify.annotations.Nullable;
 
-import java.text.DecimalFormat;
-import java.text.DecimalFormatSymbols;
-import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -23,21 +30,6 @@ import java.util.stream.Collectors;
  * @see SQLiteSDEData
  */
 public abstract class SDEData {
-    private static final DecimalFormat decimalFormat;
-    private static final SimpleDateFormat dateFormat;
-
-    static {
-        DecimalFormatSymbols symbols = new DecimalFormatSymbols();
-        symbols.setDecimalSeparator('.');   // English style number formatting to match that of the game
-        symbols.setGroupingSeparator(',');
-        symbols.setNaN("???");              // NaN treated as "Unknown"
-        decimalFormat = new DecimalFormat("###,##0.##", symbols);
-
-        // This should be replaced with more robust date formatting
-        dateFormat = new SimpleDateFormat("dd MMM yyyy HH:mm:ss", Locale.ENGLISH);
-        dateFormat.setTimeZone(TimeZone.getTimeZone("Etc/UTC"));
-    }
-
     // Data
 
     /// Map<CategoryID, Category>
@@ -114,137 +106,148 @@ public abstract class SDEData {
 
     // Views
     // Map<CategoryID, Set<Group>>
-    private Map<Integer, Set<Group>> categoryGroups;
+    private View<Map<Integer, Set<Group>>> categoryGroups;
     // Map<GroupID, Set<Type>>
-    private Map<Integer, Set<Type>> groupTypes;
+    private View<Map<Integer, Set<Type>>> groupTypes;
 
     // Map<Material TypeID, Set<IndustryActivity using material>>
-    private Map<Integer, Set<IndustryActivity>> materialActivityMap;
+    private View<Map<Integer, Set<IndustryActivity>>> materialActivityMap;
     // Map<Product TypeID, Set<IndustryActivity producing product>>
-    private Map<Integer, Set<IndustryActivity>> productActivityMap;
+    private View<Map<Integer, Set<IndustryActivity>>> productActivityMap;
     // Map<Skill TypeID, Set<IndustryActivity using skill>>
-    private Map<Integer, Set<IndustryActivity>> skillActivityMap;
+    private View<Map<Integer, Set<IndustryActivity>>> skillActivityMap;
     // Map<Output TypeID, PlanetSchematic producing output>
-    private Map<Integer, PlanetSchematic> outputSchematicMap;
+    private View<Map<Integer, PlanetSchematic>> outputSchematicMap;
     // Map<Input TypeID, Set<PlanetSchematic using input>>
-    private Map<Integer, Set<PlanetSchematic>> inputSchematicMap;
+    private View<Map<Integer, Set<PlanetSchematic>>> inputSchematicMap;
     // Map<Material TypeID, Set<TypeID yielding material>>
-    private Map<Integer, Set<Integer>> oreReprocessingMap;
+    private View<Map<Integer, Set<Integer>>> oreReprocessingMap;
     // Map<MarketGroupID, Set<Type>>
-    private Map<Integer, Set<Type>> marketGroupTypeMap;
+    private View<Map<Integer, Set<Type>>> marketGroupTypeMap;
     // Map<MarketGroupID, Set<child MarketGroup>>
-    private Map<Integer, Set<MarketGroup>> marketGroupChildMap;
+    private View<Map<Integer, Set<MarketGroup>>> marketGroupChildMap;
     // Map<ConstellationID, List<SolarSystem>>
-    private Map<Integer, List<SolarSystem>> constellationSolarSystems;
+    private View<Map<Integer, List<SolarSystem>>> constellationSolarSystems;
     // Map<RegionID, List<SolarSystem>>
-    private Map<Integer, List<SolarSystem>> regionSolarSystems;
+    private View<Map<Integer, List<SolarSystem>>> regionSolarSystems;
     // Map<RegionID, List<Constellation>>
-    private Map<Integer, List<Constellation>> regionConstellations;
+    private View<Map<Integer, List<Constellation>>> regionConstellations;
     // Map<skill TypeID, Map<Level, Set<TypeID requiring skill>>>
-    private Map<Integer, Map<Integer, Set<Integer>>> requiresSkillMap;
+    private View<Map<Integer, Map<Integer, Set<Integer>>>> requiresSkillMap;
     // Map<TypeID, parent TypeID>
-    private Map<Integer, Integer> parentTypeMap;
+    private View<Map<Integer, Integer>> parentTypeMap;
+    /// All views, for {@link #computeViews()}
+    private List<View<?>> views;
+
+    // Formatted values; Attribute values repeat across many pages, so these are formatted once and shared between pages
+    // Bounded by no longer adding entries once full, as the values in use are expected to be far fewer than the bound
+    private static final int FORMAT_CACHE_SIZE = 1 << 16;
+    private final ConcurrentHashMap<FormatKey, HTML> formatCache = new ConcurrentHashMap<>();
+    private final LongAdder formatCacheHits = new LongAdder();
+    private final LongAdder formatCacheMisses = new LongAdder();
+
+    private record FormatKey(long valueBits, int unitID) {}
 
     // View getters
 
     /// Map<CategoryID, Set<Group>>
     public Map<Integer, Set<Group>> getCategoryGroups() {
         if (categoryGroups == null) throw new IllegalStateException("View collections not initialized!");
-        return categoryGroups;
+        return categoryGroups.get();
     }
 
     /// Map<GroupID, Set<Type>>
     public Map<Integer, Set<Type>> getGroupTypes() {
         if (groupTypes == null) throw new IllegalStateException("View collections not initialized!");
-        return groupTypes;
+        return groupTypes.get();
     }
 
     /// Map<Material TypeID, Set<IndustryActivity using material>>
     public Map<Integer, Set<IndustryActivity>> getMaterialActivityMap() {
         if (materialActivityMap == null) throw new IllegalStateException("View collections not initialized!");
-        return materialActivityMap;
+        return materialActivityMap.get();
     }
 
     /// Map<Product TypeID, Set<IndustryActivity producing product>>
     public Map<Integer, Set<IndustryActivity>> getProductActivityMap() {
         if (productActivityMap == null) throw new IllegalStateException("View collections not initialized!");
-        return productActivityMap;
+        return productActivityMap.get();
     }
 
     /// Map<Skill TypeID, Set<IndustryActivity using skill>>
     public Map<Integer, Set<IndustryActivity>> getSkillActivityMap() {
         if (skillActivityMap == null) throw new IllegalStateException("View collections not initialized!");
-        return skillActivityMap;
+        return skillActivityMap.get();
     }
 
     /// Map<Output TypeID, PlanetSchematic producing output>
     public Map<Integer, PlanetSchematic> getOutputSchematicMap() {
         if (outputSchematicMap == null) throw new IllegalStateException("View collections not initialized!");
-        return outputSchematicMap;
+        return outputSchematicMap.get();
     }
 
     /// Map<Input TypeID, Set<PlanetSchematic using input>>
     public Map<Integer, Set<PlanetSchematic>> getInputSchematicMap() {
         if (inputSchematicMap == null) throw new IllegalStateException("View collections not initialized!");
-        return inputSchematicMap;
+        return inputSchematicMap.get();
     }
 
     /// Map<Material TypeID, Set<TypeID yielding material>>
     public Map<Integer, Set<Integer>> getOreReprocessingMap() {
         if (oreReprocessingMap == null) throw new IllegalStateException("View collections not initialized!");
-        return oreReprocessingMap;
+        return oreReprocessingMap.get();
     }
 
     /// Map<MarketGroupID, Set<Type>>
     public Map<Integer, Set<Type>> getMarketGroupTypeMap() {
         if (marketGroupTypeMap == null) throw new IllegalStateException("View collections not initialized!");
-        return marketGroupTypeMap;
+        return marketGroupTypeMap.get();
     }
 
     /// Map<MarketGroupID, Set<MarketGroup>>
     public Map<Integer, Set<MarketGroup>> getMarketGroupChildMap() {
         if (marketGroupChildMap == null) throw new IllegalStateException("View collections not initialized!");
-        return marketGroupChildMap;
+        return marketGroupChildMap.get();
     }
 
     /// Map<RegionID, List<Constellation>>
     public Map<Integer, List<SolarSystem>> getConstellationSolarSystemMap() {
         if (constellationSolarSystems == null) throw new IllegalStateException("View collections not initialized!");
-        return constellationSolarSystems;
+        return constellationSolarSystems.get();
     }
 
     /// Map<RegionID, List<SolarSystem>>
     public Map<Integer, List<SolarSystem>> getRegionSolarSystemMap() {
         if (regionSolarSystems == null) throw new IllegalStateException("View collections not initialized!");
-        return regionSolarSystems;
+        return regionSolarSystems.get();
     }
 
     /// Map<RegionID, List<Constellation>>
     public Map<Integer, List<Constellation>> getRegionConstellationMap() {
         if (regionConstellations == null) throw new IllegalStateException("View collections not initialized!");
-        return regionConstellations;
+        return regionConstellations.get();
     }
 
     /// Map<skill TypeID, Map<Level, Set<TypeID requiring skill>>>
     public Map<Integer, Map<Integer, Set<Integer>>> getRequiresSkillMap() {
         if (requiresSkillMap == null) throw new IllegalStateException("View collections not initialized!");
-        return requiresSkillMap;
+        return requiresSkillMap.get();
     }
 
     // Map<TypeID, parent TypeID>
     public Map<Integer, Integer> getParentTypeMap() {
         if (parentTypeMap == null) throw new IllegalStateException("View collections not initialized!");
-        return parentTypeMap;
+        return parentTypeMap.get();
     }
 
     /*
      * Utility methods to allow usage as method reference, and setting the type of collection used in one place
      */
-    public <K, V> Map<K, V> produceMap() {
-        return new LinkedHashMap<>();
+    public <V> Map<Integer, V> produceMap() {
+        return new IntMap<>();
     }
 
-    public <K, V> Map<K, V> produceMap(Object ignored) {  // For use as a method reference
+    public <V> Map<Integer, V> produceMap(Object ignored) {  // For use as a method reference
         return produceMap();
     }
 
@@ -256,6 +259,35 @@ public abstract class SDEData {
         return produceSet();
     }
 
+    public Set<Integer> produceIntSet() {
+        return new IntSet();
+    }
+
+    public Set<Integer> produceIntSet(Object ignored) {
+        return produceIntSet();
+    }
+
+    /// @return Value of the type's attribute, or `defaultValue` if the type does not have the attribute; Does not box the value for {@link AttributeMap}s
+    public double getTypeAttribute(int typeID, int attributeID, double defaultValue) {
+        Map<Integer, Double> typeAttributes = getTypeAttributes().get(typeID);
+        if (typeAttributes instanceof AttributeMap attributeMap) {
+            return attributeMap.getDouble(attributeID, defaultValue);
+        } else if (typeAttributes != null) {
+            return typeAttributes.getOrDefault(attributeID, defaultValue);
+        } else {
+            return defaultValue;
+        }
+    }
+
+    /// Map of attributeID to attribute value, for {@link #getTypeAttributes()}
+    public Map<Integer, Double> produceAttributeMap() {
+        return new AttributeMap();
+    }
+
+    public Map<Integer, Double> produceAttributeMap(Object ignored) {
+        return produceAttributeMap();
+    }
+
     public <E> List<E> produceList() {
         return new ArrayList<>();
     }
@@ -265,129 +297,223 @@ public abstract class SDEData {
     }
 
     /// Initialize data views
+    ///
+    /// Views are computed from the data collections when first accessed, so the data collections must not be modified after this in ways that affect views.
+    /// Views may be accessed from multiple threads; Each view is computed once, and distinct views may be computed concurrently.
     protected void loadViews() {
-        categoryGroups = produceMap();
-        for (Group group : getGroups().values()) {
-            categoryGroups.computeIfAbsent(group.categoryID, this::produceSet).add(group);
-        }
-
-        groupTypes = produceMap();
-        marketGroupTypeMap = produceMap();
-        for (Type type : getTypes().values()) {
-            groupTypes.computeIfAbsent(type.groupID, this::produceSet).add(type);
-            if (type.marketGroupID != null) {
-                marketGroupTypeMap.computeIfAbsent(type.marketGroupID, this::produceSet).add(type);
+        categoryGroups = new View<>(() -> {
+            Map<Integer, Set<Group>> categoryGroups = produceMap();
+            for (Group group : getGroups().values()) {
+                categoryGroups.computeIfAbsent(group.categoryID, this::produceSet).add(group);
             }
-        }
+            return categoryGroups;
+        });
+
+        // The larger views are grouped in parallel; Grouping collectors merge partial maps in encounter order, so keys and values are in the same order as when grouped sequentially
+        groupTypes = new View<>(() -> getTypes().values()
+            .parallelStream()
+            .collect(Collectors.groupingBy(type -> type.groupID, this::produceMap, Collectors.toCollection(this::produceSet)))
+        );
+
+        marketGroupTypeMap = new View<>(() -> getTypes().values()
+            .parallelStream()
+            .filter(type -> type.marketGroupID != null)
+            .collect(Collectors.groupingBy(type -> type.marketGroupID, this::produceMap, Collectors.toCollection(this::produceSet)))
+        );
+
+        materialActivityMap = new View<>(() -> groupActivities(activity -> activity.materialMap.keySet()));
+
+        productActivityMap = new View<>(() -> groupActivities(activity -> activity.productMap.keySet()));
+
+        skillActivityMap = new View<>(() -> groupActivities(activity -> activity.skillMap.keySet()));
 
-        materialActivityMap = produceMap();
-        productActivityMap = produceMap();
-        skillActivityMap = produceMap();
-        for (Map<IndustryActivityType, IndustryActivity> activityMap : this.getBpActivities().values()) {
-            for (IndustryActivity activity : activityMap.values()) {
-                for (Integer materialID : activity.materialMap.keySet()) {
-                    materialActivityMap.computeIfAbsent(materialID, this::produceSet).add(activity);
+        outputSchematicMap = new View<>(() -> {
+            Map<Integer, PlanetSchematic> outputSchematicMap = produceMap();
+            for (PlanetSchematic schematic : this.getPlanetSchematics().values()) {
+                outputSchematicMap.put(schematic.outputTypeID, schematic);
+            }
+            return outputSchematicMap;
+        });
+
+        inputSchematicMap = new View<>(() -> {
+            Map<Integer, Set<PlanetSchematic>> inputSchematicMap = produceMap();
+            for (PlanetSchematic schematic : this.getPlanetSchematics().values()) {
+                for (Integer input : schematic.inputs.keySet()) {
+                    inputSchematicMap.computeIfAbsent(input, this::produceSet).add(schematic);
                 }
-                for (Integer productID : activity.productMap.keySet()) {
-                    productActivityMap.computeIfAbsent(productID, this::produceSet).add(activity);
+            }
+            return inputSchematicMap;
+        });
+
+        oreReprocessingMap = new View<>(() -> {
+            Map<Integer, Set<Integer>> oreReprocessingMap = produceMap();
+            for (Map.Entry<Integer, Map<Integer, Integer>> entry : getReprocessingMaterials().entrySet()) {
+                int source = entry.getKey();
+                if (getGroups().get(getTypes().get(source).groupID).categoryID == 25) {
+                    for (Integer materialID : entry.getValue().keySet()) {
+                        oreReprocessingMap.computeIfAbsent(materialID, this::produceIntSet).add(source);
+                    }
                 }
-                for (Integer skillID : activity.skillMap.keySet()) {
-                    skillActivityMap.computeIfAbsent(skillID, this::produceSet).add(activity);
+            }
+            return oreReprocessingMap;
+        });
+
+        marketGroupChildMap = new View<>(() -> {
+            Map<Integer, Set<MarketGroup>> marketGroupChildMap = produceMap();
+            for (MarketGroup marketGroup : this.getMarketGroups().values()) {
+                if (marketGroup.parentGroupID != null) {
+                    marketGroupChildMap.computeIfAbsent(marketGroup.parentGroupID, this::produceSet).add(marketGroup);
                 }
             }
-        }
+            return marketGroupChildMap;
+        });
 
-        outputSchematicMap = produceMap();
-        inputSchematicMap = produceMap();
-        for (PlanetSchematic schematic : this.getPlanetSchematics().values()) {
-            outputSchematicMap.put(schematic.outputTypeID, schematic);
-            for (Integer input : schematic.inputs.keySet()) {
-                inputSchematicMap.computeIfAbsent(input, this::produceSet).add(schematic);
+        constellationSolarSystems = new View<>(() -> {
+            Map<Integer, List<SolarSystem>> constellationSolarSystems = produceMap();
+            for (SolarSystem solarSystem : getSolarSystems().values()) {
+                constellationSolarSystems.computeIfAbsent(solarSystem.constellationID, this::produceList).add(solarSystem);
             }
-        }
+            return constellationSolarSystems;
+        });
 
-        oreReprocessingMap = produceMap();
-        for (Map.Entry<Integer, Map<Integer, Integer>> entry : getReprocessingMaterials().entrySet()) {
-            int source = entry.getKey();
-            if (getGroups().get(getTypes().get(source).groupID).categoryID == 25) {
-                for (Integer materialID : entry.getValue().keySet()) {
-                    oreReprocessingMap.computeIfAbsent(materialID, this::produceSet).add(source);
-                }
+        regionSolarSystems = new View<>(() -> {
+            Map<Integer, List<SolarSystem>> regionSolarSystems = produceMap();
+            for (SolarSystem solarSystem : getSolarSystems().values()) {
+                regionSolarSystems.computeIfAbsent(solarSystem.regionID, this::produceList).add(solarSystem);
             }
-        }
+            return regionSolarSystems;
+        });
 
+        regionConstellations = new View<>(() -> {
+            Map<Integer, List<Constellation>> regionConstellations = produceMap();
+            for (Constellation constellation : getConstellations().values()) {
+                regionConstellations.computeIfAbsent(constellation.regionID, this::produceList).add(constellation);
+            }
+            return regionConstellations;
+        });
+
+        record SkillRequirement(int skillTypeID, int level, int typeID) {}
+        requiresSkillMap = new View<>(() -> getTypeAttributes().entrySet()
+            .parallelStream()
+            .<SkillRequirement>mapMulti((entry, downstream) -> {
+                int typeID = entry.getKey();
+                Map<Integer, Double> typeAttributes = entry.getValue();
+                int[] skillAttributes = TypeSkills.SKILL_ATTRIBUTES;
+                for (int i = 0; i < skillAttributes.length; i++) {
+                    Double skillTypeID = typeAttributes.get(skillAttributes[i]);
+                    if (skillTypeID != null) {
+                        int level = (int) (double) typeAttributes.getOrDefault(TypeSkills.LEVEL_ATTRIBUTES[i], 1.0);
+                        downstream.accept(new SkillRequirement((int) (double) skillTypeID, level, typeID));
+                    }
+                }
+            })
+            .collect(Collectors.groupingBy(
+                SkillRequirement::skillTypeID,
+                this::produceMap,
+                Collectors.groupingBy(
+                    SkillRequirement::level,
+                    this::produceMap,
+                    Collectors.mapping(SkillRequirement::typeID, Collectors.toCollection(this::produceIntSet))
+                )
+            ))
+        );
 
-        marketGroupChildMap = produceMap();
-        for (MarketGroup marketGroup : this.getMarketGroups().values()) {
-            if (marketGroup.parentGroupID != null) {
-                marketGroupChildMap.computeIfAbsent(marketGroup.parentGroupID, this::produceSet).add(marketGroup);
+        parentTypeMap = new View<>(() -> {
+            Map<Integer, Integer> parentTypeMap = produceMap();
+            for (Set<Integer> variantSet : getVariants().values()) {
+                ArrayList<Integer> types = new ArrayList<>(variantSet);
+                types.sort(Type.idComparator(this));
+                Integer parent = Objects.requireNonNull(types.get(0));
+                for (Integer type : types) {
+                    parentTypeMap.put(type, parent);    // Intentionally setting the parent type's parent to itself, rather than null
+                }
             }
-        }
+            return parentTypeMap;
+        });
 
-        constellationSolarSystems = produceMap();
-        regionSolarSystems = produceMap();
-        for (SolarSystem solarSystem : getSolarSystems().values()) {
-            constellationSolarSystems.computeIfAbsent(solarSystem.constellationID, this::produceList).add(solarSystem);
-            regionSolarSystems.computeIfAbsent(solarSystem.regionID, this::produceList).add(solarSystem);
-        }
+        views = List.of(
+            categoryGroups, groupTypes, marketGroupTypeMap, materialActivityMap, productActivityMap, skillActivityMap, outputSchematicMap, inputSchematicMap,
+            oreReprocessingMap, marketGroupChildMap, constellationSolarSystems, regionSolarSystems, regionConstellations, requiresSkillMap, parentTypeMap
+        );
 
-        regionConstellations = produceMap();
-        for (Constellation constellation : getConstellations().values()) {
-            regionConstellations.computeIfAbsent(constellation.regionID, this::produceList).add(constellation);
+        // Loading is done; Release the spare capacity of attribute maps, as these make up the bulk of the data
+        for (Map<Integer, Double> typeAttributes : getTypeAttributes().values()) {
+            if (typeAttributes instanceof AttributeMap attributeMap) attributeMap.trimToSize();
         }
+        if (getTypes() instanceof IntMap<Type> typeMap) typeMap.trimToSize();
+    }
 
-        requiresSkillMap = produceMap();
-        for (Map.Entry<Integer, Map<Integer, Double>> entry : getTypeAttributes().entrySet()) {
-            int typeID = entry.getKey();
-            Map<Integer, Double> typeAttributes = entry.getValue();
-            int[] skillAttributes = TypeSkills.SKILL_ATTRIBUTES;
-            for (int i = 0; i < skillAttributes.length; i++) {
-                Double skillTypeID = typeAttributes.get(skillAttributes[i]);
-                if (skillTypeID != null) {
-                    int level = (int) (double) typeAttributes.getOrDefault(TypeSkills.LEVEL_ATTRIBUTES[i], 1.0);
-                    requiresSkillMap.computeIfAbsent((int) (double) skillTypeID, this::produceMap).computeIfAbsent(level, this::produceSet).add(typeID);
-                }
-            }
+    /// Computes all views that have not yet been accessed, concurrently
+    ///
+    /// Views are otherwise computed one at a time as pages first access them; Computing them up front keeps page rendering threads from waiting on a view another thread is computing.
+    public void computeViews() {
+        views.parallelStream().forEach(View::get);
+    }
+
+    /// Groups all industry activities by each of the TypeIDs selected from them, in parallel
+    private Map<Integer, Set<IndustryActivity>> groupActivities(Function<IndustryActivity, Set<Integer>> typeIDs) {
+        return getBpActivities().values()
+            .parallelStream()
+            .flatMap(activityMap -> activityMap.values().stream())
+            .flatMap(activity -> typeIDs.apply(activity).stream().map(typeID -> Map.entry(typeID, activity)))
+            .collect(Collectors.groupingBy(
+                Map.Entry::getKey,
+                this::produceMap,
+                Collectors.mapping(Map.Entry::getValue, Collectors.toCollection(this::produceSet))
+            ));
+    }
+
+    /// View collection, computed on first access
+    private static final class View<T> {
+        private final Supplier<T> supplier;
+        private volatile @Nullable T value;
+
+        View(Supplier<T> supplier) {
+            this.supplier = supplier;
         }
 
-        parentTypeMap = produceMap();
-        for (Set<Integer> variantSet : getVariants().values()) {
-            ArrayList<Integer> types = new ArrayList<>(variantSet);
-            types.sort(Type.idComparator(this));
-            Integer parent = Objects.requireNonNull(types.get(0));
-            for (Integer type : types) {
-                parentTypeMap.put(type, parent);    // Intentionally setting the parent type's parent to itself, rather than null
+        T get() {
+            T value = this.value;
+            if (value == null) {
+                synchronized (this) {
+                    value = this.value;
+                    if (value == null) this.value = value = supplier.get();
+                }
             }
+            return value;
         }
     }
 
-
-    private HTML formatDuration(double duration, TimeUnit timeUnit) {
+    private static String formatDuration(double duration, TimeUnit timeUnit) {
         if (Double.isNaN(duration)) {
-            return HTML.TEXT("???");
+            return "???";
         } else {
             // convert to seconds, as Double
             double multiplier = ((double) timeUnit.toNanos(1)) / ((double) TimeUnit.SECONDS.toNanos(1));
 
-            long durationLong = Math.round(duration * multiplier);
-            if (durationLong < 60) {
-                return HTML.TEXT(String.format("%2ds", durationLong));
-            } else if (durationLong < 60 * 60) {
-                return HTML.TEXT(String.format("%2dm %2ds", durationLong / 60, durationLong % 60));
-            } else if (durationLong < 60 * 60 * 24) {
-                return HTML.TEXT(String.format("%2dh %2dm %2ds", durationLong / (60 * 60), durationLong % (60 * 60) / 60, durationLong % 60));
-            } else if (durationLong < 60.0 * 60.0 * 24.0 * 30.0) {
-                return HTML.TEXT(String.format("%2dd", durationLong / (60 * 60 * 24)) + " " + String.format("%2dh %2dm %2ds", durationLong % (60 * 60 * 24) / (60 * 60), durationLong % (60 * 60) / 60, durationLong % 60));
-            } else if (durationLong < 60.0 * 60.0 * 24.0 * 365.0) {
-                return HTML.TEXT(String.format("%2dm", durationLong / (60 * 60 * 24 * 30)) + " " + String.format("%2dd", durationLong % (60 * 60 * 24 * 30) / (60 * 60 * 24)) + " " + String.format("%2dh %2dm %2ds", durationLong % (60 * 60 * 24) / (60 * 60), durationLong % (60 * 60) / 60, durationLong % 60));
-            } else {
-                return HTML.TEXT(String.format("%2dy", durationLong / (60 * 60 * 24 * 365)) + " " + String.format("%2dm", durationLong % (60 * 60 * 24 * 365) / (60 * 60 * 24 * 30)) + " " + String.format("%2dd", durationLong % (60 * 60 * 24 * 30) / (60 * 60 * 24)) + " " + String.format("%2dh %2dm %2ds", durationLong % (60 * 60 * 24) / (60 * 60), durationLong % (60 * 60) / 60, durationLong % 60));
-            }
+            return ValueFormatter.formatDuration(Math.round(duration * multiplier));
         }
     }
 
+    /// Formats a number followed by a unit suffix
+    private static String formatNumber(double value, String suffix) {
+        return ValueFormatter.appendNumber(new StringBuilder(16), value).append(suffix).toString();
+    }
+
+    /// @return Number of calls to {@link #format_with_unit} that were served from the cache
+    public long getFormatCacheHits() {
+        return formatCacheHits.sum();
+    }
+
+    /// @return Number of calls to {@link #format_with_unit} that formatted a value not in the cache
+    public long getFormatCacheMisses() {
+        return formatCacheMisses.sum();
+    }
+
     /**
      * Formats a value into a String with a given unit
+     * <br>
+     * Formatted values other than links are cached, and the returned HTML may be shared between pages
      *
      * @param value  Value to format
      * @param unitID UnitID of the unit to format the value with
@@ -396,197 +522,221 @@ public abstract class SDEData {
     public HTML format_with_unit(double value, @Nullable Integer unitID) {
         if (unitID == null) unitID = -1;
 
-        return HTML.SPAN("no_break")
-            .content(switch (unitID) {
-                case -5:    // Mining yield (m³/s)
-                    yield HTML.TEXT(decimalFormat.format(value) + " m³/s");
-                case -4:    // Health sustain (HP/s)
-                    yield HTML.TEXT(decimalFormat.format(value) + " HP/s");
-                case -3:    // Capacitor sustain (GJ/s)
-                    yield HTML.TEXT(decimalFormat.format(value) + " GJ/s");
-                case -2:    // Datetime (unix)
-                    yield HTML.TEXT(dateFormat.format(new Date(((long) value) * 1000)) + " (EVE)");
-                case -1:    // No unit
-                    yield HTML.TEXT(decimalFormat.format(value));
-                case 1:     // Metre
-                    if (value > 1000.0) {
-                        yield HTML.TEXT(decimalFormat.format(value / 1000.0) + " km");
-                    } else {
-                        yield HTML.TEXT(decimalFormat.format(value) + " m");
-                    }
-                case 2:     // Kilogram
-                    yield HTML.TEXT(decimalFormat.format(value) + " kg");
-                case 101:   // Milliseconds
-                    value = value / 1000.0;
-                case 3:     // Seconds
-                    yield formatDuration(value, TimeUnit.SECONDS);
-                case 4:     // Ampere
-                    yield HTML.TEXT(decimalFormat.format(value) + " A");
-                case 5:     // Kelvin
-                    yield HTML.TEXT(decimalFormat.format(value) + " K");
-                case 6:     // Mole
-                    yield HTML.TEXT(decimalFormat.format(value) + " mol");
-                case 7:     // Candela
-                    yield HTML.TEXT(decimalFormat.format(value) + " cd");
-                case 8:     // Square metre
-                    yield HTML.TEXT(decimalFormat.format(value) + " m²");
-                case 9:     // Cubic metre
-                    yield HTML.TEXT(decimalFormat.format(value) + " m³");
-                case 10:    // Metres per second
-                    yield HTML.TEXT(decimalFormat.format(value) + " m/s");
-                case 11:    // Metres per second squared; Displayed as metres-per-second for :legacy code: reasons
-                    yield HTML.TEXT(decimalFormat.format(value) + " m/s");
-                case 12:    // Wave number / Reciprocal metre
-                    yield HTML.TEXT(decimalFormat.format(value) + " m⁻¹");
-                case 13:    // Kilogram per cubic metre
-                    yield HTML.TEXT(decimalFormat.format(value) + " kg/m³");
-                case 14:    // Cubic metre per kilogram
-                    yield HTML.TEXT(decimalFormat.format(value) + " m³/kg");
-                case 15:    // Ampere per square meter
-                    yield HTML.TEXT(decimalFormat.format(value) + " A/m²");
-                case 16:    // Ampere per meter
-                    yield HTML.TEXT(decimalFormat.format(value) + " A/m");
-                case 17:    // Mole per cubic meter
-                    yield HTML.TEXT(decimalFormat.format(value) + " m/m³");
-                case 18:    // Candela per square meter
-                    yield HTML.TEXT(decimalFormat.format(value) + " cd/m²");
-                case 19:    // Mass fraction / Kilogram per Kilogram
-                    yield HTML.TEXT(decimalFormat.format(value));
-                    // No units 20 to 100
-                    // 101 merged with 3 for durations
-                case 102:    // Millimetre
-                    yield HTML.TEXT(decimalFormat.format(value) + " mm");
-                case 103:   // MegaPascal
-                    yield HTML.TEXT(decimalFormat.format(value) + " MPa");
-                case 104:   // Multiplier
-                    yield HTML.TEXT(decimalFormat.format(value) + "×");
-                case 105:   // Percentage
-                    yield HTML.TEXT(decimalFormat.format(value) + "%");
-                case 106:   // Teraflops
-                    yield HTML.TEXT(decimalFormat.format(value) + " tf");  // Game convention breaks with formal unit
-                case 107:   // Megawatt
-                    yield HTML.TEXT(decimalFormat.format(value) + " MW");
-                case 108:   // Inverse Absolute Percent
-                    yield HTML.TEXT(Math.round((1 - value) * 100) + "%");
-                case 109:   // Modifier Percent
-                    yield HTML.TEXT((Math.round((value - 1) * 100) > 0 ? "+" + Math.round((value - 1) * 100) : Math.round((value - 1) * 100)) + "%");
-                    // No unit 110
-                case 111:   // Inversed Modifier Percent
-                    yield HTML.TEXT(Math.round((1 - value) * 100) + "%");
-                case 112:   // Radians per second
-                    yield HTML.TEXT(decimalFormat.format(value) + " rad/s");
-                case 113:   // Hitpoints
-                    yield HTML.TEXT(decimalFormat.format(value) + " HP");
-                case 114:   // Gigajoule
-                    yield HTML.TEXT(decimalFormat.format(value) + " GJ");
-                case 115:   // "groupID"
-                    Map<Integer, Group> groupMap = getGroups();
-                    if (groupMap.containsKey((int) value)) {
-                        yield new PageLink(new GroupPage(groupMap.get((int) value)));
-                    } else {
-                        throw new RuntimeException("Reference to unknown group: " + value);
-                    }
-                case 116:   // "typeID"
-                    Map<Integer, Type> typeMap = getTypes();
-                    if (typeMap.containsKey((int) value)) {
-                        yield new PageLink(new TypePage(typeMap.get((int) value)));
-                    } else {
-                        throw new RuntimeException("Reference to unknown item: " + value);
-                    }
-                case 117:   // Size class
-                    if (value == 0.0) {
-                        yield HTML.TEXT("X-Small");
-                    } else if (value == 1.0) {
-                        yield HTML.TEXT("Small");
-                    } else if (value == 2.0) {
-                        yield HTML.TEXT("Medium");
-                    } else if (value == 3.0) {
-                        yield HTML.TEXT("Large");
-                    } else if (value == 4.0) {
-                        yield HTML.TEXT("X-Large");
-                    } else {
-                        throw new RuntimeException("Invalid size class: " + value);
-                    }
-                case 118:   // Ore units
-                    throw new RuntimeException("Unsupported unit: Ore Units");
-                case 119:   // "attributeID"
-                    throw new RuntimeException("Unsupported unit: attribute ID");   // Exception to find usage
-                case 120:   // "attributePoints"
-                    yield HTML.TEXT(decimalFormat.format(value) + (value == 1.0 ? " point" : " points"));
-                case 121:   // Real percentage "Used for real percentages, i.e. the number 5 is 5%"
-                    yield HTML.TEXT(decimalFormat.format(value) + "%");
-                case 122:   // Fitting slots
-                    yield HTML.TEXT(decimalFormat.format(value) + (value == 1.0 ? " slot" : " slots"));
-                case 123:   // Seconds (No time formatting)
-                    yield HTML.TEXT(decimalFormat.format(value) + "s");
-                case 124:   // Modifier Relative Percent "Used for relative percentages displayed as %"
-                    yield HTML.TEXT(decimalFormat.format(value) + "%");
-                case 125:   // Newton
-                    yield HTML.TEXT(decimalFormat.format(value) + " N");
-                case 126:   // Light-year
-                    yield HTML.TEXT(decimalFormat.format(value) + " ly");
-                case 127:   // Absolute Percent	"0.0 = 0% 1.0 = 100%"
-                    yield HTML.TEXT(decimalFormat.format(value * 100) + "%");
-                case 128:   // Drone bandwidth
-                    yield HTML.TEXT(decimalFormat.format(value) + " Mbit/s");
-                case 129:   // Hours
-                    yield formatDuration(value, TimeUnit.HOURS);
-                // No units 130-132
-                case 133:   // "Money"	"ISK"	"ISK"
-                    yield HTML.TEXT(decimalFormat.format(value) + " ISK");
-                case 134:   // Logistical capacity
-                    yield HTML.TEXT(decimalFormat.format(value) + " m³/hr");
-                case 135:   // Astronomical Unit
-                    yield HTML.TEXT(decimalFormat.format(value) + " m³/hr");
-                case 136:   // Slot    "Slot number prefix for various purposes"
-                    yield HTML.TEXT("Slot " + decimalFormat.format(value));
-                case 137:   // Boolean	"1=True 0=False"
-                    if (value == 1.0) {
-                        yield HTML.TEXT("True");
-                    } else if (value == 0.0) {
-                        yield HTML.TEXT("False");
-                    } else {
-                        throw new RuntimeException("Invalid boolean: " + value);
-                    }
-                case 138:   // Units	"Units of something, for example fuel"
-                    yield HTML.TEXT(decimalFormat.format(value) + (value == 1.0 ? " unit" : " units"));
-                case 139:   // Bonus	"Forces a plus sign for positive values"
-                    if (value > 0) {
-                        yield HTML.TEXT("+" + decimalFormat.format(value));
-                    } else {
-                        yield HTML.TEXT(decimalFormat.format(value));
-                    }
-                case 140:   // Level	"Level"	"For anything which is divided by levels"
-                    yield HTML.TEXT("Level " + decimalFormat.format(value));
-                case 141:   // Hardpoints	"For various counts to do with turret, launcher and rig hardpoints"
-                    yield HTML.TEXT(decimalFormat.format(value) + (value == 1.0 ? " hardpoint" : " hardpoints"));
-                case 142:   // Sex	"1=Male 2=Unisex 3=Female"
-                    if (value == 1.0) {
-                        yield HTML.TEXT("Male");
-                    } else if (value == 2.0) {
-                        yield HTML.TEXT("Unisex");
-                    } else if (value == 3.0) {
-                        yield HTML.TEXT("Female");
-                    } else {
-                        throw new RuntimeException("Invalid sex: " + value);
-                    }
-                case 143:   // Datetime	"Date and time"
-                    long unix_timestamp = (long) (value * 86400.0);
-                    yield HTML.TEXT(dateFormat.format(new Date(unix_timestamp * 1000)) + " (EVE)");
-                case 144:   // Astronomical Unit per second
-                    yield HTML.TEXT(decimalFormat.format(value) + " AU/s");
-                    // No unit 145-204
-                case 205:   // Modifier real percentage
-                    if (value > 0) {
-                        yield HTML.TEXT("+" + decimalFormat.format(value) + "%");
-                    } else {
-                        yield HTML.TEXT(decimalFormat.format(value) + "%");
-                    }
-                default:
-                    throw new IllegalArgumentException("Unknown unit: " + unitID);
-            });
+        if (unitID == 115 || unitID == 116) {   // Links are rendered relative to the page, and so are not cached
+            return HTML.SPAN("no_break").content(formatReference(value, unitID));
+        }
+
+        FormatKey key = new FormatKey(Double.doubleToRawLongBits(value), unitID);
+        HTML formatted = formatCache.get(key);
+        if (formatted != null) {
+            formatCacheHits.increment();
+        } else {
+            formatCacheMisses.increment();
+            formatted = PrerenderedHTML.of("<span class='no_break'>" + HTMLUtil.escapeText(formatText(value, unitID)) + "</span>");
+            if (formatCache.size() < FORMAT_CACHE_SIZE) formatCache.putIfAbsent(key, formatted);
+        }
+        return formatted;
+    }
+
+    private HTML formatReference(double value, int unitID) {
+        return switch (unitID) {
+            case 115:   // "groupID"
+                Map<Integer, Group> groupMap = getGroups();
+                if (groupMap.containsKey((int) value)) {
+                    yield new PageLink(new GroupPage(groupMap.get((int) value)));
+                } else {
+                    throw new RuntimeException("Reference to unknown group: " + value);
+                }
+            case 116:   // "typeID"
+                Map<Integer, Type> typeMap = getTypes();
+                if (typeMap.containsKey((int) value)) {
+                    yield new PageLink(new TypePage(typeMap.get((int) value)));
+                } else {
+                    throw new RuntimeException("Reference to unknown item: " + value);
+                }
+            default:
+                throw new IllegalArgumentException("Not a reference unit: " + unitID);
+        };
     }
 
+    private String formatText(double value, int unitID) {
+        return switch (unitID) {
+            case -5:    // Mining yield (m³/s)
+                yield formatNumber(value, " m³/s");
+            case -4:    // Health sustain (HP/s)
+                yield formatNumber(value, " HP/s");
+            case -3:    // Capacitor sustain (GJ/s)
+                yield formatNumber(value, " GJ/s");
+            case -2:    // Datetime (unix)
+                yield ValueFormatter.formatDate((long) value) + " (EVE)";
+            case -1:    // No unit
+                yield ValueFormatter.formatNumber(value);
+            case 1:     // Metre
+                if (value > 1000.0) {
+                    yield formatNumber(value / 1000.0, " km");
+                } else {
+                    yield formatNumber(value, " m");
+                }
+            case 2:     // Kilogram
+                yield formatNumber(value, " kg");
+            case 101:   // Milliseconds
+                value = value / 1000.0;
+            case 3:     // Seconds
+                yield formatDuration(value, TimeUnit.SECONDS);
+            case 4:     // Ampere
+                yield formatNumber(value, " A");
+            case 5:     // Kelvin
+                yield formatNumber(value, " K");
+            case 6:     // Mole
+                yield formatNumber(value, " mol");
+            case 7:     // Candela
+                yield formatNumber(value, " cd");
+            case 8:     // Square metre
+                yield formatNumber(value, " m²");
+            case 9:     // Cubic metre
+                yield formatNumber(value, " m³");
+            case 10:    // Metres per second
+                yield formatNumber(value, " m/s");
+            case 11:    // Metres per second squared; Displayed as metres-per-second for :legacy code: reasons
+                yield formatNumber(value, " m/s");
+            case 12:    // Wave number / Reciprocal metre
+                yield formatNumber(value, " m⁻¹");
+            case 13:    // Kilogram per cubic metre
+                yield formatNumber(value, " kg/m³");
+            case 14:    // Cubic metre per kilogram
+                yield formatNumber(value, " m³/kg");
+            case 15:    // Ampere per square meter
+                yield formatNumber(value, " A/m²");
+            case 16:    // Ampere per meter
+                yield formatNumber(value, " A/m");
+            case 17:    // Mole per cubic meter
+                yield formatNumber(value, " m/m³");
+            case 18:    // Candela per square meter
+                yield formatNumber(value, " cd/m²");
+            case 19:    // Mass fraction / Kilogram per Kilogram
+                yield ValueFormatter.formatNumber(value);
+                // No units 20 to 100
+                // 101 merged with 3 for durations
+            case 102:    // Millimetre
+                yield formatNumber(value, " mm");
+            case 103:   // MegaPascal
+                yield formatNumber(value, " MPa");
+            case 104:   // Multiplier
+                yield formatNumber(value, "×");
+            case 105:   // Percentage
+                yield formatNumber(value, "%");
+            case 106:   // Teraflops
+                yield formatNumber(value, " tf");  // Game convention breaks with formal unit
+            case 107:   // Megawatt
+                yield formatNumber(value, " MW");
+            case 108:   // Inverse Absolute Percent
+                yield Math.round((1 - value) * 100) + "%";
+            case 109:   // Modifier Percent
+                yield (Math.round((value - 1) * 100) > 0 ? "+" + Math.round((value - 1) * 100) : Math.round((value - 1) * 100)) + "%";
+                // No unit 110
+            case 111:   // Inversed Modifier Percent
+                yield Math.round((1 - value) * 100) + "%";
+            case 112:   // Radians per second
+                yield formatNumber(value, " rad/s");
+            case 113:   // Hitpoints
+                yield formatNumber(value, " HP");
+            case 114:   // Gigajoule
+                yield formatNumber(value, " GJ");
+            case 117:   // Size class
+                if (value == 0.0) {
+                    yield "X-Small";
+                } else if (value == 1.0) {
+                    yield "Small";
+                } else if (value == 2.0) {
+                    yield "Medium";
+                } else if (value == 3.0) {
+                    yield "Large";
+                } else if (value == 4.0) {
+                    yield "X-Large";
+                } else {
+                    throw new RuntimeException("Invalid size class: " + value);
+                }
+            case 118:   // Ore units
+                throw new RuntimeException("Unsupported unit: Ore Units");
+            case 119:   // "attributeID"
+                throw new RuntimeException("Unsupported unit: attribute ID");   // Exception to find usage
+            case 120:   // "attributePoints"
+                yield ValueFormatter.formatNumber(value) + (value == 1.0 ? " point" : " points");
+            case 121:   // Real percentage "Used for real percentages, i.e. the number 5 is 5%"
+                yield formatNumber(value, "%");
+            case 122:   // Fitting slots
+                yield ValueFormatter.formatNumber(value) + (value == 1.0 ? " slot" : " slots");
+            case 123:   // Seconds (No time formatting)
+                yield formatNumber(value, "s");
+            case 124:   // Modifier Relative Percent "Used for relative percentages displayed as %"
+                yield formatNumber(value, "%");
+            case 125:   // Newton
+                yield formatNumber(value, " N");
+            case 126:   // Light-year
+                yield formatNumber(value, " ly");
+            case 127:   // Absolute Percent	"0.0 = 0% 1.0 = 100%"
+                yield formatNumber(value * 100, "%");
+            case 128:   // Drone bandwidth
+                yield formatNumber(value, " Mbit/s");
+            case 129:   // Hours
+                yield formatDuration(value, TimeUnit.HOURS);
+            // No units 130-132
+            case 133:   // "Money"	"ISK"	"ISK"
+                yield formatNumber(value, " ISK");
+            case 134:   // Logistical capacity
+                yield formatNumber(value, " m³/hr");
+            case 135:   // Astronomical Unit
+                yield formatNumber(value, " m³/hr");
+            case 136:   // Slot    "Slot number prefix for various purposes"
+                yield "Slot " + ValueFormatter.formatNumber(value);
+            case 137:   // Boolean	"1=True 0=False"
+                if (value == 1.0) {
+                    yield "True";
+                } else if (value == 0.0) {
+                    yield "False";
+                } else {
+                    throw new RuntimeException("Invalid boolean: " + value);
+                }
+            case 138:   // Units	"Units of something, for example fuel"
+                yield ValueFormatter.formatNumber(value) + (value == 1.0 ? " unit" : " units");
+            case 139:   // Bonus	"Forces a plus sign for positive values"
+                if (value > 0) {
+                    yield "+" + ValueFormatter.formatNumber(value);
+                } else {
+                    yield ValueFormatter.formatNumber(value);
+                }
+            case 140:   // Level	"Level"	"For anything which is divided by levels"
+                yield "Level " + ValueFormatter.formatNumber(value);
+            case 141:   // Hardpoints	"For various counts to do with turret, launcher and rig hardpoints"
+                yield ValueFormatter.formatNumber(value) + (value == 1.0 ? " hardpoint" : " hardpoints");
+            case 142:   // Sex	"1=Male 2=Unisex 3=Female"
+                if (value == 1.0) {
+                    yield "Male";
+                } else if (value == 2.0) {
+                    yield "Unisex";
+                } else if (value == 3.0) {
+                    yield "Female";
+                } else {
+                    throw new RuntimeException("Invalid sex: " + value);
+                }
+            case 143:   // Datetime	"Date and time"
+                long unix_timestamp = (long) (value * 86400.0);
+                yield ValueFormatter.formatDate(unix_timestamp) + " (EVE)";
+            case 144:   // Astronomical Unit per second
+                yield formatNumber(value, " AU/s");
+                // No unit 145-204
+            case 205:   // Modifier real percentage
+                if (value > 0) {
+                    yield "+" + ValueFormatter.formatNumber(value) + "%";
+                } else {
+                    yield formatNumber(value, "%");
+                }
+            default:
+                throw new IllegalArgumentException("Unknown unit: " + unitID);
+        };
+    }
+
+
     protected void patch() {
         Set<Integer> publishCategories = Set.of();
         HashSet<Integer> publishCategoriesAndChildren = new HashSet<>();
@@ -740,7 +890,7 @@ public abstract class SDEData {
             .stream()
             .map(type -> type.marketGroupID)
             .filter(Objects::nonNull)
-            .collect(Collectors.toCollection(this::produceSet));
+            .collect(Collectors.toCollection(this::produceIntSet));
 
         // New collection as we modify validMarketGroups in this iteration
         for (Integer marketGroupID : new ArrayList<>(validMarketGroups)) {
@@ -806,7 +956,7 @@ public abstract class SDEData {
         }
 
         // Special cased as neither type has a variant set already
-        Set<Integer> researchLabVariants = produceSet();
+        Set<Integer> researchLabVariants = produceIntSet();
         researchLabVariants.add(35891);
         researchLabVariants.add(45550);
         typeVariants.put(35891, researchLabVariants);
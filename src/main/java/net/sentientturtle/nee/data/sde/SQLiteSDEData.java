@@ -163,7 +163,7 @@ public class SQLiteSDEData extends SDEData {
         st = connection.prepare("SELECT typeID, attributeID, valueFloat, valueInt FROM dgmTypeAttributes");
         while (st.step()) {
             assert !st.columnNull(0) && !st.columnNull(1) && !(st.columnNull(2) && st.columnNull(3));
-            typeAttributes.computeIfAbsent(st.columnInt(0), this::produceMap)
+            typeAttributes.computeIfAbsent(st.columnInt(0), this::produceAttributeMap)
                             .put(st.columnInt(1), st.columnNull(2) ? st.columnDouble(3) : st.columnDouble(2));
         }
         st.dispose();
@@ -172,7 +172,7 @@ public class SQLiteSDEData extends SDEData {
         st = connection.prepare("SELECT typeID, effectID FROM dgmTypeEffects");
         while (st.step()) {
             assert !st.columnNull(0) && !st.columnNull(1);
-            typeEffects.computeIfAbsent(st.columnInt(0), this::produceSet).add(st.columnInt(1));
+            typeEffects.computeIfAbsent(st.columnInt(0), this::produceIntSet).add(st.columnInt(1));
         }
 
         attributes = this.produceMap();
@@ -378,12 +378,12 @@ public class SQLiteSDEData extends SDEData {
             int metaGroupID = st.columnInt(2);
 
             if (parentTypeID != null) {
-                Set<Integer> parentVariants = variants.computeIfAbsent(parentTypeID, this::produceSet);
+                Set<Integer> parentVariants = variants.computeIfAbsent(parentTypeID, this::produceIntSet);
                 parentVariants.add(parentTypeID);
                 parentVariants.add(typeID);
                 variants.put(typeID, parentVariants);
             } else {
-                variants.computeIfAbsent(typeID, this::produceSet).add(typeID);
+                variants.computeIfAbsent(typeID, this::produceIntSet).add(typeID);
             }
             metaTypes.put(typeID, metaGroupID);
         }
@@ -529,8 +529,8 @@ public class SQLiteSDEData extends SDEData {
             assert !st.columnNull(0) && !st.columnNull(1) && !st.columnNull(2) && !st.columnNull(3) && !st.columnNull(4) && !st.columnNull(5);
             int from = st.columnInt(0);
             int to = st.columnInt(1);
-            outJumps.computeIfAbsent(from, this::produceSet).add(to);
-            inJumps.computeIfAbsent(from, this::produceSet).add(from);
+            outJumps.computeIfAbsent(from, this::produceIntSet).add(to);
+            inJumps.computeIfAbsent(from, this::produceIntSet).add(from);
         }
         st.dispose();
 
@@ -0,0 +1,633 @@
+package net.sentientturtle.nee.data.sde;
+
+import net.sentientturtle.nee.data.datatypes.*;
+import org.jspecify.annotations.Nullable;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Function;
+
+/// SDE data read from a binary snapshot of another {@link SDEData}, skipping the parsing of the original data source
+///
+/// Snapshots are written after the source data has been loaded and patched, and are read back without patching.
+/// Each snapshot is tagged with a key describing the data it was written from, see {@link #read(Path, String)}
+///
+/// The snapshot consists of a header, followed by each collection in the order of the getters of {@link SDEData}.
+/// Collections are written in iteration order, so the loaded collections iterate in the same order as those of the original data.
+/// Variant sets shared between types are written once, and remain shared when read.
+public class SnapshotSDEData extends SDEData {
+    private static final int MAGIC = 0x4E454553;    // "NEES"
+    /// Version of the snapshot format; Must be incremented whenever the format or any of the written data types change
+    private static final int VERSION = 2;
+
+    private final Map<Integer, Category> categories;
+    private final Map<Integer, Group> groups;
+    private final Map<Integer, Type> types;
+    private final Map<Integer, TypeTraits> typeTraits;
+    private final Map<Integer, Attribute> attributes;
+    private final Map<Integer, Map<Integer, Double>> typeAttributes;
+    private final Map<Integer, Effect> effects;
+    private final Map<Integer, Set<Integer>> typeEffects;
+    private final Map<Integer, String> eveIcons;
+    private final Map<Integer, EnumMap<IndustryActivityType, IndustryActivity>> bpActivities;
+    private final Map<Integer, Map<Integer, Integer>> reprocessingMaterials;
+    private final Map<Integer, PlanetSchematic> planetSchematics;
+    private final Map<Integer, MetaGroup> metaGroups;
+    private final Map<Integer, Set<Integer>> variants;
+    private final Map<Integer, Integer> metaTypes;
+    private final Map<Integer, SolarSystem> solarSystems;
+    private final Map<Integer, Constellation> constellations;
+    private final Map<Integer, Region> regions;
+    private final Map<Integer, Set<Integer>> outJumps;
+    private final Map<Integer, Set<Integer>> inJumps;
+    private final Map<Integer, Set<Celestial>> celestials;
+    private final Map<Integer, Set<Station>> stations;
+    private final Map<Integer, Faction> factions;
+    private final Map<Integer, MarketGroup> marketGroups;
+
+    /// Reads the snapshot, positioned after the header
+    private SnapshotSDEData(ByteBuffer in) {
+        this.categories = readMap(in, _ -> new Category(in.getInt(), readString(in), readInteger(in), readBoolean(in)));
+        this.groups = readMap(in, _ -> new Group(in.getInt(), in.getInt(), readString(in), readInteger(in), readBoolean(in)));
+        this.types = readMap(in, _ -> new Type(
+            in.getInt(),
+            in.getInt(),
+            readString(in),
+            readString(in),
+            in.getDouble(),
+            in.getDouble(),
+            in.getDouble(),
+            readBoolean(in),
+            readInteger(in),
+            readInteger(in),
+            readInteger(in)
+        ));
+        this.typeTraits = readMap(in, _ -> new TypeTraits(
+            readBonuses(in),
+            readBonuses(in),
+            readMap(in, _ -> readBonuses(in))
+        ));
+        this.attributes = readMap(in, _ -> new Attribute(
+            in.getInt(),
+            readInteger(in),
+            readString(in),
+            readString(in),
+            readInteger(in),
+            readInteger(in),
+            readBoolean(in),
+            readBoolean(in)
+        ));
+        this.typeAttributes = readMap(in, _ -> {
+            int size = in.getInt();
+            Map<Integer, Double> attributeMap = produceAttributeMap();
+            for (int i = 0; i < size; i++) {
+                attributeMap.put(in.getInt(), in.getDouble());
+            }
+            return attributeMap;
+        });
+        this.effects = readMap(in, _ -> new Effect(in.getInt(), readString(in)));
+        this.typeEffects = readMap(in, _ -> readIntSet(in));
+        this.eveIcons = readMap(in, _ -> readString(in));
+        this.bpActivities = readMap(in, _ -> {
+            int size = in.getInt();
+            EnumMap<IndustryActivityType, IndustryActivity> activities = new EnumMap<>(IndustryActivityType.class);
+            for (int i = 0; i < size; i++) {
+                IndustryActivity activity = new IndustryActivity(
+                    in.getInt(),
+                    IndustryActivityType.values()[in.getInt()],
+                    in.getInt(),
+                    readMap(in, _ -> in.getInt()),
+                    readMap(in, _ -> in.getInt()),
+                    readMap(in, _ -> in.getDouble()),
+                    readMap(in, _ -> in.getInt())
+                );
+                activities.put(activity.activityType, activity);
+            }
+            return activities;
+        });
+        this.reprocessingMaterials = readMap(in, _ -> readMap(in, _ -> in.getInt()));
+        this.planetSchematics = readMap(in, _ -> new PlanetSchematic(in.getInt(), in.getInt(), in.getInt(), in.getInt(), readMap(in, _ -> in.getInt())));
+        this.metaGroups = readMap(in, _ -> new MetaGroup(in.getInt(), readString(in)));
+
+        List<Set<Integer>> variantSets = new ArrayList<>();
+        int variantSetCount = in.getInt();
+        for (int i = 0; i < variantSetCount; i++) {
+            variantSets.add(readIntSet(in));
+        }
+        this.variants = readMap(in, _ -> variantSets.get(in.getInt()));
+
+        this.metaTypes = readMap(in, _ -> in.getInt());
+        this.solarSystems = readMap(in, _ -> new SolarSystem(
+            in.getInt(),
+            in.getInt(),
+            in.getInt(),
+            readString(in),
+            in.getDouble(),
+            in.getDouble(),
+            in.getDouble(),
+            in.getDouble(),
+            readInteger(in),
+            readInteger(in),
+            readInteger(in)
+        ));
+        this.constellations = readMap(in, _ -> new Constellation(
+            in.getInt(),
+            in.getInt(),
+            readString(in),
+            in.getDouble(),
+            in.getDouble(),
+            in.getDouble(),
+            in.getDouble(),
+            in.getDouble(),
+            in.getDouble(),
+            in.getDouble(),
+            in.getDouble(),
+            in.getDouble(),
+            readInteger(in),
+            readInteger(in)
+        ));
+        this.regions = readMap(in, _ -> new Region(
+            in.getInt(),
+            readString(in),
+            in.getDouble(),
+            in.getDouble(),
+            in.getDouble(),
+            in.getDouble(),
+            in.getDouble(),
+            in.getDouble(),
+            in.getDouble(),
+            in.getDouble(),
+            in.getDouble(),
+            readInteger(in),
+            readInteger(in)
+        ));
+        this.outJumps = readMap(in, _ -> readIntSet(in));
+        this.inJumps = readMap(in, _ -> readIntSet(in));
+        this.celestials = readMap(in, _ -> {
+            int size = in.getInt();
+            Set<Celestial> systemCelestials = produceSet();
+            for (int i = 0; i < size; i++) {
+                systemCelestials.add(new Celestial(in.getInt(), in.getInt(), in.getInt(), readString(in), readInteger(in), readInteger(in)));
+            }
+            return systemCelestials;
+        });
+        this.stations = readMap(in, _ -> {
+            int size = in.getInt();
+            Set<Station> systemStations = produceSet();
+            for (int i = 0; i < size; i++) {
+                int stationID = in.getInt();
+                int stationTypeID = in.getInt();
+                String stationName = readString(in);
+                int operationID = in.getInt();
+                EnumSet<Station.Service> services = EnumSet.noneOf(Station.Service.class);
+                int serviceBits = in.getInt();
+                for (Station.Service service : Station.Service.values()) {
+                    if ((serviceBits & (1 << service.ordinal())) != 0) services.add(service);
+                }
+                systemStations.add(new Station(stationID, stationTypeID, stationName, operationID, services));
+            }
+            return systemStations;
+        });
+        this.factions = readMap(in, _ -> new Faction(in.getInt(), readString(in), in.getInt()));
+        this.marketGroups = readMap(in, _ -> new MarketGroup(in.getInt(), readInteger(in), readString(in), readString(in)));
+
+        if (in.hasRemaining()) throw new IllegalStateException("Trailing data in SDE snapshot");
+        this.loadViews();
+    }
+
+    /// Reads a snapshot, if it exists and was written with the same key
+    ///
+    /// @param key Identifies the source data of the snapshot, such as the checksum of the SDE it was loaded from. Snapshots written with a different key are not used.
+    /// @return The snapshot data, or null if there is no matching snapshot, or the snapshot is truncated or corrupt
+    public static @Nullable SnapshotSDEData read(Path file, String key) throws IOException {
+        if (!Files.exists(file)) return null;
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer expectedHeader = ByteBuffer.allocate(12 + keyBytes.length).putInt(MAGIC).putInt(VERSION).putInt(keyBytes.length).put(keyBytes).flip();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The header is checked before mapping, as a mapping is only released once garbage collected, and a mapped file cannot be replaced on Windows
+            ByteBuffer header = ByteBuffer.allocate(expectedHeader.capacity());
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) break;
+            }
+            if (!header.flip().equals(expectedHeader)) return null;
+
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            in.position(expectedHeader.capacity());
+            return new SnapshotSDEData(in);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException | IllegalArgumentException | IllegalStateException | NullPointerException e) {
+            // Reading past the end, a malformed length, index, or required value, or trailing data; The snapshot is discarded and the SDE loaded again
+            System.out.println("\tSDE snapshot is invalid, ignoring: " + e);
+            return null;
+        }
+    }
+
+    /// Writes a snapshot of the data, which must be patched if patching is desired, and not yet modified otherwise
+    ///
+    /// The snapshot is written to a temporary file first, and then moved into place
+    public static void write(SDEData data, Path file, String key) throws IOException {
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            writeString(out, key);
+
+            writeMap(out, data.getCategories(), category -> {
+                out.writeInt(category.categoryID);
+                writeString(out, category.name);
+                writeInteger(out, category.iconID);
+                out.writeBoolean(category.published);
+            });
+            writeMap(out, data.getGroups(), group -> {
+                out.writeInt(group.groupID);
+                out.writeInt(group.categoryID);
+                writeString(out, group.name);
+                writeInteger(out, group.iconID);
+                out.writeBoolean(group.published);
+            });
+            writeMap(out, data.getTypes(), type -> {
+                out.writeInt(type.typeID);
+                out.writeInt(type.groupID);
+                writeString(out, type.name);
+                writeString(out, type.description);
+                out.writeDouble(type.mass);
+                out.writeDouble(type.volume);
+                out.writeDouble(type.capacity);
+                out.writeBoolean(type.published);
+                writeInteger(out, type.iconID);
+                writeInteger(out, type.graphicID);
+                writeInteger(out, type.marketGroupID);
+            });
+            writeMap(out, data.getTypeTraits(), traits -> {
+                writeBonuses(out, traits.miscBonuses());
+                writeBonuses(out, traits.roleBonuses());
+                writeMap(out, traits.skillBonuses(), bonuses -> writeBonuses(out, bonuses));
+            });
+            writeMap(out, data.getAttributes(), attribute -> {
+                out.writeInt(attribute.attributeID);
+                writeInteger(out, attribute.categoryID);
+                writeString(out, attribute.attributeName);
+                writeString(out, attribute.displayName);
+                writeInteger(out, attribute.unitID);
+                writeInteger(out, attribute.iconID);
+                out.writeBoolean(attribute.published);
+                out.writeBoolean(attribute.highIsGood);
+            });
+            writeMap(out, data.getTypeAttributes(), attributeMap -> {
+                out.writeInt(attributeMap.size());
+                for (Map.Entry<Integer, Double> entry : attributeMap.entrySet()) {
+                    out.writeInt(entry.getKey());
+                    out.writeDouble(entry.getValue());
+                }
+            });
+            writeMap(out, data.getEffects(), effect -> {
+                out.writeInt(effect.effectID);
+                writeString(out, effect.effectName);
+            });
+            writeMap(out, data.getTypeEffects(), effectIDs -> writeIntSet(out, effectIDs));
+            writeMap(out, data.getEveIcons(), icon -> writeString(out, icon));
+            writeMap(out, data.getBpActivities(), activities -> {
+                out.writeInt(activities.size());
+                for (IndustryActivity activity : activities.values()) {
+                    out.writeInt(activity.bpTypeID);
+                    out.writeInt(activity.activityType.ordinal());
+                    out.writeInt(activity.time);
+                    writeMap(out, activity.materialMap, out::writeInt);
+                    writeMap(out, activity.productMap, out::writeInt);
+                    writeMap(out, activity.probabilityMap, out::writeDouble);
+                    writeMap(out, activity.skillMap, out::writeInt);
+                }
+            });
+            writeMap(out, data.getReprocessingMaterials(), materials -> writeMap(out, materials, out::writeInt));
+            writeMap(out, data.getPlanetSchematics(), schematic -> {
+                out.writeInt(schematic.schematicID);
+                out.writeInt(schematic.cycleTime);
+                out.writeInt(schematic.outputTypeID);
+                out.writeInt(schematic.outputQuantity);
+                writeMap(out, schematic.inputs, out::writeInt);
+            });
+            writeMap(out, data.getMetaGroups(), metaGroup -> {
+                out.writeInt(metaGroup.metaGroupID);
+                writeString(out, metaGroup.metaGroupName);
+            });
+
+            // Variant sets are shared by all types in the set; Write each set once, and the index of the set for each type
+            IdentityHashMap<Set<Integer>, Integer> variantSetIndices = new IdentityHashMap<>();
+            List<Set<Integer>> variantSets = new ArrayList<>();
+            for (Set<Integer> variantSet : data.getVariants().values()) {
+                if (variantSetIndices.putIfAbsent(variantSet, variantSets.size()) == null) variantSets.add(variantSet);
+            }
+            out.writeInt(variantSets.size());
+            for (Set<Integer> variantSet : variantSets) {
+                writeIntSet(out, variantSet);
+            }
+            writeMap(out, data.getVariants(), variantSet -> out.writeInt(variantSetIndices.get(variantSet)));
+
+            writeMap(out, data.getMetaTypes(), out::writeInt);
+            writeMap(out, data.getSolarSystems(), system -> {
+                out.writeInt(system.regionID);
+                out.writeInt(system.constellationID);
+                out.writeInt(system.solarSystemID);
+                writeString(out, system.solarSystemName);
+                out.writeDouble(system.x);
+                out.writeDouble(system.y);
+                out.writeDouble(system.z);
+                out.writeDouble(system.security);
+                writeInteger(out, system.factionID);
+                writeInteger(out, system.sunTypeID);
+                writeInteger(out, system.wormholeClassID);
+            });
+            writeMap(out, data.getConstellations(), constellation -> {
+                out.writeInt(constellation.regionID);
+                out.writeInt(constellation.constellationID);
+                writeString(out, constellation.constellationName);
+                out.writeDouble(constellation.x);
+                out.writeDouble(constellation.y);
+                out.writeDouble(constellation.z);
+                out.writeDouble(constellation.xMin);
+                out.writeDouble(constellation.yMin);
+                out.writeDouble(constellation.zMin);
+                out.writeDouble(constellation.xMax);
+                out.writeDouble(constellation.yMax);
+                out.writeDouble(constellation.zMax);
+                writeInteger(out, constellation.factionID);
+                writeInteger(out, constellation.wormholeClassID);
+            });
+            writeMap(out, data.getRegions(), region -> {
+                out.writeInt(region.regionID);
+                writeString(out, region.regionName);
+                out.writeDouble(region.x);
+                out.writeDouble(region.y);
+                out.writeDouble(region.z);
+                // The Region constructor negates and swaps the z bounds; Written as they are passed to the constructor
+                out.writeDouble(region.xMin);
+                out.writeDouble(region.yMin);
+                out.writeDouble(-region.zMax);
+                out.writeDouble(region.xMax);
+                out.writeDouble(region.yMax);
+                out.writeDouble(-region.zMin);
+                writeInteger(out, region.factionID);
+                writeInteger(out, region.wormholeClassID);
+            });
+            writeMap(out, data.getOutJumps(), systemIDs -> writeIntSet(out, systemIDs));
+            writeMap(out, data.getInJumps(), systemIDs -> writeIntSet(out, systemIDs));
+            writeMap(out, data.getCelestials(), systemCelestials -> {
+                out.writeInt(systemCelestials.size());
+                for (Celestial celestial : systemCelestials) {
+                    out.writeInt(celestial.itemID);
+                    out.writeInt(celestial.typeID);
+                    out.writeInt(celestial.groupID);
+                    writeString(out, celestial.itemName);
+                    writeInteger(out, celestial.celestialIndex);
+                    writeInteger(out, celestial.orbitIndex);
+                }
+            });
+            writeMap(out, data.getStations(), systemStations -> {
+                out.writeInt(systemStations.size());
+                for (Station station : systemStations) {
+                    out.writeInt(station.stationID);
+                    out.writeInt(station.stationTypeID);
+                    writeString(out, station.stationName);
+                    out.writeInt(station.operationID);
+                    int serviceBits = 0;
+                    for (Station.Service service : station.services) {
+                        serviceBits |= 1 << service.ordinal();
+                    }
+                    out.writeInt(serviceBits);
+                }
+            });
+            writeMap(out, data.getFactions(), faction -> {
+                out.writeInt(faction.factionID);
+                writeString(out, faction.factionName);
+                out.writeInt(faction.iconID);
+            });
+            writeMap(out, data.getMarketGroups(), marketGroup -> {
+                out.writeInt(marketGroup.marketGroupID);
+                writeInteger(out, marketGroup.parentGroupID);
+                writeString(out, marketGroup.name);
+                writeString(out, marketGroup.description);
+            });
+        }
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // Serialization helpers; Values that may be null are prefixed with a presence flag
+
+    private interface ValueWriter<V> {
+        void write(V value) throws IOException;
+    }
+
+    private static <V> void writeMap(DataOutputStream out, Map<Integer, V> map, ValueWriter<? super V> valueWriter) throws IOException {
+        out.writeInt(map.size());
+        for (Map.Entry<Integer, V> entry : map.entrySet()) {
+            out.writeInt(entry.getKey());
+            valueWriter.write(entry.getValue());
+        }
+    }
+
+    private <V> Map<Integer, V> readMap(ByteBuffer in, Function<ByteBuffer, V> valueReader) {
+        int size = in.getInt();
+        Map<Integer, V> map = produceMap();
+        for (int i = 0; i < size; i++) {
+            int key = in.getInt();
+            map.put(key, valueReader.apply(in));
+        }
+        return map;
+    }
+
+    private static void writeIntSet(DataOutputStream out, Set<Integer> set) throws IOException {
+        out.writeInt(set.size());
+        for (int value : set) {
+            out.writeInt(value);
+        }
+    }
+
+    private Set<Integer> readIntSet(ByteBuffer in) {
+        int size = in.getInt();
+        Set<Integer> set = produceIntSet();
+        for (int i = 0; i < size; i++) {
+            set.add(in.getInt());
+        }
+        return set;
+    }
+
+    private static void writeBonuses(DataOutputStream out, List<TypeTraits.Bonus> bonuses) throws IOException {
+        out.writeInt(bonuses.size());
+        for (TypeTraits.Bonus bonus : bonuses) {
+            out.writeBoolean(bonus.bonusAmount() != null);
+            if (bonus.bonusAmount() != null) out.writeDouble(bonus.bonusAmount());
+            writeString(out, bonus.bonusText());
+            writeInteger(out, bonus.unitID());
+        }
+    }
+
+    private List<TypeTraits.Bonus> readBonuses(ByteBuffer in) {
+        int size = in.getInt();
+        List<TypeTraits.Bonus> bonuses = produceList();
+        for (int i = 0; i < size; i++) {
+            Double bonusAmount = readBoolean(in) ? in.getDouble() : null;
+            bonuses.add(new TypeTraits.Bonus(bonusAmount, readString(in), readInteger(in)));
+        }
+        return bonuses;
+    }
+
+    private static void writeString(DataOutputStream out, @Nullable String string) throws IOException {
+        if (string == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static @Nullable String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) return null;
+        if (length > in.remaining()) throw new BufferUnderflowException();
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeInteger(DataOutputStream out, @Nullable Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeInt(value);
+    }
+
+    private static @Nullable Integer readInteger(ByteBuffer in) {
+        return readBoolean(in) ? in.getInt() : null;
+    }
+
+    private static boolean readBoolean(ByteBuffer in) {
+        return in.get() != 0;
+    }
+
+    @Override
+    public Map<Integer, Category> getCategories() {
+        return categories;
+    }
+
+    @Override
+    public Map<Integer, Group> getGroups() {
+        return groups;
+    }
+
+    @Override
+    public Map<Integer, Type> getTypes() {
+        return types;
+    }
+
+    @Override
+    public Map<Integer, TypeTraits> getTypeTraits() {
+        return typeTraits;
+    }
+
+    @Override
+    public Map<Integer, Attribute> getAttributes() {
+        return attributes;
+    }
+
+    @Override
+    public Map<Integer, Map<Integer, Double>> getTypeAttributes() {
+        return typeAttributes;
+    }
+
+    @Override
+    public Map<Integer, Effect> getEffects() {
+        return effects;
+    }
+
+    @Override
+    public Map<Integer, Set<Integer>> getTypeEffects() {
+        return typeEffects;
+    }
+
+    @Override
+    public Map<Integer, String> getEveIcons() {
+        return eveIcons;
+    }
+
+    @Override
+    public Map<Integer, EnumMap<IndustryActivityType, IndustryActivity>> getBpActivities() {
+        return bpActivities;
+    }
+
+    @Override
+    public Map<Integer, Map<Integer, Integer>> getReprocessingMaterials() {
+        return reprocessingMaterials;
+    }
+
+    @Override
+    public Map<Integer, PlanetSchematic> getPlanetSchematics() {
+        return planetSchematics;
+    }
+
+    @Override
+    public Map<Integer, MetaGroup> getMetaGroups() {
+        return metaGroups;
+    }
+
+    @Override
+    public Map<Integer, Set<Integer>> getVariants() {
+        return variants;
+    }
+
+    @Override
+    public Map<Integer, Integer> getMetaTypes() {
+        return metaTypes;
+    }
+
+    @Override
+    public Map<Integer, SolarSystem> getSolarSystems() {
+        return solarSystems;
+    }
+
+    @Override
+    public Map<Integer, Constellation> getConstellations() {
+        return constellations;
+    }
+
+    @Override
+    public Map<Integer, Region> getRegions() {
+        return regions;
+    }
+
+    @Override
+    public Map<Integer, Set<Integer>> getOutJumps() {
+        return outJumps;
+    }
+
+    @Override
+    public Map<Integer, Set<Integer>> getInJumps() {
+        return inJumps;
+    }
+
+    @Override
+    public Map<Integer, Set<Celestial>> getCelestials() {
+        return celestials;
+    }
+
+    @Override
+    public Map<Integer, Set<Station>> getStations() {
+        return stations;
+    }
+
+    @Override
+    public Map<Integer, Faction> getFactions() {
+        return factions;
+    }
+
+    @Override
+    public Map<Integer, MarketGroup> getMarketGroups() {
+        return marketGroups;
+    }
+}
@@ -3,15 +3,17 @@ package net.sentientturtle.nee.data.sde;
 import com.almworks.sqlite4java.SQLiteException;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.*;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import net.sentientturtle.nee.Main;
 import net.sentientturtle.nee.data.DataSources;
+import net.sentientturtle.nee.util.ExceptionUtil;
 import org.jspecify.annotations.Nullable;
 
 import java.io.*;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
@@ -22,12 +24,13 @@ import java.util.zip.ZipFile;
 
 /// Work-in-progress data source using the original YAML Static Data Export
 // The YAML data is much more annoying to work with and not always conforms to YAML specification.
-@SuppressWarnings("Convert2Diamond") // Jackson TypeReference must contain explicit generics to work
 public class YAMLDataExportReader implements AutoCloseable {
+    // Number of solar systems parsed concurrently by readUniverseMap
+    private static final int UNIVERSE_BATCH_SIZE = 512;
+
     private final ZipFile zipFile;
     private final ObjectMapper yamlMapper;
 
-    @SuppressWarnings("Convert2Diamond")
     public YAMLDataExportReader(Path sdePath) throws IOException {
         zipFile = new ZipFile(sdePath.toFile());
         yamlMapper = new ObjectMapper(new YAMLFactory())
@@ -39,6 +42,34 @@ public class YAMLDataExportReader implements AutoCloseable {
         zipFile.close();
     }
 
+    /// Streams a file consisting of a single mapping of ID to entry, binding each entry as it is read
+    ///
+    /// A single parser runs over the whole file, so neither the file nor the full mapping is held in memory at once.
+    private <T> void readMapping(String entryName, Class<T> valueType, BiConsumer<Integer, T> consumer) throws IOException {
+        ObjectReader valueReader = yamlMapper.readerFor(valueType);
+        try (JsonParser parser = yamlMapper.createParser(zipFile.getInputStream(zipFile.getEntry(entryName)))) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) throw new JsonParseException(parser, "Expected mapping in " + entryName);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                int id = Integer.parseInt(parser.currentName());
+                parser.nextToken();
+                consumer.accept(id, valueReader.readValue(parser));
+            }
+            if (parser.currentToken() != JsonToken.END_OBJECT) throw new JsonParseException(parser, "Unexpected token in " + entryName);
+        }
+    }
+
+    /// Streams a file consisting of a single sequence of entries, binding each entry as it is read
+    private <T> void readSequence(String entryName, Class<T> valueType, Consumer<T> consumer) throws IOException {
+        ObjectReader valueReader = yamlMapper.readerFor(valueType);
+        try (JsonParser parser = yamlMapper.createParser(zipFile.getInputStream(zipFile.getEntry(entryName)))) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) throw new JsonParseException(parser, "Expected sequence in " + entryName);
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                consumer.accept(valueReader.readValue(parser));
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) throw new JsonParseException(parser, "Unexpected token in " + entryName);
+        }
+    }
+
     public record LocalizedString(
         @Nullable String en,
         @Nullable String de,
@@ -57,13 +88,7 @@ public class YAMLDataExportReader implements AutoCloseable {
         @Nullable Integer iconID
     ) {}
     public void readCategories(BiConsumer<Integer, SdeCategory> consumer) throws IOException {
-        ZipEntry entry = zipFile.getEntry("fsd/categories.yaml");
-
-        yamlMapper.readValue(
-            new String(zipFile.getInputStream(entry).readAllBytes(), StandardCharsets.UTF_8),
-            new TypeReference<LinkedHashMap<Integer, SdeCategory>>() {}
-        )
-            .forEach(consumer);
+        readMapping("fsd/categories.yaml", SdeCategory.class, consumer);
     }
 
     public record SdeGroup(
@@ -77,13 +102,7 @@ public class YAMLDataExportReader implements AutoCloseable {
         @JsonProperty(required = true) boolean useBasePrice
     ) {}
     public void readGroups(BiConsumer<Integer, SdeGroup> consumer) throws IOException {
-        ZipEntry entry = zipFile.getEntry("fsd/groups.yaml");
-
-        yamlMapper.readValue(
-            new String(zipFile.getInputStream(entry).readAllBytes(), StandardCharsets.UTF_8),
-            new TypeReference<LinkedHashMap<Integer, SdeGroup>>() {}
-        )
-            .forEach(consumer);
+        readMapping("fsd/groups.yaml", SdeGroup.class, consumer);
     }
 
     public record SdeTrait (
@@ -125,35 +144,7 @@ public class YAMLDataExportReader implements AutoCloseable {
         @Nullable Integer sofMaterialSetID
     ) {}
     public void readTypes(BiConsumer<Integer, SdeType> consumer) throws IOException {
-        ZipEntry entry = zipFile.getEntry("fsd/types.yaml");
-
-        // Split yaml document into individual entries to improve performance & handle format errors more cleanly
-        StringBuilder typeBuffer = new StringBuilder();
-        BufferedReader reader = new BufferedReader(new InputStreamReader(zipFile.getInputStream(entry), StandardCharsets.UTF_8));
-        String line;
-        while ((line = reader.readLine()) != null) {
-            if (!line.isEmpty()) {
-                char first = line.charAt(0);
-                if (first >= '0' && first <= '9' && !typeBuffer.isEmpty()) {
-                    Map.Entry<Integer, SdeType> mapEntry = yamlMapper.readValue(
-                        typeBuffer.toString(),
-                        new TypeReference<Map.Entry<Integer, SdeType>>() {}
-                    );
-                    consumer.accept(mapEntry.getKey(), mapEntry.getValue());
-                    typeBuffer.setLength(0);
-                }
-            }
-            if (!typeBuffer.isEmpty()) typeBuffer.append('\n');
-            typeBuffer.append(line);
-        }
-
-        if (!typeBuffer.isEmpty()) {
-            Map.Entry<Integer, SdeType> mapEntry = yamlMapper.readValue(
-                typeBuffer.toString(),
-                new TypeReference<Map.Entry<Integer, SdeType>>() {}
-            );
-            consumer.accept(mapEntry.getKey(), mapEntry.getValue());
-        }
+        readMapping("fsd/types.yaml", SdeType.class, consumer);
     }
 
     public record SdeAttribute(
@@ -177,35 +168,7 @@ public class YAMLDataExportReader implements AutoCloseable {
         @Nullable Boolean displayWhenZero
     ) {}
     public void readAttributes(BiConsumer<Integer, SdeAttribute> consumer) throws IOException {
-        ZipEntry entry = zipFile.getEntry("fsd/dogmaAttributes.yaml");
-
-        // Split yaml document into individual entries to improve performance & handle format errors more cleanly
-        StringBuilder buffer = new StringBuilder();
-        BufferedReader reader = new BufferedReader(new InputStreamReader(zipFile.getInputStream(entry), StandardCharsets.UTF_8));
-        String line;
-        while ((line = reader.readLine()) != null) {
-            if (!line.isEmpty()) {
-                char first = line.charAt(0);
-                if (first >= '0' && first <= '9' && !buffer.isEmpty()) {
-                    Map.Entry<Integer, SdeAttribute> mapEntry = yamlMapper.readValue(
-                        buffer.toString(),
-                        new TypeReference<Map.Entry<Integer, SdeAttribute>>() {}
-                    );
-                    consumer.accept(mapEntry.getKey(), mapEntry.getValue());
-                    buffer.setLength(0);
-                }
-            }
-            if (!buffer.isEmpty()) buffer.append('\n');
-            buffer.append(line);
-        }
-
-        if (!buffer.isEmpty()) {
-            Map.Entry<Integer, SdeAttribute> mapEntry = yamlMapper.readValue(
-                buffer.toString(),
-                new TypeReference<Map.Entry<Integer, SdeAttribute>>() {}
-            );
-            consumer.accept(mapEntry.getKey(), mapEntry.getValue());
-        }
+        readMapping("fsd/dogmaAttributes.yaml", SdeAttribute.class, consumer);
     }
 
     @JsonIgnoreProperties(ignoreUnknown=true)
@@ -214,35 +177,7 @@ public class YAMLDataExportReader implements AutoCloseable {
         @JsonProperty(required = true) String effectName
     ) {}
     public void readEffects(BiConsumer<Integer, SdeEffect> consumer) throws IOException {
-        ZipEntry entry = zipFile.getEntry("fsd/dogmaEffects.yaml");
-
-        // Split yaml document into individual entries to improve performance & handle format errors more cleanly
-        StringBuilder buffer = new StringBuilder();
-        BufferedReader reader = new BufferedReader(new InputStreamReader(zipFile.getInputStream(entry), StandardCharsets.UTF_8));
-        String line;
-        while ((line = reader.readLine()) != null) {
-            if (!line.isEmpty()) {
-                char first = line.charAt(0);
-                if (first >= '0' && first <= '9' && !buffer.isEmpty()) {
-                    Map.Entry<Integer, SdeEffect> mapEntry = yamlMapper.readValue(
-                        buffer.toString(),
-                        new TypeReference<Map.Entry<Integer, SdeEffect>>() {}
-                    );
-                    consumer.accept(mapEntry.getKey(), mapEntry.getValue());
-                    buffer.setLength(0);
-                }
-            }
-            if (!buffer.isEmpty()) buffer.append('\n');
-            buffer.append(line);
-        }
-
-        if (!buffer.isEmpty()) {
-            Map.Entry<Integer, SdeEffect> mapEntry = yamlMapper.readValue(
-                buffer.toString(),
-                new TypeReference<Map.Entry<Integer, SdeEffect>>() {}
-            );
-            consumer.accept(mapEntry.getKey(), mapEntry.getValue());
-        }
+        readMapping("fsd/dogmaEffects.yaml", SdeEffect.class, consumer);
     }
 
     private record SdeTypeAttribute(
@@ -259,53 +194,23 @@ public class YAMLDataExportReader implements AutoCloseable {
         HashMap<Integer, Boolean> effects
     ) {}
     public void readDogma(Consumer<SdeTypeDogma> consumer) throws IOException {
-        ZipEntry entry = zipFile.getEntry("fsd/typeDogma.yaml");
-
         record DogmaEntry(
             @JsonProperty(required = true) ArrayList<SdeTypeAttribute> dogmaAttributes,
             @JsonProperty(required = true) ArrayList<SdeTypeEffect> dogmaEffects
         ) {}
 
-        // Split yaml document into individual entries to improve performance
-        StringBuilder buffer = new StringBuilder();
-        BufferedReader reader = new BufferedReader(new InputStreamReader(zipFile.getInputStream(entry), StandardCharsets.UTF_8));
-        String line;
-        while ((line = reader.readLine()) != null) {
-            if (!line.isEmpty()) {
-                char first = line.charAt(0);
-                if (first >= '0' && first <= '9' && !buffer.isEmpty()) {
-                    Map.Entry<Integer, DogmaEntry> dogmaEntry = yamlMapper.readValue(buffer.toString(), new TypeReference<Map.Entry<Integer, DogmaEntry>>() {});
-                    HashMap<Integer, Double> attributeMap = new HashMap<>();
-                    for (SdeTypeAttribute attribute : dogmaEntry.getValue().dogmaAttributes) {
-                        attributeMap.put(attribute.attributeID, attribute.value);
-                    }
-                    HashMap<Integer, Boolean> effectMap = new HashMap<>();
-                    for (SdeTypeEffect effect : dogmaEntry.getValue().dogmaEffects) {
-                        effectMap.put(effect.effectID, effect.isDefault);
-                    }
-
-                    consumer.accept(new SdeTypeDogma(dogmaEntry.getKey(), attributeMap, effectMap));
-
-                    buffer.setLength(0);
-                }
-            }
-            if (!buffer.isEmpty()) buffer.append('\n');
-            buffer.append(line);
-        }
-
-        if (!buffer.isEmpty()) {
-            Map.Entry<Integer, DogmaEntry> dogmaEntry = yamlMapper.readValue(buffer.toString(), new TypeReference<Map.Entry<Integer, DogmaEntry>>() {});
+        readMapping("fsd/typeDogma.yaml", DogmaEntry.class, (typeID, dogmaEntry) -> {
             HashMap<Integer, Double> attributeMap = new HashMap<>();
-            for (SdeTypeAttribute attribute : dogmaEntry.getValue().dogmaAttributes) {
+            for (SdeTypeAttribute attribute : dogmaEntry.dogmaAttributes) {
                 attributeMap.put(attribute.attributeID, attribute.value);
             }
             HashMap<Integer, Boolean> effectMap = new HashMap<>();
-            for (SdeTypeEffect effect : dogmaEntry.getValue().dogmaEffects) {
+            for (SdeTypeEffect effect : dogmaEntry.dogmaEffects) {
                 effectMap.put(effect.effectID, effect.isDefault);
             }
 
-            consumer.accept(new SdeTypeDogma(dogmaEntry.getKey(), attributeMap, effectMap));
-        }
+            consumer.accept(new SdeTypeDogma(typeID, attributeMap, effectMap));
+        });
     }
 
     public record SdeIcon(
@@ -314,13 +219,7 @@ public class YAMLDataExportReader implements AutoCloseable {
         @JsonProperty(required = true) String iconFile
     ) {}
     public void readIcons(BiConsumer<Integer, SdeIcon> consumer) throws IOException {
-        ZipEntry entry = zipFile.getEntry("fsd/iconIDs.yaml");
-
-        yamlMapper.readValue(
-                new String(zipFile.getInputStream(entry).readAllBytes(), StandardCharsets.UTF_8),
-                new TypeReference<LinkedHashMap<Integer, SdeIcon>>() {}
-            )
-            .forEach(consumer);
+        readMapping("fsd/iconIDs.yaml", SdeIcon.class, consumer);
     }
 
     public record SdeBpItem(
@@ -352,37 +251,7 @@ public class YAMLDataExportReader implements AutoCloseable {
         @JsonProperty(required = true) int maxProductionLimit
     ){}
     public void readBlueprints(Consumer<SdeBlueprint> consumer) throws IOException {
-        ZipEntry entry = zipFile.getEntry("fsd/blueprints.yaml");
-
-        // Split yaml document into individual entries to improve performance & handle format errors more cleanly
-        StringBuilder buffer = new StringBuilder();
-        BufferedReader reader = new BufferedReader(new InputStreamReader(zipFile.getInputStream(entry), StandardCharsets.UTF_8));
-        String line;
-        while ((line = reader.readLine()) != null) {
-            if (!line.isEmpty()) {
-                char first = line.charAt(0);
-                if (first >= '0' && first <= '9' && !buffer.isEmpty()) {
-                    consumer.accept(
-                        yamlMapper.readValue(
-                            buffer.toString(),
-                            new TypeReference<Map.Entry<Integer, SdeBlueprint>>() {}
-                        ).getValue()
-                    );
-                    buffer.setLength(0);
-                }
-            }
-            if (!buffer.isEmpty()) buffer.append('\n');
-            buffer.append(line);
-        }
-
-        if (!buffer.isEmpty()) {
-            consumer.accept(
-                yamlMapper.readValue(
-                    buffer.toString(),
-                    new TypeReference<Map.Entry<Integer, SdeBlueprint>>() {}
-                ).getValue()
-            );
-        }
+        readMapping("fsd/blueprints.yaml", SdeBlueprint.class, (_, blueprint) -> consumer.accept(blueprint));
     }
 
     public record SdeTypeMaterial(
@@ -391,35 +260,7 @@ public class YAMLDataExportReader implements AutoCloseable {
     ) {}
     public record SdeTypeMaterials(@JsonProperty(required = true) ArrayList<SdeTypeMaterial> materials) {}
     public void readMaterials(BiConsumer<Integer, SdeTypeMaterials> consumer) throws IOException {
-        ZipEntry entry = zipFile.getEntry("fsd/typeMaterials.yaml");
-
-        // Split yaml document into individual entries to improve performance & handle format errors more cleanly
-        StringBuilder buffer = new StringBuilder();
-        BufferedReader reader = new BufferedReader(new InputStreamReader(zipFile.getInputStream(entry), StandardCharsets.UTF_8));
-        String line;
-        while ((line = reader.readLine()) != null) {
-            if (!line.isEmpty()) {
-                char first = line.charAt(0);
-                if (first >= '0' && first <= '9' && !buffer.isEmpty()) {
-                    Map.Entry<Integer, SdeTypeMaterials> mapEntry = yamlMapper.readValue(
-                        buffer.toString(),
-                        new TypeReference<Map.Entry<Integer, SdeTypeMaterials>>() {}
-                    );
-                    consumer.accept(mapEntry.getKey(), mapEntry.getValue());
-                    buffer.setLength(0);
-                }
-            }
-            if (!buffer.isEmpty()) buffer.append('\n');
-            buffer.append(line);
-        }
-
-        if (!buffer.isEmpty()) {
-            Map.Entry<Integer, SdeTypeMaterials> mapEntry = yamlMapper.readValue(
-                buffer.toString(),
-                new TypeReference<Map.Entry<Integer, SdeTypeMaterials>>() {}
-            );
-            consumer.accept(mapEntry.getKey(), mapEntry.getValue());
-        }
+        readMapping("fsd/typeMaterials.yaml", SdeTypeMaterials.class, consumer);
     }
 
     public record SdePlanetSchematicItem(@JsonProperty(required = true) boolean isInput, @JsonProperty(required = true) int quantity){}
@@ -430,35 +271,7 @@ public class YAMLDataExportReader implements AutoCloseable {
         @JsonProperty(required = true) LinkedHashMap<Integer, SdePlanetSchematicItem> types
     ) {}
     public void readSchematics(BiConsumer<Integer, SdePlanetSchematic> consumer) throws IOException {
-        ZipEntry entry = zipFile.getEntry("fsd/planetSchematics.yaml");
-
-        // Split yaml document into individual entries to improve performance & handle format errors more cleanly
-        StringBuilder buffer = new StringBuilder();
-        BufferedReader reader = new BufferedReader(new InputStreamReader(zipFile.getInputStream(entry), StandardCharsets.UTF_8));
-        String line;
-        while ((line = reader.readLine()) != null) {
-            if (!line.isEmpty()) {
-                char first = line.charAt(0);
-                if (first >= '0' && first <= '9' && !buffer.isEmpty()) {
-                    Map.Entry<Integer, SdePlanetSchematic> mapEntry = yamlMapper.readValue(
-                        buffer.toString(),
-                        new TypeReference<Map.Entry<Integer, SdePlanetSchematic>>() {}
-                    );
-                    consumer.accept(mapEntry.getKey(), mapEntry.getValue());
-                    buffer.setLength(0);
-                }
-            }
-            if (!buffer.isEmpty()) buffer.append('\n');
-            buffer.append(line);
-        }
-
-        if (!buffer.isEmpty()) {
-            Map.Entry<Integer, SdePlanetSchematic> mapEntry = yamlMapper.readValue(
-                buffer.toString(),
-                new TypeReference<Map.Entry<Integer, SdePlanetSchematic>>() {}
-            );
-            consumer.accept(mapEntry.getKey(), mapEntry.getValue());
-        }
+        readMapping("fsd/planetSchematics.yaml", SdePlanetSchematic.class, consumer);
     }
 
     public record SdeMetaGroup(
@@ -469,13 +282,7 @@ public class YAMLDataExportReader implements AutoCloseable {
         @Nullable LocalizedString descriptionID
     ) {}
     public void readMetaGroups(BiConsumer<Integer, SdeMetaGroup> consumer) throws IOException {
-        ZipEntry entry = zipFile.getEntry("fsd/metaGroups.yaml");
-
-        yamlMapper.readValue(
-                new String(zipFile.getInputStream(entry).readAllBytes(), StandardCharsets.UTF_8),
-                new TypeReference<LinkedHashMap<Integer, SdeMetaGroup>>() {}
-            )
-            .forEach(consumer);
+        readMapping("fsd/metaGroups.yaml", SdeMetaGroup.class, consumer);
     }
 
     public record SdeFaction(
@@ -493,13 +300,7 @@ public class YAMLDataExportReader implements AutoCloseable {
         @JsonProperty(required = true) boolean uniqueName
     ) {}
     public void readFactions(BiConsumer<Integer, SdeFaction> consumer) throws IOException {
-        ZipEntry entry = zipFile.getEntry("fsd/factions.yaml");
-
-        yamlMapper.readValue(
-                new String(zipFile.getInputStream(entry).readAllBytes(), StandardCharsets.UTF_8),
-                new TypeReference<LinkedHashMap<Integer, SdeFaction>>() {}
-            )
-            .forEach(consumer);
+        readMapping("fsd/factions.yaml", SdeFaction.class, consumer);
     }
 
     public record SdeMarketGroup(
@@ -510,35 +311,7 @@ public class YAMLDataExportReader implements AutoCloseable {
         @Nullable Integer parentGroupID
     ) {}
     public void readMarketGroups(BiConsumer<Integer, SdeMarketGroup> consumer) throws IOException {
-        ZipEntry entry = zipFile.getEntry("fsd/marketGroups.yaml");
-
-        // Split yaml document into individual entries to improve performance & handle format errors more cleanly
-        StringBuilder buffer = new StringBuilder();
-        BufferedReader reader = new BufferedReader(new InputStreamReader(zipFile.getInputStream(entry), StandardCharsets.UTF_8));
-        String line;
-        while ((line = reader.readLine()) != null) {
-            if (!line.isEmpty()) {
-                char first = line.charAt(0);
-                if (first >= '0' && first <= '9' && !buffer.isEmpty()) {
-                    Map.Entry<Integer, SdeMarketGroup> mapEntry = yamlMapper.readValue(
-                        buffer.toString(),
-                        new TypeReference<Map.Entry<Integer, SdeMarketGroup>>() {}
-                    );
-                    consumer.accept(mapEntry.getKey(), mapEntry.getValue());
-                    buffer.setLength(0);
-                }
-            }
-            if (!buffer.isEmpty()) buffer.append('\n');
-            buffer.append(line);
-        }
-
-        if (!buffer.isEmpty()) {
-            Map.Entry<Integer, SdeMarketGroup> mapEntry = yamlMapper.readValue(
-                buffer.toString(),
-                new TypeReference<Map.Entry<Integer, SdeMarketGroup>>() {}
-            );
-            consumer.accept(mapEntry.getKey(), mapEntry.getValue());
-        }
+        readMapping("fsd/marketGroups.yaml", SdeMarketGroup.class, consumer);
     }
 
     public record SdeRegion(
@@ -705,48 +478,63 @@ public class YAMLDataExportReader implements AutoCloseable {
         }
 
 
+        // Entries within each phase are parsed concurrently, but passed to the consumers in archive order on this thread.
+        // Regions and constellations are parsed first, as solar systems are resolved to their parents by folder name.
         HashMap<String, Integer> idMap = new HashMap<>();
-        for (ZipEntry region : regions) {
-            String[] split = region.getName().split("/");
+        List<SdeRegion> sdeRegions = parseAll(regions, SdeRegion.class);
+        for (int i = 0; i < regions.size(); i++) {
+            String[] split = regions.get(i).getName().split("/");
             String regionName = split[split.length - 2];
-            SdeRegion sdeRegion = yamlMapper.readValue(
-                new String(zipFile.getInputStream(region).readAllBytes(), StandardCharsets.UTF_8),
-                new TypeReference<SdeRegion>() {}
-            );
+            SdeRegion sdeRegion = sdeRegions.get(i);
             idMap.put(regionName, sdeRegion.regionID);
             regionConsumer.accept(sdeRegion);
         }
 
-        for (ZipEntry constellation : constellations) {
-            String[] split = constellation.getName().split("/");
+        List<SdeConstellation> sdeConstellations = parseAll(constellations, SdeConstellation.class);
+        for (int i = 0; i < constellations.size(); i++) {
+            String[] split = constellations.get(i).getName().split("/");
             String regionName = split[split.length - 3];
             String constellationName = split[split.length - 2];
-            SdeConstellation sdeConstellation = yamlMapper.readValue(
-                new String(zipFile.getInputStream(constellation).readAllBytes(), StandardCharsets.UTF_8),
-                new TypeReference<SdeConstellation>() {}
-            );
+            SdeConstellation sdeConstellation = sdeConstellations.get(i);
             idMap.put(constellationName, sdeConstellation.constellationID);
             constellationConsumer.accept(Objects.requireNonNull(idMap.get(regionName)), sdeConstellation);
         }
 
-        for (ZipEntry system : systems) {
-            String[] split = system.getName().split("/");
-            String regionName = split[split.length - 4];
-            String constellationName = split[split.length - 3];
-            SdeSolarSystem sdeSolarSystem = yamlMapper.readValue(
-                new String(zipFile.getInputStream(system).readAllBytes(), StandardCharsets.UTF_8),
-                new TypeReference<SdeSolarSystem>() {}
-            );
-            systemConsumer.accept(
-                new SystemParents(
-                    Objects.requireNonNull(idMap.get(regionName)),
-                    Objects.requireNonNull(idMap.get(constellationName))
-                ),
-                sdeSolarSystem
-            );
+        // Solar systems are parsed in batches, so that only one batch of parsed systems is held in memory at a time
+        for (int batchStart = 0; batchStart < systems.size(); batchStart += UNIVERSE_BATCH_SIZE) {
+            List<ZipEntry> batch = systems.subList(batchStart, Math.min(batchStart + UNIVERSE_BATCH_SIZE, systems.size()));
+            List<SdeSolarSystem> sdeSolarSystems = parseAll(batch, SdeSolarSystem.class);
+            for (int i = 0; i < batch.size(); i++) {
+                String[] split = batch.get(i).getName().split("/");
+                String regionName = split[split.length - 4];
+                String constellationName = split[split.length - 3];
+                systemConsumer.accept(
+                    new SystemParents(
+                        Objects.requireNonNull(idMap.get(regionName)),
+                        Objects.requireNonNull(idMap.get(constellationName))
+                    ),
+                    sdeSolarSystems.get(i)
+                );
+            }
         }
     }
 
+    /// Parses each of the entries as a single document, in parallel
+    ///
+    /// @return The parsed documents, in the same order as the entries
+    private <T> List<T> parseAll(List<ZipEntry> entries, Class<T> valueType) {
+        ObjectReader valueReader = yamlMapper.readerFor(valueType);
+        return entries.parallelStream()
+            .map(entry -> {
+                try (InputStream in = zipFile.getInputStream(entry)) {
+                    return valueReader.<T>readValue(in);
+                } catch (IOException e) {
+                    return ExceptionUtil.<RuntimeException, T>sneakyThrow(e);
+                }
+            })
+            .toList();
+    }
+
     public record SdeStation(
         @JsonProperty(required = true) int constellationID,
         @JsonProperty(required = true) int corporationID,
@@ -768,9 +556,7 @@ public class YAMLDataExportReader implements AutoCloseable {
         @JsonProperty(required = true) double z
     ) {}
     public void readStations(Consumer<SdeStation> consumer) throws IOException {
-        ZipEntry entry = zipFile.getEntry("bsd/staStations.yaml");
-        ArrayList<SdeStation> mapEntry = yamlMapper.readValue(zipFile.getInputStream(entry), new TypeReference<ArrayList<SdeStation>>() {});
-        mapEntry.forEach(consumer);
+        readSequence("bsd/staStations.yaml", SdeStation.class, consumer);
     }
 
     public record SdeItemName(
@@ -778,26 +564,6 @@ public class YAMLDataExportReader implements AutoCloseable {
         @JsonProperty(required = true) String itemName
     ) {}
     public void readItemNames(Consumer<SdeItemName> consumer) throws IOException {
-        ZipEntry entry = zipFile.getEntry("bsd/invNames.yaml");
-
-        // Split yaml document into individual entries to improve performance & handle format errors more cleanly
-        StringBuilder buffer = new StringBuilder();
-        BufferedReader reader = new BufferedReader(new InputStreamReader(zipFile.getInputStream(entry), StandardCharsets.UTF_8));
-        String line;
-        while ((line = reader.readLine()) != null) {
-            if (!line.isEmpty()) {
-                char first = line.charAt(0);
-                if (first == '-' && !buffer.isEmpty()) {
-                    consumer.accept(yamlMapper.readValue(buffer.toString(), new TypeReference<SdeItemName[]>() {})[0]);
-                    buffer.setLength(0);
-                }
-            }
-            if (!buffer.isEmpty()) buffer.append('\n');
-            buffer.append(line);
-        }
-
-        if (!buffer.isEmpty()) {
-            consumer.accept(yamlMapper.readValue(buffer.toString(), new TypeReference<SdeItemName[]>() {})[0]);
-        }
+        readSequence("bsd/invNames.yaml", SdeItemName.class, consumer);
     }
 }
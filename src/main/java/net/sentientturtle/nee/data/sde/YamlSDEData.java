@@ -4,9 +4,11 @@ import net.sentientturtle.nee.data.datatypes.*;
 import net.sentientturtle.nee.data.sde.YAMLDataExportReader.SdeBpItem;
 import net.sentientturtle.nee.data.sde.YAMLDataExportReader.SdeTrait;
 import net.sentientturtle.nee.data.sde.YAMLDataExportReader.SdeTypeTraits;
+import net.sentientturtle.nee.util.ExceptionUtil;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
@@ -39,8 +41,12 @@ public class YamlSDEData extends SDEData {
     private final Map<Integer, MarketGroup> marketGroups;
 
     public YamlSDEData(YAMLDataExportReader reader, HashMap<Integer, String> localizationStrings, boolean patch) throws IOException {
+        // Each SDE file is parsed by its own task in the common fork-join pool, which fills only that file's collections.
+        // Collections are still filled in file order, and joining a task makes its collections visible to this thread.
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+
         this.categories = this.produceMap();
-        reader.readCategories((categoryID, sdeCategory) -> {
+        tasks.add(fork(() -> reader.readCategories((categoryID, sdeCategory) -> {
             this.categories.put(
                 categoryID,
                 new Category(
@@ -49,10 +55,10 @@ public class YamlSDEData extends SDEData {
                     sdeCategory.iconID(),
                     sdeCategory.published()
                 ));
-        });
+        })));
 
         this.groups = this.produceMap();
-        reader.readGroups((groupID, sdeGroup) -> {
+        tasks.add(fork(() -> reader.readGroups((groupID, sdeGroup) -> {
             this.groups.put(
                 groupID,
                 new Group(
@@ -63,13 +69,13 @@ public class YamlSDEData extends SDEData {
                     sdeGroup.published()
                 )
             );
-        });
+        })));
 
         this.types = this.produceMap();
         this.typeTraits = this.produceMap();
         this.metaTypes = this.produceMap();
         HashMap<Integer, Set<Integer>> typeVariants = new HashMap<>();
-        reader.readTypes((typeID, sdeType) -> {
+        ForkJoinTask<?> typeTask = fork(() -> reader.readTypes((typeID, sdeType) -> {
             this.types.put(
                 typeID,
                 new Type(
@@ -88,7 +94,7 @@ public class YamlSDEData extends SDEData {
             );
 
             if (sdeType.variationParentTypeID() != null) {
-                typeVariants.computeIfAbsent(sdeType.variationParentTypeID(), this::produceSet).add(typeID);
+                typeVariants.computeIfAbsent(sdeType.variationParentTypeID(), this::produceIntSet).add(typeID);
             }
 
             if (sdeType.metaGroupID() != null) {
@@ -127,19 +133,10 @@ public class YamlSDEData extends SDEData {
 
                 this.typeTraits.put(typeID, new TypeTraits(miscBonuses, roleBonuses, skillBonuses));
             }
-        });
-
-
-        this.variants = this.produceMap();
-        for (Map.Entry<Integer, Set<Integer>> entry : typeVariants.entrySet()) {
-            entry.getValue().add(entry.getKey());
-            for (Integer typeID : entry.getValue()) {
-                this.variants.put(typeID, entry.getValue());
-            }
-        }
+        }));
 
         this.attributes = this.produceMap();
-        reader.readAttributes((attributeID, attribute) -> {
+        tasks.add(fork(() -> reader.readAttributes((attributeID, attribute) -> {
             this.attributes.put(
                 attributeID,
                 new Attribute(
@@ -153,30 +150,30 @@ public class YamlSDEData extends SDEData {
                     attribute.highIsGood()
                 )
             );
-        });
+        })));
 
         this.effects = this.produceMap();
-        reader.readEffects((effectID, effect) -> {
+        tasks.add(fork(() -> reader.readEffects((effectID, effect) -> {
             this.effects.put(
                 effectID,
                 new Effect(effectID, effect.effectName())
             );
-        });
+        })));
 
         this.typeAttributes = this.produceMap();
         this.typeEffects = this.produceMap();
-        reader.readDogma(dogma -> {
-            this.typeAttributes.computeIfAbsent(dogma.typeID(), this::produceMap)
+        tasks.add(fork(() -> reader.readDogma(dogma -> {
+            this.typeAttributes.computeIfAbsent(dogma.typeID(), this::produceAttributeMap)
                 .putAll(dogma.attributes());
-            this.typeEffects.computeIfAbsent(dogma.typeID(), this::produceSet)
+            this.typeEffects.computeIfAbsent(dogma.typeID(), this::produceIntSet)
                 .addAll(dogma.effects().keySet());
-        });
+        })));
 
         this.eveIcons = this.produceMap();
-        reader.readIcons((iconID, sdeIcon) -> this.eveIcons.put(iconID, sdeIcon.iconFile()));
+        tasks.add(fork(() -> reader.readIcons((iconID, sdeIcon) -> this.eveIcons.put(iconID, sdeIcon.iconFile()))));
 
         this.bpActivities = this.produceMap();
-        reader.readBlueprints(blueprint -> {
+        tasks.add(fork(() -> reader.readBlueprints(blueprint -> {
             Map<IndustryActivityType, IndustryActivity> activityMap = this.bpActivities.computeIfAbsent(blueprint.blueprintTypeID(), _ -> new EnumMap<>(IndustryActivityType.class));
             try {
                 if (blueprint.activities().manufacturing() != null) {
@@ -218,10 +215,10 @@ public class YamlSDEData extends SDEData {
             } catch (Exception e) {
                 throw new RuntimeException("Error in BP: " + blueprint.blueprintTypeID(), e);
             }
-        });
+        })));
 
         this.reprocessingMaterials = this.produceMap();
-        reader.readMaterials((typeID, materials) -> {
+        tasks.add(fork(() -> reader.readMaterials((typeID, materials) -> {
             if (materials.materials().size() > 0) {
                 var prev = this.reprocessingMaterials.put(
                     typeID,
@@ -229,10 +226,10 @@ public class YamlSDEData extends SDEData {
                 );
                 if (prev != null) throw new IllegalStateException("Duplicate typeMaterials for type " + typeID);
             }
-        });
+        })));
 
         this.planetSchematics = this.produceMap();
-        reader.readSchematics((schematicID, schematic) -> {
+        tasks.add(fork(() -> reader.readSchematics((schematicID, schematic) -> {
             int outputQuantity = -1;
             int outputType = -1;
             LinkedHashMap<Integer, Integer> inputs = new LinkedHashMap<>();
@@ -255,13 +252,13 @@ public class YamlSDEData extends SDEData {
                     inputs
                 )
             );
-        });
+        })));
 
         this.metaGroups = this.produceMap();
-        reader.readMetaGroups((metaGroupID, metagroup) -> this.metaGroups.put(metaGroupID, new MetaGroup(metaGroupID, metagroup.nameID().en())));
+        tasks.add(fork(() -> reader.readMetaGroups((metaGroupID, metagroup) -> this.metaGroups.put(metaGroupID, new MetaGroup(metaGroupID, metagroup.nameID().en())))));
 
         this.factions = this.produceMap();
-        reader.readFactions((factionID, faction) -> {
+        tasks.add(fork(() -> reader.readFactions((factionID, faction) -> {
             this.factions.put(
                 factionID,
                 new Faction(
@@ -270,10 +267,10 @@ public class YamlSDEData extends SDEData {
                     faction.iconID()
                 )
             );
-        });
+        })));
 
         this.marketGroups = this.produceMap();
-        reader.readMarketGroups((marketGroupID, marketGroup) -> {
+        tasks.add(fork(() -> reader.readMarketGroups((marketGroupID, marketGroup) -> {
             this.marketGroups.put(
                 marketGroupID,
                 new MarketGroup(
@@ -283,10 +280,10 @@ public class YamlSDEData extends SDEData {
                     marketGroup.descriptionID() != null ? marketGroup.descriptionID().en() : null
                 )
             );
-        });
+        })));
 
         this.stations = this.produceMap();
-        reader.readStations(station -> {
+        tasks.add(fork(() -> reader.readStations(station -> {
             this.stations.computeIfAbsent(station.solarSystemID(), this::produceSet)
                 .add(new Station(
                     station.stationID(),
@@ -295,10 +292,22 @@ public class YamlSDEData extends SDEData {
                     station.operationID(),
                     EnumSet.noneOf(Station.Service.class)
                 ));
-        });
+        })));
 
         HashMap<Integer, String> itemNames = new HashMap<>();
-        reader.readItemNames(itemName -> itemNames.put(itemName.itemID(), itemName.itemName()));
+        ForkJoinTask<?> itemNameTask = fork(() -> reader.readItemNames(itemName -> itemNames.put(itemName.itemID(), itemName.itemName())));
+
+        typeTask.join();
+        this.variants = this.produceMap();
+        for (Map.Entry<Integer, Set<Integer>> entry : typeVariants.entrySet()) {
+            entry.getValue().add(entry.getKey());
+            for (Integer typeID : entry.getValue()) {
+                this.variants.put(typeID, entry.getValue());
+            }
+        }
+
+        // The universe map requires types and item names, and is read on this thread while the remaining tasks finish
+        itemNameTask.join();
 
         this.regions = this.produceMap();
         this.constellations = this.produceMap();
@@ -460,14 +469,32 @@ public class YamlSDEData extends SDEData {
             int k = stargateSystemMap.get(entry.getKey());
             int v = stargateSystemMap.get(entry.getValue());
 
-            outJumps.computeIfAbsent(k, this::produceSet).add(v);
-            inJumps.computeIfAbsent(v, this::produceSet).add(k);
+            outJumps.computeIfAbsent(k, this::produceIntSet).add(v);
+            inJumps.computeIfAbsent(v, this::produceIntSet).add(k);
         }
 
+        for (ForkJoinTask<?> task : tasks) task.join();
+
         if (patch) this.patch();
         this.loadViews();
     }
 
+    /// Read of a single SDE file
+    private interface ReadTask {
+        void run() throws IOException;
+    }
+
+    /// Starts the read in the common fork-join pool; IOExceptions are rethrown when the task is joined
+    private static ForkJoinTask<?> fork(ReadTask task) {
+        return ForkJoinTask.adapt(() -> {
+            try {
+                task.run();
+            } catch (IOException e) {
+                ExceptionUtil.sneakyThrow(e);
+            }
+        }).fork();
+    }
+
     private IndustryActivity mapActivity(int bpTypeID, IndustryActivityType activityType, SdeBpActivity activity) {
         return new IndustryActivity(
             bpTypeID,
@@ -156,6 +156,54 @@ public class FSDData {
         return out;
     }
 
+    /// Creates FSD data from already loaded values, without requiring a game install
+    public FSDData(
+        LinkedHashMap<Integer, TypeList> typeLists,
+        LinkedHashMap<Integer, DynamicAttributes> dynamicAttributes,
+        LinkedHashMap<Integer, Graphic> graphics,
+        LinkedHashMap<Integer, Operation> stationOperations,
+        LinkedHashMap<Integer, WarfareBuff> warfareBuffs,
+        HashMap<Integer, String> localizationStrings
+    ) {
+        this.typeLists = typeLists;
+        this.dynamicAttributes = dynamicAttributes;
+        this.graphics = graphics;
+        this.stationOperations = stationOperations;
+        this.warfareBuffs = warfareBuffs;
+        this.localizationStrings = localizationStrings;
+    }
+
+    /// Serialized form of the loaded values, see {@link #write(Path)}
+    private record Values(
+        LinkedHashMap<Integer, TypeList> typeLists,
+        LinkedHashMap<Integer, DynamicAttributes> dynamicAttributes,
+        LinkedHashMap<Integer, Graphic> graphics,
+        LinkedHashMap<Integer, Operation> stationOperations,
+        LinkedHashMap<Integer, WarfareBuff> warfareBuffs,
+        HashMap<Integer, String> localizationStrings
+    ) {}
+
+    /// Writes the loaded values as JSON, which can be read with {@link #read(Path)} without requiring Python
+    public void write(Path file) throws IOException {
+        new ObjectMapper().writeValue(
+            file.toFile(),
+            new Values(typeLists, dynamicAttributes, graphics, stationOperations, warfareBuffs, localizationStrings)
+        );
+    }
+
+    /// Reads values written with {@link #write(Path)}
+    public static FSDData read(Path file) throws IOException {
+        Values values = new ObjectMapper().readValue(file.toFile(), Values.class);
+        return new FSDData(
+            values.typeLists,
+            values.dynamicAttributes,
+            values.graphics,
+            values.stationOperations,
+            values.warfareBuffs,
+            values.localizationStrings
+        );
+    }
+
     @SuppressWarnings("Convert2Diamond")
     public FSDData(SharedCacheReader sharedCache) {
         String libPath = Main.RES_FOLDER.resolve("pythonlib").toAbsolutePath().toString().replace("\\", "\\\\");
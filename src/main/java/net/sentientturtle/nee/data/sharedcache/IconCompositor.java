@@ -0,0 +1,323 @@
+package net.sentientturtle.nee.data.sharedcache;
+
+import net.sentientturtle.nee.util.ExceptionUtil;
+import org.jspecify.annotations.Nullable;
+
+import javax.imageio.IIOException;
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.IndexColorModel;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ConcurrentHashMap;
+
+/// In-process compositing of type icons, replacing the ImageMagick invocations noted on each operation
+///
+/// Images are held as premultiplied RGBA floats, resized with the filter ImageMagick would use, and composited at the top-left corner of the destination image, as ImageMagick does by default.
+/// Output is not bit-identical to ImageMagick's; Filter weights and rounding differ slightly.
+/// Backgrounds and overlays shared by many icons are decoded once and kept in memory.
+///
+/// Images are decoded with {@link ImageIO}; Formats it does not support are converted to PNG by ImageMagick first.
+final class IconCompositor {
+    /// Prefix for the icon cache keys of icons rendered by this class, which must change whenever the rendered output does
+    ///
+    /// Icons rendered by ImageMagick were cached without a prefix; See {@link IconProvider} for their reuse
+    static final String CACHE_KEY_PREFIX = "j2;";
+
+    private static final int ICON_SIZE = 64;
+    private static final int TECH_OVERLAY_SIZE = 16;
+
+    private static final ConcurrentHashMap<Path, Image> SHARED_IMAGES = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<Path, Image> TECH_OVERLAYS = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<Path, Image> BACKGROUNDS = new ConcurrentHashMap<>();
+
+    /// Image of premultiplied RGBA pixels in row-major order, with each component in 0..1
+    ///
+    /// @param alphaOrPalette Whether the decoded image has an alpha channel or a palette, which ImageMagick picks its resize filter by
+    private record Image(int width, int height, float[] pixels, boolean alphaOrPalette) {
+        Image(int width, int height) {
+            this(width, height, new float[width * height * 4], false);
+        }
+    }
+
+    private IconCompositor() {}
+
+    /// Replaces `magick <file> png:-`
+    static byte[] toPNG(Path file) throws IOException {
+        Image image = decode(file);
+        if (image == null) return imageMagickToPNG(file);
+        return encode(image);
+    }
+
+    /// Icon with tech overlay; Replaces `magick <icon> -resize 64x64 ( <techOverlay> -resize 16x16! ) -composite png:-`
+    static byte[] overlay(Path icon, Path techOverlay) throws IOException {
+        Image result = fit(read(icon), ICON_SIZE);
+        over(result, techOverlay(techOverlay));
+        return encode(result);
+    }
+
+    /// Blueprint icon; Replaces
+    /// `magick <background> <icon> -resize 64x64 -composite -compose plus <overlay> -composite -compose over ( <techOverlay> -resize 16x16! ) -composite png:-`,
+    /// omitting the tech overlay if it is null
+    static byte[] blueprint(Path background, Path icon, Path overlay, @Nullable Path techOverlay) throws IOException {
+        Image shared = BACKGROUNDS.computeIfAbsent(background, f -> fit(SHARED_IMAGES.computeIfAbsent(f, IconCompositor::readShared), ICON_SIZE));
+        // The shared background is copied, as it is composited onto
+        Image result = new Image(shared.width, shared.height, shared.pixels.clone(), false);
+        over(result, fit(read(icon), ICON_SIZE));
+        plus(result, SHARED_IMAGES.computeIfAbsent(overlay, IconCompositor::readShared));
+        if (techOverlay != null) over(result, techOverlay(techOverlay));
+        return encode(result);
+    }
+
+    private static Image techOverlay(Path file) {
+        return TECH_OVERLAYS.computeIfAbsent(file, f -> resize(SHARED_IMAGES.computeIfAbsent(f, IconCompositor::readShared), TECH_OVERLAY_SIZE, TECH_OVERLAY_SIZE));
+    }
+
+    private static Image readShared(Path file) {
+        try {
+            return read(file);
+        } catch (IOException e) {
+            return ExceptionUtil.sneakyThrow(e);
+        }
+    }
+
+    private static Image read(Path file) throws IOException {
+        Image image = decode(file);
+        if (image == null) image = decode(imageMagickToPNG(file));
+        if (image == null) throw new IOException("Unable to decode image: " + file);
+        return image;
+    }
+
+    /// @return The decoded image, or null if the format is not supported by ImageIO
+    private static @Nullable Image decode(Path file) throws IOException {
+        return decode(Files.readAllBytes(file));
+    }
+
+    /// @return The decoded image, or null if the format or its variant (e.g. a CMYK JPEG) is not supported by ImageIO
+    private static @Nullable Image decode(byte[] data) throws IOException {
+        BufferedImage bufferedImage;
+        try {
+            bufferedImage = ImageIO.read(new ByteArrayInputStream(data));
+        } catch (IIOException e) {
+            return null;
+        }
+        if (bufferedImage == null) return null;
+
+        int width = bufferedImage.getWidth();
+        int height = bufferedImage.getHeight();
+        int[] argb = bufferedImage.getRGB(0, 0, width, height, null, 0, width);
+        ColorModel colorModel = bufferedImage.getColorModel();
+        Image image = new Image(width, height, new float[width * height * 4], colorModel.hasAlpha() || colorModel instanceof IndexColorModel);
+        float[] pixels = image.pixels;
+        for (int i = 0; i < argb.length; i++) {
+            int pixel = argb[i];
+            float alpha = (pixel >>> 24) / 255f;
+            pixels[i * 4] = ((pixel >> 16) & 0xFF) / 255f * alpha;
+            pixels[i * 4 + 1] = ((pixel >> 8) & 0xFF) / 255f * alpha;
+            pixels[i * 4 + 2] = (pixel & 0xFF) / 255f * alpha;
+            pixels[i * 4 + 3] = alpha;
+        }
+        return image;
+    }
+
+    private static byte[] encode(Image image) throws IOException {
+        int[] argb = new int[image.width * image.height];
+        float[] pixels = image.pixels;
+        for (int i = 0; i < argb.length; i++) {
+            float alpha = clamp(pixels[i * 4 + 3]);
+            if (alpha == 0) continue;
+            argb[i] = (toByte(alpha) << 24)
+                      | (toByte(pixels[i * 4] / alpha) << 16)
+                      | (toByte(pixels[i * 4 + 1] / alpha) << 8)
+                      | toByte(pixels[i * 4 + 2] / alpha);
+        }
+
+        BufferedImage bufferedImage = new BufferedImage(image.width, image.height, BufferedImage.TYPE_INT_ARGB);
+        bufferedImage.setRGB(0, 0, image.width, image.height, argb, 0, image.width);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8 * 1024);
+        ImageIO.write(bufferedImage, "png", out);
+        return out.toByteArray();
+    }
+
+    private static float clamp(float value) {
+        return value < 0 ? 0 : Math.min(value, 1);
+    }
+
+    private static int toByte(float value) {
+        return (int) (clamp(value) * 255 + 0.5f);
+    }
+
+    /// Resizes the image to fit within a square, preserving its aspect ratio, as ImageMagick's `-resize <size>x<size>`
+    private static Image fit(Image image, int size) {
+        double scale = Math.min((double) size / image.width, (double) size / image.height);
+        int width = Math.max(1, (int) Math.round(image.width * scale));
+        int height = Math.max(1, (int) Math.round(image.height * scale));
+        return resize(image, width, height);
+    }
+
+    /// Resizes the image, first horizontally and then vertically
+    ///
+    /// As ImageMagick's default, the Mitchell filter is used when enlarging or for images with an alpha channel or palette, and the Lanczos filter otherwise.
+    private static Image resize(Image image, int width, int height) {
+        if (image.width == width && image.height == height) return image;
+
+        Filter filter = image.alphaOrPalette || (long) width * height > (long) image.width * image.height ? Filter.MITCHELL : Filter.LANCZOS;
+        Image horizontal = new Image(width, image.height);
+        Weights columns = new Weights(filter, image.width, width);
+        for (int y = 0; y < image.height; y++) {
+            columns.apply(image.pixels, y * image.width * 4, 4, horizontal.pixels, y * width * 4, 4);
+        }
+
+        Image result = new Image(width, height);
+        Weights rows = new Weights(filter, image.height, height);
+        for (int x = 0; x < width; x++) {
+            rows.apply(horizontal.pixels, x * 4, width * 4, result.pixels, x * 4, width * 4);
+        }
+        return result;
+    }
+
+    /// Resampling filters, with the definitions ImageMagick uses
+    private enum Filter {
+        /// Sinc windowed by sinc, with 3 lobes
+        LANCZOS(3) {
+            @Override
+            double weight(double x) {
+                if (x < 1e-8) return 1;
+                if (x >= 3) return 0;
+                double pi = Math.PI * x;
+                return 3 * Math.sin(pi) * Math.sin(pi / 3) / (pi * pi);
+            }
+        },
+        /// Cubic with B = C = 1/3
+        MITCHELL(2) {
+            @Override
+            double weight(double x) {
+                if (x < 1) return ((7 * x - 12) * x * x + 16.0 / 3) / 6;
+                if (x < 2) return (((-7.0 / 3 * x + 12) * x - 20) * x + 32.0 / 3) / 6;
+                return 0;
+            }
+        };
+
+        /// Radius beyond which the filter is zero, at a scale of 1
+        final int support;
+
+        Filter(int support) {
+            this.support = support;
+        }
+
+        /// @param x Distance from the filter's center, non-negative
+        abstract double weight(double x);
+    }
+
+    /// Filter weights for resampling a row or column of pixels
+    private static final class Weights {
+        private final int[] start;
+        private final int[] count;
+        private final float[] weights;
+        private final int stride;
+
+        Weights(Filter filter, int inputSize, int outputSize) {
+            double scale = (double) inputSize / outputSize;
+            // When shrinking, the filter is widened to cover all input pixels that contribute to an output pixel
+            double filterScale = Math.max(1, scale);
+            double support = filter.support * filterScale;
+
+            this.stride = (int) Math.ceil(support * 2) + 1;
+            this.start = new int[outputSize];
+            this.count = new int[outputSize];
+            this.weights = new float[outputSize * stride];
+
+            for (int i = 0; i < outputSize; i++) {
+                double center = (i + 0.5) * scale;
+                int first = Math.max(0, (int) Math.floor(center - support));
+                int last = Math.min(inputSize, (int) Math.ceil(center + support));
+                last = Math.min(last, first + stride);
+
+                double total = 0;
+                for (int j = first; j < last; j++) {
+                    total += filter.weight(Math.abs(j + 0.5 - center) / filterScale);
+                }
+                for (int j = first; j < last; j++) {
+                    weights[i * stride + j - first] = (float) (filter.weight(Math.abs(j + 0.5 - center) / filterScale) / total);
+                }
+                start[i] = first;
+                count[i] = last - first;
+            }
+        }
+
+        /// Resamples one row or column of RGBA pixels, with the given distance between consecutive pixels in the input and output arrays
+        void apply(float[] input, int inputOffset, int inputStep, float[] output, int outputOffset, int outputStep) {
+            for (int i = 0; i < start.length; i++) {
+                float r = 0, g = 0, b = 0, a = 0;
+                int position = inputOffset + start[i] * inputStep;
+                for (int j = 0; j < count[i]; j++) {
+                    float weight = weights[i * stride + j];
+                    r += input[position] * weight;
+                    g += input[position + 1] * weight;
+                    b += input[position + 2] * weight;
+                    a += input[position + 3] * weight;
+                    position += inputStep;
+                }
+                int out = outputOffset + i * outputStep;
+                output[out] = r;
+                output[out + 1] = g;
+                output[out + 2] = b;
+                output[out + 3] = a;
+            }
+        }
+    }
+
+    /// Composites the source over the destination, in place
+    private static void over(Image destination, Image source) {
+        int width = Math.min(destination.width, source.width);
+        int height = Math.min(destination.height, source.height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int s = (y * source.width + x) * 4;
+                int d = (y * destination.width + x) * 4;
+                float inverseAlpha = 1 - clamp(source.pixels[s + 3]);
+                for (int c = 0; c < 4; c++) {
+                    destination.pixels[d + c] = source.pixels[s + c] + destination.pixels[d + c] * inverseAlpha;
+                }
+            }
+        }
+    }
+
+    /// Adds the source to the destination, in place, with the sum limited to fully opaque
+    private static void plus(Image destination, Image source) {
+        int width = Math.min(destination.width, source.width);
+        int height = Math.min(destination.height, source.height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int s = (y * source.width + x) * 4;
+                int d = (y * destination.width + x) * 4;
+                for (int c = 0; c < 4; c++) {
+                    destination.pixels[d + c] = Math.min(1, source.pixels[s + c] + destination.pixels[d + c]);
+                }
+            }
+        }
+    }
+
+    /// Converts an image of a format that ImageIO does not support
+    private static byte[] imageMagickToPNG(Path file) throws IOException {
+        Process process = new ProcessBuilder("magick", file.toString(), "png:-").start();
+        byte[] bytes = process.getInputStream().readAllBytes();
+
+        try {
+            // This shouldn't block as we've already read all bytes
+            int statusCode = process.waitFor();
+            if (statusCode != 0) {
+                System.err.println(new String(process.getErrorStream().readAllBytes(), StandardCharsets.UTF_8));
+                throw new IllegalStateException("An imagemagick error occurred!");
+            }
+        } catch (InterruptedException e) {
+            ExceptionUtil.sneakyThrow(e);
+        }
+        return bytes;
+    }
+}
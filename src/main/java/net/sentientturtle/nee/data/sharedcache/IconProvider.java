@@ -5,6 +5,7 @@ import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import net.sentientturtle.nee.Main;
 import net.sentientturtle.nee.data.DataSources;
+import net.sentientturtle.nee.data.ResourceLocation;
 import net.sentientturtle.nee.data.datatypes.Group;
 import net.sentientturtle.nee.data.datatypes.Type;
 import net.sentientturtle.nee.util.ExceptionUtil;
@@ -13,16 +14,24 @@ import org.jspecify.annotations.Nullable;
 import java.io.*;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
@@ -33,13 +42,25 @@ public class IconProvider {
     // ConcurrentMap's support for parallel writes is required for icon generation parallelism to work!
     private static final AtomicBoolean CACHE_INVALID = new AtomicBoolean(false);
     private static final ConcurrentHashMap<String, byte[]> CACHED_ICONS = new ConcurrentHashMap<>();
+    // Keys of icons generated by this process, rather than read from the icon cache
+    private static final Set<String> GENERATED_ICONS = ConcurrentHashMap.newKeySet();
 
     public static void readIconCache() throws IOException {
-        if (Files.exists(Main.ICON_CACHE_FILE)) {
-            try (ZipInputStream zipInputStream = new ZipInputStream(new FileInputStream(Main.ICON_CACHE_FILE.toFile()))) {
+        readIconCache(Main.ICON_CACHE_FILE, false);
+    }
+
+    /// Adds the icons of a cache written by {@link #writeGeneratedIcons}, so that they are written to the icon cache
+    public static void mergeIconCache(Path file) throws IOException {
+        readIconCache(file, true);
+    }
+
+    /// @param merge If true, the icon cache is rewritten should the file contain icons not already cached
+    private static void readIconCache(Path file, boolean merge) throws IOException {
+        if (Files.exists(file)) {
+            try (ZipInputStream zipInputStream = new ZipInputStream(new FileInputStream(file.toFile()))) {
                 ZipEntry entry;
                 while ((entry = zipInputStream.getNextEntry()) != null) {
-                    CACHED_ICONS.put(entry.getName(), zipInputStream.readAllBytes());
+                    if (CACHED_ICONS.putIfAbsent(entry.getName(), zipInputStream.readAllBytes()) == null && merge) CACHE_INVALID.set(true);
                 }
             } catch (FileNotFoundException e) { // shouldn't happen, rethrow as runtime exception
                 ExceptionUtil.sneakyThrow(e);
@@ -49,20 +70,31 @@ public class IconProvider {
         }
     }
 
+    /// Writes the icon cache, if icons were generated or merged since it was read
     public static void writeIconCache() {
-        if (!CACHE_INVALID.get()) return;
+        if (!CACHE_INVALID.getAndSet(false)) return;
+        writeIcons(Main.ICON_CACHE_FILE, CACHED_ICONS.keySet());
+    }
+
+    /// Writes only the icons generated by this process, to be merged into the icon cache with {@link #mergeIconCache}
+    ///
+    /// Used by processes that share the icon cache with others, and therefore must not write it themselves
+    public static void writeGeneratedIcons(Path file) throws IOException {
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        writeIcons(tempFile, GENERATED_ICONS);
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+    }
 
-        try (ZipOutputStream zipOutputStream = new ZipOutputStream(new FileOutputStream(Main.ICON_CACHE_FILE.toFile()))) {
+    private static void writeIcons(Path file, Set<String> names) {
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(new FileOutputStream(file.toFile()))) {
             zipOutputStream.setLevel(Deflater.NO_COMPRESSION);
-            CACHED_ICONS.forEach((name, bytes) -> {
-                try {
-                    zipOutputStream.putNextEntry(new ZipEntry(name));
-                    zipOutputStream.write(bytes);
-                    zipOutputStream.closeEntry();
-                } catch (IOException e) {
-                    ExceptionUtil.sneakyThrow(e);
-                }
-            });
+            for (String name : names) {
+                byte[] bytes = CACHED_ICONS.get(name);
+                if (bytes == null) continue;    // Failed to generate
+                zipOutputStream.putNextEntry(new ZipEntry(name));
+                zipOutputStream.write(bytes);
+                zipOutputStream.closeEntry();
+            }
         } catch (IOException e) {
             ExceptionUtil.sneakyThrow(e);
         }
@@ -114,13 +146,102 @@ public class IconProvider {
 
     private static final Semaphore imageServiceSemaphore = new Semaphore(1);
 
+    /// Generates an icon that is not cached
+    private interface IconJob {
+        byte[] render() throws IOException;
+    }
+
+    /// Icon and the key it is cached under, or null if the icon is not cached
+    private record Icon(@Nullable String cacheKey, IconJob job) {}
+
     public static @Nullable byte[] getTypeIcon64(int typeID, DataSources dataSources, boolean isBPC, boolean useOldOverlay) throws IOException {
+        Icon icon = resolveTypeIcon64(typeID, dataSources, isBPC, useOldOverlay);
+        if (icon == null) {
+            return null;
+        } else if (icon.cacheKey == null) {
+            return icon.job.render();
+        } else {
+            return getCachedIcon(icon);
+        }
+    }
+
+    /// Icons rendered by ImageMagick are cached under the key without {@link IconCompositor#CACHE_KEY_PREFIX}, and are used in place of rendering the icon again
+    private static @Nullable byte[] getCached(String cacheKey) {
+        if (cacheKey.startsWith(IconCompositor.CACHE_KEY_PREFIX)) {
+            byte[] imageMagickIcon = CACHED_ICONS.get(cacheKey.substring(IconCompositor.CACHE_KEY_PREFIX.length()));
+            if (imageMagickIcon != null) return imageMagickIcon;
+        }
+        return CACHED_ICONS.get(cacheKey);
+    }
+
+    private static byte[] getCachedIcon(Icon icon) {
+        byte[] cached = getCached(icon.cacheKey);
+        if (cached != null) return cached;
+        return CACHED_ICONS.computeIfAbsent(
+            icon.cacheKey,
+            key -> {
+                CACHE_INVALID.set(true);
+                GENERATED_ICONS.add(key);
+                try {
+                    return icon.job.render();
+                } catch (IOException e) {
+                    return ExceptionUtil.sneakyThrow(e);
+                }
+            }
+        );
+    }
+
+    /// Generates type icons ahead of their use, on a fixed number of threads
+    ///
+    /// Icons are deduplicated by the key they are cached under; Icons that are already cached or are copied as-is are skipped.
+    public static void generateTypeIcons64(Collection<ResourceLocation.ResourceData.IconProvider64> icons, DataSources dataSources, int threads) throws IOException {
+        LinkedHashMap<String, Icon> pending = new LinkedHashMap<>();
+        for (ResourceLocation.ResourceData.IconProvider64 provider : icons) {
+            Icon icon = resolveTypeIcon64(provider.typeID(), dataSources, provider.isBPC(), provider.useOldOverlay());
+            if (icon != null && icon.cacheKey != null && getCached(icon.cacheKey) == null) {
+                pending.putIfAbsent(icon.cacheKey, icon);
+            }
+        }
+        System.out.println("Generating type icons: " + pending.size() + " of " + icons.size() + " not cached");
+        if (pending.isEmpty()) return;
+
+        long start = System.nanoTime();
+        AtomicInteger count = new AtomicInteger(0);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            ArrayList<Future<?>> futures = new ArrayList<>(pending.size());
+            for (Icon icon : pending.values()) {
+                futures.add(executor.submit(() -> {
+                    getCachedIcon(icon);
+                    int generated = count.incrementAndGet();
+                    if (generated % 500 == 0) {
+                        System.out.println("\t" + generated);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while generating type icons");
+        } catch (ExecutionException e) {
+            ExceptionUtil.sneakyThrow(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Generated %d type icons in %.1fs (%.0f icons/s, %d threads)%n", count.get(), seconds, count.get() / seconds, threads);
+    }
+
+    private static @Nullable Icon resolveTypeIcon64(int typeID, DataSources dataSources, boolean isBPC, boolean useOldOverlay) {
         Type type = dataSources.sdeData().getTypes().get(typeID);
         Group group = dataSources.sdeData().getGroups().get(type.groupID);
         int metaGroup = dataSources.sdeData().getMetaTypes().getOrDefault(type.typeID, 1);
 
         String cacheKey = null;
-        ProcessBuilder imageMagickCall = null;
+        IconJob iconJob = null;
         if (group.categoryID == 9 || group.categoryID == 34) {    // Blueprint
             String backgroundResource;
             String overlayResource;
@@ -143,7 +264,7 @@ public class IconProvider {
             }
 
             FSDData.Graphic graphic = dataSources.fsdData().graphics.get(type.graphicID != null ? type.graphicID : 0);
-            if (imageMagickCall == null && graphic != null && graphic.iconInfo() != null && !useIconInsteadOfGraphic(type.groupID)) {
+            if (iconJob == null && graphic != null && graphic.iconInfo() != null && !useIconInsteadOfGraphic(type.groupID)) {
                 String graphicResource;
                 if (graphic.iconInfo().folder().endsWith("/")) {
                     graphicResource = graphic.iconInfo().folder() + type.graphicID + (isBPC ? "_64_bpc.png" : "_64_bp.png");
@@ -156,91 +277,58 @@ public class IconProvider {
                     if (techOverlay == null) {
                         if (graphicResource.endsWith(".png")) {
                             // No need to cache
-                            return dataSources.sharedCache().getBytes(graphicResource);
+                            return new Icon(null, () -> dataSources.sharedCache().getBytes(graphicResource));
                         } else {
                             // Some resources are not PNGs
-                            cacheKey = dataSources.sharedCache().getResourceHash(graphicResource);
-                            imageMagickCall = new ProcessBuilder("magick", dataSources.sharedCache().getPath(graphicResource).toString(), "png:-");
+                            cacheKey = IconCompositor.CACHE_KEY_PREFIX + dataSources.sharedCache().getResourceHash(graphicResource);
+                            Path graphicPath = dataSources.sharedCache().getPath(graphicResource);
+                            iconJob = () -> IconCompositor.toPNG(graphicPath);
                         }
                     } else {
-                        cacheKey = metaGroup + ";" + useOldOverlay + ";" + dataSources.sharedCache().getResourceHash(graphicResource);
-                        imageMagickCall = new ProcessBuilder(
-                            "magick",
-                            dataSources.sharedCache().getPath(graphicResource).toString(),
-                            "-resize", "64x64",
-                            "(", techOverlay.toString(), "-resize", "16x16!", ")",
-                            "-composite",
-                            "png:-"
-                        );
+                        cacheKey = IconCompositor.CACHE_KEY_PREFIX + metaGroup + ";" + useOldOverlay + ";" + dataSources.sharedCache().getResourceHash(graphicResource);
+                        Path graphicPath = dataSources.sharedCache().getPath(graphicResource);
+                        iconJob = () -> IconCompositor.overlay(graphicPath, techOverlay);
                     }
                 } else if (type.iconID == null) {
-                    System.out.println("\tMissing BP graphic, falling back to image server!: " + type);
                     String bpType = isBPC ? "bpc" : "bp";
                     // use image-service specific caching so these will be invalid should the missing graphics return
                     cacheKey = "IMAGESERV;" + bpType + ";" + type.typeID;
-                        return CACHED_ICONS.computeIfAbsent(cacheKey, _ -> {
-                            System.out.println("\t\tconnecting to Image Service...");
-                            try {
-                                imageServiceSemaphore.acquire();
-                            } catch (InterruptedException e) {
-                                ExceptionUtil.sneakyThrow(new IOException("Interrupted while waiting on image service semaphore!", e));
-                            }
-                            try (InputStream inputStream = new URI("https://images.evetech.net/types/" + type.typeID + "/" + bpType).toURL().openStream()) {
-                                return inputStream.readAllBytes();
-                            } catch (IOException | URISyntaxException e) {
-                                return ExceptionUtil.sneakyThrow(e);
-                            } finally {
-                                imageServiceSemaphore.release();
-                            }
-                        });
+                    iconJob = () -> {
+                        System.out.println("\tMissing BP graphic, falling back to image server!: " + type);
+                        System.out.println("\t\tconnecting to Image Service...");
+                        try {
+                            imageServiceSemaphore.acquire();
+                        } catch (InterruptedException e) {
+                            ExceptionUtil.sneakyThrow(new IOException("Interrupted while waiting on image service semaphore!", e));
+                        }
+                        try (InputStream inputStream = new URI("https://images.evetech.net/types/" + type.typeID + "/" + bpType).toURL().openStream()) {
+                            return inputStream.readAllBytes();
+                        } catch (URISyntaxException e) {
+                            return ExceptionUtil.sneakyThrow(e);
+                        } finally {
+                            imageServiceSemaphore.release();
+                        }
+                    };
                 }
             }
 
-            if (imageMagickCall == null && type.iconID != null) {
+            if (iconJob == null && type.iconID != null) {
                 String iconResource = dataSources.sdeData().getEveIcons().get(type.iconID);
 
                 Path techOverlay = techOverlayPath(metaGroup, dataSources, useOldOverlay);
-                if (techOverlay != null) {
-                    cacheKey = metaGroup
-                               + ";" + useOldOverlay
-                               + ";" + dataSources.sharedCache().getResourceHash(backgroundResource)
-                               + ";" + dataSources.sharedCache().getResourceHash(iconResource)
-                               + ";" + dataSources.sharedCache().getResourceHash(overlayResource);
-                    imageMagickCall = new ProcessBuilder(
-                        "magick",
-                        dataSources.sharedCache().getPath(backgroundResource).toString(),
-                        dataSources.sharedCache().getPath(iconResource).toString(),
-                        "-resize", "64x64",
-                        "-composite",
-                        "-compose", "plus",
-                        dataSources.sharedCache().getPath(overlayResource).toString(),
-                        "-composite",
-                        "-compose", "over",
-                        "(", techOverlay.toString(), "-resize", "16x16!", ")",
-                        "-composite",
-                        "png:-"
-                    );
-                } else {
-                    cacheKey = metaGroup
-                               + ";" + useOldOverlay
-                               + ";" + dataSources.sharedCache().getResourceHash(backgroundResource)
-                               + ";" + dataSources.sharedCache().getResourceHash(iconResource)
-                               + ";" + dataSources.sharedCache().getResourceHash(overlayResource);
-                    imageMagickCall = new ProcessBuilder(
-                        "magick",
-                        dataSources.sharedCache().getPath(backgroundResource).toString(),
-                        dataSources.sharedCache().getPath(iconResource).toString(),
-                        "-resize", "64x64",
-                        "-composite",
-                        "-compose", "plus",
-                        dataSources.sharedCache().getPath(overlayResource).toString(),
-                        "-composite",
-                        "png:-"
-                    );
-                }
+                cacheKey = IconCompositor.CACHE_KEY_PREFIX + metaGroup
+                           + ";" + useOldOverlay
+                           + ";" + dataSources.sharedCache().getResourceHash(backgroundResource)
+                           + ";" + dataSources.sharedCache().getResourceHash(iconResource)
+                           + ";" + dataSources.sharedCache().getResourceHash(overlayResource);
+                Path backgroundPath = dataSources.sharedCache().getPath(backgroundResource);
+                Path iconPath = dataSources.sharedCache().getPath(iconResource);
+                Path overlayPath = dataSources.sharedCache().getPath(overlayResource);
+                // Without tech overlay if null
+                iconJob = () -> IconCompositor.blueprint(backgroundPath, iconPath, overlayPath, techOverlay);
             }
 
-            if (imageMagickCall == null) {
+            if (iconJob == null) {
                 return null;
             }
         } else {    // Regular item
@@ -264,49 +352,24 @@ public class IconProvider {
             }
             Path techOverlay = techOverlayPath(metaGroup, dataSources, useOldOverlay);
             if (techOverlay != null) {
-                cacheKey = metaGroup + ";" + useOldOverlay + ";" + dataSources.sharedCache().getResourceHash(iconResource);
-                imageMagickCall = new ProcessBuilder(
-                    "magick",
-                    dataSources.sharedCache().getPath(iconResource).toString(),
-                    "-resize", "64x64",
-                    "(", techOverlay.toString(), "-resize", "16x16!", ")",
-                    "-composite",
-                    "png:-"
-                );
+                cacheKey = IconCompositor.CACHE_KEY_PREFIX + metaGroup + ";" + useOldOverlay + ";" + dataSources.sharedCache().getResourceHash(iconResource);
+                Path iconPath = dataSources.sharedCache().getPath(iconResource);
+                iconJob = () -> IconCompositor.overlay(iconPath, techOverlay);
             } else {
                 if (iconResource.endsWith(".png")) {
                     // No need to cache
-                    return dataSources.sharedCache().getBytes(iconResource);
+                    String finalIconResource = iconResource;
+                    return new Icon(null, () -> dataSources.sharedCache().getBytes(finalIconResource));
                 } else {
-                    cacheKey = dataSources.sharedCache().getResourceHash(iconResource);
-                    imageMagickCall = new ProcessBuilder("magick", dataSources.sharedCache().getPath(iconResource).toString(), "png:-");
+                    cacheKey = IconCompositor.CACHE_KEY_PREFIX + dataSources.sharedCache().getResourceHash(iconResource);
+                    Path iconPath = dataSources.sharedCache().getPath(iconResource);
+                    iconJob = () -> IconCompositor.toPNG(iconPath);
                 }
             }
         }
 
         assert cacheKey != null;
-        ProcessBuilder finalImageMagickCall = imageMagickCall;
-        return CACHED_ICONS.computeIfAbsent(
-            cacheKey,
-            _ -> {
-                CACHE_INVALID.set(true);
-                try {
-                    Process process = finalImageMagickCall.start();
-                    byte[] bytes = process.getInputStream().readAllBytes();
-
-                    // This shouldn't block as we've already read all bytes
-                    int statusCode = process.waitFor();
-                    if (statusCode != 0) {
-                        System.err.println(new String(process.getErrorStream().readAllBytes(), StandardCharsets.UTF_8));
-                        throw new IllegalStateException("An imagemagick error occurred!");
-                    }
-
-                    return bytes;
-                } catch (InterruptedException | IOException e) {
-                    return ExceptionUtil.sneakyThrow(e);
-                }
-            }
-        );
+        return new Icon(cacheKey, iconJob);
     }
 
     public static boolean hasRender(Type type, DataSources dataSources) {
@@ -355,32 +418,9 @@ public class IconProvider {
         } else if (!convertToPNG) {
             return dataSources.sharedCache().getBytes(renderResource);
         } else {
-            String cacheKey = dataSources.sharedCache().getResourceHash(renderResource);
-            return CACHED_ICONS.computeIfAbsent(
-                cacheKey,
-                _ -> {
-                    try {
-                        Process process = new ProcessBuilder(
-                            "magick",
-                            dataSources.sharedCache().getPath(renderResource).toString(),
-                            "png:-"
-                        ).start();
-                        byte[] bytes = process.getInputStream().readAllBytes();
-
-                        // This shouldn't block as we've already read all bytes
-                        int statusCode = process.waitFor();
-
-                        if (statusCode != 0) {
-                            System.err.println(new String(process.getErrorStream().readAllBytes(), StandardCharsets.UTF_8));
-                            throw new IllegalStateException("An imagemagick error occurred!");
-                        }
-
-                        return bytes;
-                    } catch (InterruptedException | IOException e) {
-                        return ExceptionUtil.sneakyThrow(e);
-                    }
-                }
-            );
+            String cacheKey = IconCompositor.CACHE_KEY_PREFIX + dataSources.sharedCache().getResourceHash(renderResource);
+            Path renderPath = dataSources.sharedCache().getPath(renderResource);
+            return getCachedIcon(new Icon(cacheKey, () -> IconCompositor.toPNG(renderPath)));
         }
     }
 }
@@ -0,0 +1,91 @@
+package net.sentientturtle.nee.data.sharedcache;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/// Cache of resource data, keyed by {@link ResourceIndex} index, bounded by the total size of the cached data in bytes
+///
+/// Once the cached data exceeds the capacity, the least recently used resources are evicted.
+/// Pinned resources are kept in a separate tier, which is never evicted and does not count towards the capacity.
+final class ResourceCache {
+    /// Loads the data of a resource that is not cached
+    interface Loader {
+        byte[] load() throws IOException;
+    }
+
+    private final long capacity;
+    private final Set<Integer> pinnedKeys = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<Integer, byte[]> pinned = new ConcurrentHashMap<>();
+    // Access-ordered, guarded by this
+    private final LinkedHashMap<Integer, byte[]> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long size = 0;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /// @param capacity Maximum total size of the cached data in bytes, excluding pinned resources
+    ResourceCache(long capacity) {
+        this.capacity = capacity;
+    }
+
+    /// Keeps the resource in memory once loaded
+    void pin(int key) {
+        pinnedKeys.add(key);
+    }
+
+    byte[] get(int key, Loader loader) throws IOException {
+        byte[] data = pinned.get(key);
+        if (data == null) {
+            synchronized (this) {
+                data = entries.get(key);
+            }
+        }
+        if (data != null) {
+            hits.increment();
+            return data;
+        }
+
+        // Resources are loaded outside the lock; Concurrent misses of the same resource may each load it
+        misses.increment();
+        data = loader.load();
+
+        if (pinnedKeys.contains(key)) {
+            byte[] previous = pinned.putIfAbsent(key, data);
+            return previous != null ? previous : data;
+        }
+        // Resources that would take up a large part of the cache would evict many others, and are not cached
+        if (data.length > capacity / 8) return data;
+
+        synchronized (this) {
+            byte[] previous = entries.put(key, data);
+            if (previous != null) size -= previous.length;
+            size += data.length;
+
+            Iterator<Map.Entry<Integer, byte[]>> iterator = entries.entrySet().iterator();
+            while (size > capacity && iterator.hasNext()) {
+                size -= iterator.next().getValue().length;
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+        return data;
+    }
+
+    long getHits() {
+        return hits.sum();
+    }
+
+    long getMisses() {
+        return misses.sum();
+    }
+
+    long getEvictions() {
+        return evictions.sum();
+    }
+}
@@ -0,0 +1,223 @@
+package net.sentientturtle.nee.data.sharedcache;
+
+import org.jspecify.annotations.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.zip.CRC32C;
+
+/// Index of the shared cache's resources, mapping each resource to its location in the `ResFiles` folder and its file hash
+///
+/// All strings are stored in a single string table, with each entry's resource name, location and hash stored consecutively.
+/// Entries are sorted by lowercase resource name, and looked up by binary search comparing case-insensitively, without lowercasing the looked up resource.
+///
+/// Parsing the index file is comparatively slow, so the parsed index is cached in a binary file, which is reused for as long as the index file's checksum is unchanged.
+final class ResourceIndex {
+    private static final int MAGIC = 0x4E454549;    // "NEEI"
+    /// Version of the cache file format; Must be incremented whenever the format changes
+    private static final int VERSION = 1;
+
+    private final String table;
+    /// Start of the resource name, location, and hash of each entry, followed by the end of the table
+    private final int[] offsets;
+
+    private ResourceIndex(String table, int[] offsets) {
+        this.table = table;
+        this.offsets = offsets;
+    }
+
+    /// Reads the index file, or its cached form
+    ///
+    /// @param cacheFile File the parsed index is cached in, or null to always parse the index file
+    static ResourceIndex load(Path indexFile, @Nullable Path cacheFile) throws IOException {
+        long checksum = checksum(indexFile);
+        if (cacheFile != null) {
+            ResourceIndex cached = readCache(cacheFile, checksum);
+            if (cached != null) return cached;
+        }
+
+        ResourceIndex index = parse(indexFile);
+        if (cacheFile != null) index.writeCache(cacheFile, checksum);
+        return index;
+    }
+
+    /// @return Number of resources
+    int size() {
+        return (offsets.length - 1) / 3;
+    }
+
+    /// @return Index of the resource, compared case-insensitively, or -1 if the shared cache does not contain the resource
+    int indexOf(String resource) {
+        int low = 0;
+        int high = size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compare(middle, resource);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    /// @return Location of the resource, relative to the `ResFiles` folder
+    String location(int index) {
+        return table.substring(offsets[index * 3 + 1], offsets[index * 3 + 2]);
+    }
+
+    String hash(int index) {
+        return table.substring(offsets[index * 3 + 2], offsets[index * 3 + 3]);
+    }
+
+    /// Compares the lowercase resource name of an entry to the lowercased resource
+    private int compare(int index, String resource) {
+        int start = offsets[index * 3];
+        int length = offsets[index * 3 + 1] - start;
+        int common = Math.min(length, resource.length());
+        for (int i = 0; i < common; i++) {
+            char a = table.charAt(start + i);
+            char b = Character.toLowerCase(resource.charAt(i));
+            if (a != b) return a - b;
+        }
+        return length - resource.length();
+    }
+
+    /// Lowercases a resource name in the same way as {@link #compare}
+    private static String toLowerCase(String resource) {
+        char[] chars = resource.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    /// Parses the index file; Each line holds the resource name, location, and hash, followed by two fields that are not used
+    private static ResourceIndex parse(Path indexFile) throws IOException {
+        record Entry(String resource, String location, String hash, int line) {}
+
+        ArrayList<Entry> entries = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int first = line.indexOf(',');
+                int second = first >= 0 ? line.indexOf(',', first + 1) : -1;
+                int third = second >= 0 ? line.indexOf(',', second + 1) : -1;
+                int fourth = third >= 0 ? line.indexOf(',', third + 1) : -1;
+                if (fourth < 0 || fourth == line.length() - 1) throw new IOException("Invalid index file format!");
+
+                entries.add(new Entry(
+                    toLowerCase(line.substring(0, first).replace('\\', '/')),
+                    line.substring(first + 1, second),
+                    line.substring(second + 1, third),
+                    entries.size()
+                ));
+            }
+        }
+
+        // Of resources listed more than once, the last listing is used
+        entries.sort(Comparator.comparing(Entry::resource).thenComparing(Entry::line, Comparator.reverseOrder()));
+
+        StringBuilder table = new StringBuilder();
+        int[] offsets = new int[entries.size() * 3 + 1];
+        int count = 0;
+        String previous = null;
+        for (Entry entry : entries) {
+            if (entry.resource.equals(previous)) continue;
+            previous = entry.resource;
+
+            offsets[count * 3] = table.length();
+            table.append(entry.resource);
+            offsets[count * 3 + 1] = table.length();
+            table.append(entry.location);
+            offsets[count * 3 + 2] = table.length();
+            table.append(entry.hash);
+            count++;
+        }
+        offsets[count * 3] = table.length();
+
+        return new ResourceIndex(table.toString(), Arrays.copyOf(offsets, count * 3 + 1));
+    }
+
+    private static long checksum(Path file) throws IOException {
+        CRC32C crc = new CRC32C();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            crc.update(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+        // Combined with the file size, to make collisions between different versions of the index less likely
+        return (Files.size(file) << 32) | crc.getValue();
+    }
+
+    /// @return The cached index, or null if there is no cached index for an index file with the given checksum, or the cache file is truncated or corrupt
+    private static @Nullable ResourceIndex readCache(Path cacheFile, long checksum) throws IOException {
+        if (!Files.exists(cacheFile)) return null;
+        try (FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.READ)) {
+            // The header is checked before mapping, as a mapping is only released once garbage collected, and a mapped file cannot be replaced on Windows
+            ByteBuffer header = ByteBuffer.allocate(16);
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) return null;
+            }
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION || header.getLong() != checksum || channel.size() < 20) return null;
+
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            in.position(header.capacity());
+            int offsetCount = in.getInt();
+            // Each entry has three offsets, followed by the end of the table
+            if (offsetCount < 1 || offsetCount % 3 != 1 || (long) offsetCount * Integer.BYTES > in.remaining() - Integer.BYTES) return null;
+            int[] offsets = new int[offsetCount];
+            in.asIntBuffer().get(offsets);
+            in.position(in.position() + offsets.length * Integer.BYTES);
+
+            int tableLength = in.getInt();
+            if (tableLength < 0 || (long) tableLength * Character.BYTES != in.remaining()) return null;
+            char[] table = new char[tableLength];
+            in.asCharBuffer().get(table);
+
+            // Offsets must be ascending and within the table, as lookups do not check them
+            int previous = 0;
+            for (int offset : offsets) {
+                if (offset < previous) return null;
+                previous = offset;
+            }
+            if (offsets[offsets.length - 1] != tableLength) return null;
+
+            return new ResourceIndex(new String(table), offsets);
+        }
+    }
+
+    /// The cache is written to a temporary file first, and then moved into place
+    private void writeCache(Path cacheFile, long checksum) throws IOException {
+        Path tempFile = cacheFile.resolveSibling(cacheFile.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(checksum);
+
+            out.writeInt(offsets.length);
+            ByteBuffer buffer = ByteBuffer.allocate(offsets.length * Integer.BYTES);
+            buffer.asIntBuffer().put(offsets);
+            out.write(buffer.array());
+
+            out.writeInt(table.length());
+            out.writeChars(table);
+        }
+        Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -1,26 +1,29 @@
 package net.sentientturtle.nee.data.sharedcache;
 
-import net.sentientturtle.nee.util.ExceptionUtil;
 import org.jspecify.annotations.Nullable;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.HashMap;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Stream;
-
-import static net.sentientturtle.nee.util.ExceptionUtil.sneakyThrow;
+import java.nio.file.StandardOpenOption;
 
 /// Reader for the EVE Online game files; Referred to as "Shared Cache"
 ///
 /// Resources are specified by a shared-cache specific path; e.g. "res:/ui/texture/icons/7_64_15.png", referred to as `resource` in this project
+///
+/// Data of read resources is cached in memory, up to a configured total size; See {@link #pin(String)} for resources that should never be evicted
 public class SharedCacheReader {
-    private final HashMap<String, Path> cacheIndex;
-    private final HashMap<String, String> resourceHashes;
-    private final ConcurrentHashMap<String, byte[]> dataCache;
+    /// Default capacity of the data cache, in bytes
+    public static final long DEFAULT_CACHE_CAPACITY = 256L * 1024 * 1024;
+    /// Files smaller than this are read onto the heap rather than memory-mapped; A mapping is only released once garbage collected, and holds a lock on its file until then
+    public static final long MAP_THRESHOLD = 64 * 1024;
+
+    private final ResourceIndex index;
+    private final ResourceCache dataCache;
     private final Path cacheFolder;
     private final Path resFiles;
 
@@ -30,28 +33,25 @@ public class SharedCacheReader {
      * @throws IOException If an IO error occurs parsing the cache index file
      */
     public SharedCacheReader(Path cacheFolder) throws IOException {
+        this(cacheFolder, DEFAULT_CACHE_CAPACITY, null);
+    }
+
+    /**
+     * Initializes SharedCacheReader
+     * @param cacheFolder Path to the cache data folder; Usually the `SharedCache` folder within the game install folder
+     * @param cacheCapacity Maximum total size of cached resource data, in bytes
+     * @param indexCacheFile File in which the parsed cache index is kept between runs, or null to parse the cache index file every run
+     * @throws IOException If an IO error occurs parsing the cache index file
+     */
+    public SharedCacheReader(Path cacheFolder, long cacheCapacity, @Nullable Path indexCacheFile) throws IOException {
         this.cacheFolder = cacheFolder;
         this.resFiles = cacheFolder.resolve("ResFiles");
 
         Path indexFile = cacheFolder.resolve("tq/resfileindex.txt");
         if (!Files.exists(indexFile)) throw new IOException("No cache index file in cache folder " + cacheFolder);
 
-        this.cacheIndex = new HashMap<>();
-        this.resourceHashes = new HashMap<>();
-        try (Stream<String> lines = Files.lines(indexFile)) {
-            lines.forEach(line -> {
-                String[] split = line.split(",");
-                if (split.length < 5) ExceptionUtil.sneakyThrow(new IOException("Invalid index file format!"));
-
-                String resource = split[0].replace('\\', '/');
-                String location = split[1];
-                String fileHash = split[2];
-                cacheIndex.put(resource.toLowerCase(), Path.of(location));
-                resourceHashes.put(resource.toLowerCase(), fileHash);
-            });
-        }
-
-        this.dataCache = new ConcurrentHashMap<>();
+        this.index = ResourceIndex.load(indexFile, indexCacheFile);
+        this.dataCache = new ResourceCache(cacheCapacity);
     }
 
     Path getCacheFolder() {
@@ -59,49 +59,60 @@ public class SharedCacheReader {
     }
 
     public boolean containsResource(String resource) {
-        Path resourcePath = cacheIndex.get(resource.toLowerCase());
-        return resourcePath != null && Files.exists(resFiles.resolve(resourcePath));
+        int i = index.indexOf(resource);
+        return i >= 0 && Files.exists(resFiles.resolve(index.location(i)));
     }
 
     public @Nullable String getResourceHash(String resource) {
-        return this.resourceHashes.get(resource.toLowerCase());
+        int i = index.indexOf(resource);
+        return i >= 0 ? index.hash(i) : null;
     }
 
     public Path getPath(String resource) {
-        Path resourcePath = cacheIndex.get(resource.toLowerCase());
-        if (resourcePath == null) throw new IllegalArgumentException("File not in shared cache: " + resource);
-        return resFiles.resolve(resourcePath);
+        int i = index.indexOf(resource);
+        if (i < 0) throw new IllegalArgumentException("File not in shared cache: " + resource);
+        return resFiles.resolve(index.location(i));
     }
 
     public byte[] getBytes(String resource) throws IOException {
-        Path resourcePath = cacheIndex.get(resource.toLowerCase());
-        if (resourcePath == null) throw new IllegalArgumentException("File not in shared cache: " + resource);
-
-        return dataCache.computeIfAbsent(
-            resource.toLowerCase(),
-            _ -> {
-                try {
-                    return Files.readAllBytes(resFiles.resolve(resourcePath));
-                } catch (IOException e) {
-                    return sneakyThrow(e);
-                }
-            }
-        );
+        int i = index.indexOf(resource);
+        if (i < 0) throw new IllegalArgumentException("File not in shared cache: " + resource);
+
+        return dataCache.get(i, () -> Files.readAllBytes(resFiles.resolve(index.location(i))));
+    }
+
+    /// Reads a resource file as a read-only buffer, memory-mapping files of at least {@link #MAP_THRESHOLD} bytes
+    ///
+    /// Mapped data is not cached; This is intended for resources that are copied into the output as-is, which do not need to be on the heap.
+    public ByteBuffer getBuffer(String resource) throws IOException {
+        try (FileChannel channel = FileChannel.open(getPath(resource), StandardOpenOption.READ)) {
+            if (channel.size() >= MAP_THRESHOLD) return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        return ByteBuffer.wrap(getBytes(resource)).asReadOnlyBuffer();
     }
 
     public InputStream getInputStream(String resource) throws IOException {
-        Path resourcePath = cacheIndex.get(resource.toLowerCase());
-        if (resourcePath == null) throw new IllegalArgumentException("File not in shared cache: " + resource);
-
-        return new ByteArrayInputStream(dataCache.computeIfAbsent(
-            resource.toLowerCase(),
-            _ -> {
-                try {
-                    return Files.readAllBytes(resFiles.resolve(resourcePath));
-                } catch (IOException e) {
-                    return sneakyThrow(e);
-                }
-            }
-        ));
+        return new ByteArrayInputStream(getBytes(resource));
+    }
+
+    /// Keeps the data of a resource in memory once read, for resources read throughout the build
+    public void pin(String resource) {
+        int i = index.indexOf(resource);
+        if (i >= 0) dataCache.pin(i);
+    }
+
+    /// @return Number of resource reads served from the data cache
+    public long getCacheHits() {
+        return dataCache.getHits();
+    }
+
+    /// @return Number of resource reads that had to read the resource file
+    public long getCacheMisses() {
+        return dataCache.getMisses();
+    }
+
+    /// @return Number of resources evicted from the data cache
+    public long getCacheEvictions() {
+        return dataCache.getEvictions();
     }
 }
@@ -0,0 +1,156 @@
+package net.sentientturtle.nee.output;
+
+import org.jspecify.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/// Content hashes of every file written by a build, used to detect unchanged files in the next build
+///
+/// Stored as a text file, with a header line holding the build number, followed by one `hash<TAB>path` line per file.
+public final class BuildManifest {
+    private static final String HEADER = "# build ";
+    private static final ThreadLocal<MessageDigest> DIGESTS = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final @Nullable String previousBuildNumber;
+    private final Map<String, String> previous;
+    private final ConcurrentHashMap<String, String> current = new ConcurrentHashMap<>();
+
+    private BuildManifest(@Nullable String previousBuildNumber, Map<String, String> previous) {
+        this.previousBuildNumber = previousBuildNumber;
+        this.previous = previous;
+    }
+
+    /// Loads the manifest of the previous build, or an empty manifest if there is none
+    public static BuildManifest load(Path file) throws IOException {
+        if (!Files.exists(file)) return new BuildManifest(null, Map.of());
+
+        String buildNumber = null;
+        HashMap<String, String> hashes = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(HEADER)) {
+                    buildNumber = line.substring(HEADER.length());
+                } else if (!line.isEmpty()) {
+                    int tab = line.indexOf('\t');
+                    if (tab < 0) throw new IOException("Malformed build manifest line: " + line);
+                    hashes.put(line.substring(tab + 1), line.substring(0, tab));
+                }
+            }
+        }
+        return new BuildManifest(buildNumber, hashes);
+    }
+
+    /// Build number of the previous build, or null if there was none
+    public @Nullable String getPreviousBuildNumber() {
+        return previousBuildNumber;
+    }
+
+    /// Records the contents of a file
+    ///
+    /// @return True if the file is unchanged from the previous build
+    public boolean record(String path, byte[] data, int length) {
+        return record(path, hash(data, length));
+    }
+
+    /// Records the contents of a file, from the remaining bytes of the buffer
+    ///
+    /// @return True if the file is unchanged from the previous build
+    public boolean record(String path, ByteBuffer data) {
+        MessageDigest digest = DIGESTS.get();
+        digest.reset();
+        digest.update(data.duplicate());
+        return record(path, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    /// Records the version of a file, see {@link net.sentientturtle.nee.data.ResourceLocation.ResourceData#getVersion}
+    ///
+    /// @return True if the file is unchanged from the previous build
+    public boolean recordVersion(String path, String version) {
+        byte[] bytes = version.getBytes(StandardCharsets.UTF_8);
+        return record(path, "v" + hash(bytes, bytes.length));
+    }
+
+    private boolean record(String path, String hash) {
+        // Only the first record of a path is kept, so that a version recorded before falling back to writing the file's contents is retained
+        if (current.putIfAbsent(path, hash) != null) return false;
+        return hash.equals(previous.get(path));
+    }
+
+    /// Carries over the previous build's record of a file that was not written in this build
+    ///
+    /// @return False if the previous build did not contain the file
+    public boolean retain(String path) {
+        String hash = previous.get(path);
+        if (hash == null) return false;
+        current.putIfAbsent(path, hash);
+        return true;
+    }
+
+    /// @return True if the file was written with different contents than in the previous build, or did not exist in the previous build
+    public boolean isChanged(String path) {
+        String hash = current.get(path);
+        return hash != null && !hash.equals(previous.get(path));
+    }
+
+    /// @return Files of the previous build that were not written in this build
+    public List<String> getRemoved() {
+        return previous.keySet()
+            .stream()
+            .filter(path -> !current.containsKey(path))
+            .sorted()
+            .toList();
+    }
+
+    /// @return Files that were added, changed, or removed since the previous build
+    public List<String> getChanged() {
+        TreeSet<String> changed = new TreeSet<>(getRemoved());
+        for (String path : current.keySet()) {
+            if (isChanged(path)) changed.add(path);
+        }
+        return List.copyOf(changed);
+    }
+
+    /// Writes the manifest of this build
+    public void write(Path file, String buildNumber) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.write(buildNumber);
+            writer.write('\n');
+            for (Map.Entry<String, String> entry : new TreeMap<>(current).entrySet()) {
+                writer.write(entry.getValue());
+                writer.write('\t');
+                writer.write(entry.getKey());
+                writer.write('\n');
+            }
+        }
+    }
+
+    private static String hash(byte[] data, int length) {
+        MessageDigest digest = DIGESTS.get();
+        digest.reset();
+        digest.update(data, 0, length);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
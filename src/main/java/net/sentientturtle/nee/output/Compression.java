@@ -0,0 +1,94 @@
+package net.sentientturtle.nee.output;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/// Deflate and gzip helpers using per-thread {@link Deflater} instances and scratch buffers, so that entries can be compressed concurrently without sharing state
+final class Compression {
+    private static final int GZIP_HEADER_SIZE = 10;
+    private static final int GZIP_TRAILER_SIZE = 8;
+
+    // One raw ("nowrap") deflater per compression level, indexed by level + 1 to accommodate DEFAULT_COMPRESSION (-1)
+    private static final ThreadLocal<Deflater[]> DEFLATERS = ThreadLocal.withInitial(() -> new Deflater[Deflater.BEST_COMPRESSION + 2]);
+    private static final ThreadLocal<byte[]> BUFFERS = ThreadLocal.withInitial(() -> new byte[64 * 1024]);
+
+    private Compression() {}
+
+    static int crc32(byte[] data, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(data, offset, length);
+        return (int) crc.getValue();
+    }
+
+    /// CRC of the buffer's remaining bytes; The buffer's position is not changed
+    static int crc32(ByteBuffer data) {
+        CRC32 crc = new CRC32();
+        crc.update(data.duplicate());
+        return (int) crc.getValue();
+    }
+
+    /// Raw deflate, without zlib header or trailer, as used in zip entries
+    static byte[] deflate(byte[] data, int offset, int length, int level) {
+        return deflate(ByteBuffer.wrap(data, offset, length), level, 0, 0);
+    }
+
+    /// See {@link #deflate(byte[], int, int, int)}; Compresses the buffer's remaining bytes, without changing its position
+    static byte[] deflate(ByteBuffer data, int level) {
+        return deflate(data.duplicate(), level, 0, 0);
+    }
+
+    /// Gzip file contents, equivalent to the output of {@link java.util.zip.GZIPOutputStream}
+    static byte[] gzip(byte[] data, int offset, int length) {
+        return gzip(ByteBuffer.wrap(data, offset, length));
+    }
+
+    /// See {@link #gzip(byte[], int, int)}; Compresses the buffer's remaining bytes, without changing its position
+    static byte[] gzip(ByteBuffer data) {
+        int length = data.remaining();
+        byte[] out = deflate(data.duplicate(), Deflater.DEFAULT_COMPRESSION, GZIP_HEADER_SIZE, GZIP_TRAILER_SIZE);
+        out[0] = (byte) 0x1f;
+        out[1] = (byte) 0x8b;
+        out[2] = Deflater.DEFLATED;
+        // Flags, modification time, extra flags and OS are zero
+        Arrays.fill(out, 3, GZIP_HEADER_SIZE, (byte) 0);
+
+        int crc = crc32(data);
+        int trailer = out.length - GZIP_TRAILER_SIZE;
+        writeIntLE(out, trailer, crc);
+        writeIntLE(out, trailer + 4, length);
+        return out;
+    }
+
+    /// Direct buffers, such as memory-mapped files, are compressed without copying them onto the heap
+    private static byte[] deflate(ByteBuffer data, int level, int headerSpace, int trailerSpace) {
+        Deflater[] deflaters = DEFLATERS.get();
+        Deflater deflater = deflaters[level + 1];
+        if (deflater == null) {
+            deflater = deflaters[level + 1] = new Deflater(level, true);
+        }
+
+        byte[] buffer = BUFFERS.get();
+        int size = headerSpace;
+        deflater.setInput(data);
+        deflater.finish();
+        while (!deflater.finished()) {
+            if (size == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            size += deflater.deflate(buffer, size, buffer.length - size);
+        }
+        deflater.reset();
+        BUFFERS.set(buffer);
+
+        return Arrays.copyOf(buffer, size + trailerSpace);
+    }
+
+    private static void writeIntLE(byte[] array, int index, int value) {
+        array[index] = (byte) value;
+        array[index + 1] = (byte) (value >>> 8);
+        array[index + 2] = (byte) (value >>> 16);
+        array[index + 3] = (byte) (value >>> 24);
+    }
+}
@@ -0,0 +1,143 @@
+package net.sentientturtle.nee.output;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/// {@link OutputSink} that writes files directly into a directory tree
+///
+/// Gzip compression happens on the calling thread, file writes are handed to a bounded pool of writer threads.
+/// If the pool falls behind, the calling thread writes the file itself.
+/// Existing files are overwritten, and only removed through {@link #delete}.
+public final class DirectoryOutputSink implements OutputSink {
+    private static final Set<StandardOpenOption> OPEN_OPTIONS = Set.of(StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+    private final Path root;
+    private final Set<Path> createdFolders = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor writers;
+    private volatile Throwable failure = null;
+
+    /// @param root          Output directory, created if it does not exist
+    /// @param folders       Folders to create up front, relative to the output directory
+    /// @param writerThreads Number of threads writing files
+    public DirectoryOutputSink(Path root, Collection<String> folders, int writerThreads) throws IOException {
+        this.root = root;
+        createFolder(root);
+        for (String folder : folders) {
+            createFolder(root.resolve(folder));
+        }
+
+        AtomicInteger threadCount = new AtomicInteger(0);
+        this.writers = new ThreadPoolExecutor(
+            writerThreads,
+            writerThreads,
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(writerThreads * 64),
+            runnable -> {
+                Thread thread = new Thread(runnable, "directory-output-writer-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+    }
+
+    @Override
+    public void write(String path, byte[] data, int length, boolean gzip) throws IOException {
+        checkFailure();
+        byte[] gzipped = gzip ? Compression.gzip(data, 0, length) : null;
+        // Written later by the writer pool, so the contents are copied out of the caller's buffer
+        byte[] contents = Arrays.copyOf(data, length);
+        writers.execute(() -> {
+            try {
+                writeFile(path, ByteBuffer.wrap(contents));
+                if (gzipped != null) writeFile(path + ".gz", ByteBuffer.wrap(gzipped));
+            } catch (Throwable t) {
+                failure = t;
+            }
+        });
+    }
+
+    /// The file is written straight from the buffer, so memory-mapped files are not copied onto the heap
+    @Override
+    public void write(String path, ByteBuffer data, boolean gzip) throws IOException {
+        checkFailure();
+        byte[] gzipped = gzip ? Compression.gzip(data) : null;
+        ByteBuffer contents = data.duplicate();
+        writers.execute(() -> {
+            try {
+                writeFile(path, contents);
+                if (gzipped != null) writeFile(path + ".gz", ByteBuffer.wrap(gzipped));
+            } catch (Throwable t) {
+                failure = t;
+            }
+        });
+    }
+
+    @Override
+    public void writeDirectory(String path) throws IOException {
+        createFolder(root.resolve(path));
+    }
+
+    @Override
+    public boolean copyFromPrevious(String path, boolean gzip) {
+        // Files of the previous build are still in place
+        return Files.exists(root.resolve(path)) && (!gzip || Files.exists(root.resolve(path + ".gz")));
+    }
+
+    @Override
+    public void delete(String path) throws IOException {
+        Files.deleteIfExists(root.resolve(path));
+        Files.deleteIfExists(root.resolve(path + ".gz"));
+    }
+
+    private void writeFile(String path, ByteBuffer buffer) throws IOException {
+        Path file = root.resolve(path);
+        createFolder(file.getParent());
+
+        try (FileChannel channel = FileChannel.open(file, OPEN_OPTIONS)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    private void createFolder(Path folder) throws IOException {
+        if (!createdFolders.contains(folder)) {
+            Files.createDirectories(folder);
+            createdFolders.add(folder);
+        }
+    }
+
+    private void checkFailure() throws IOException {
+        Throwable throwable = failure;
+        if (throwable != null) throw new IOException("Failed to write output", throwable);
+    }
+
+    @Override
+    public void close() throws IOException {
+        writers.shutdown();
+        try {
+            while (!writers.awaitTermination(1, TimeUnit.MINUTES)) {
+                System.out.println("\tWaiting for output writers...");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+        checkFailure();
+    }
+}
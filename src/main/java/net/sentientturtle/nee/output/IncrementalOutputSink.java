@@ -0,0 +1,92 @@
+package net.sentientturtle.nee.output;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/// {@link OutputSink} that skips files unchanged since the previous build, as recorded in a {@link BuildManifest}
+///
+/// Unchanged files are copied from the previous build's output by the underlying sink, without compressing them again.
+/// On close, files of the previous build that were not written in this build are deleted.
+public final class IncrementalOutputSink implements OutputSink {
+    private final OutputSink output;
+    private final BuildManifest manifest;
+    private final AtomicInteger reusedCount = new AtomicInteger(0);
+
+    public IncrementalOutputSink(OutputSink output, BuildManifest manifest) {
+        this.output = output;
+        this.manifest = manifest;
+    }
+
+    @Override
+    public void write(String path, byte[] data, int length, boolean gzip) throws IOException {
+        if (manifest.record(path, data, length) && output.copyFromPrevious(path, gzip)) {
+            reusedCount.incrementAndGet();
+        } else {
+            output.write(path, data, length, gzip);
+        }
+    }
+
+    @Override
+    public void write(String path, ByteBuffer data, boolean gzip) throws IOException {
+        if (manifest.record(path, data) && output.copyFromPrevious(path, gzip)) {
+            reusedCount.incrementAndGet();
+        } else {
+            output.write(path, data, gzip);
+        }
+    }
+
+    /// Reuses a file from the previous build if its version is unchanged, without requiring its contents
+    ///
+    /// @return False if the file must be written
+    /// @see net.sentientturtle.nee.data.ResourceLocation.ResourceData#getVersion
+    public boolean reuse(String path, String version, boolean gzip) throws IOException {
+        if (manifest.recordVersion(path, version) && output.copyFromPrevious(path, gzip)) {
+            reusedCount.incrementAndGet();
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /// Keeps a file from the previous build, without writing it in this build
+    public void retain(String path, boolean gzip) throws IOException {
+        if (manifest.retain(path) && output.copyFromPrevious(path, gzip)) {
+            reusedCount.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void writeDirectory(String path) throws IOException {
+        output.writeDirectory(path);
+    }
+
+    @Override
+    public boolean copyFromPrevious(String path, boolean gzip) throws IOException {
+        return output.copyFromPrevious(path, gzip);
+    }
+
+    @Override
+    public void delete(String path) throws IOException {
+        output.delete(path);
+    }
+
+    /// @return Number of files reused from the previous build
+    public int getReusedCount() {
+        return reusedCount.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (String path : manifest.getRemoved()) {
+            output.delete(path);
+        }
+        output.close();
+    }
+
+    /// Files of the previous build are kept, as this build did not write all of their replacements
+    @Override
+    public void abort() throws IOException {
+        output.abort();
+    }
+}
@@ -0,0 +1,56 @@
+package net.sentientturtle.nee.output;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/// Destination for generated website files
+///
+/// Implementations must allow files to be written from multiple threads concurrently.
+public interface OutputSink extends Closeable {
+    /// Writes a file, optionally followed by a gzip-compressed copy named `path + ".gz"`
+    ///
+    /// @param path   Path relative to the website root, using '/' as separator
+    /// @param data   Buffer holding the file contents; Only read during this call, so it may be reused afterward
+    /// @param length Length of the file contents, in bytes from the start of the buffer
+    void write(String path, byte[] data, int length, boolean gzip) throws IOException;
+
+    /// See {@link #write(String, byte[], int, boolean)}
+    default void write(String path, byte[] data, boolean gzip) throws IOException {
+        write(path, data, data.length, gzip);
+    }
+
+    /// Writes a file from the remaining bytes of a buffer, without changing the buffer's position
+    ///
+    /// Implementations read direct buffers, such as memory-mapped files, without copying their contents onto the heap where possible.
+    /// The buffer may be read after this call returns, and must not be modified.
+    default void write(String path, ByteBuffer data, boolean gzip) throws IOException {
+        byte[] bytes = new byte[data.remaining()];
+        data.get(data.position(), bytes);
+        write(path, bytes, gzip);
+    }
+
+    /// Creates an (empty) directory
+    void writeDirectory(String path) throws IOException;
+
+    /// Keeps a file, and its gzip-compressed copy if requested, as written by the previous build
+    ///
+    /// @return False if the previous build's file is not available, in which case it must be written
+    default boolean copyFromPrevious(String path, boolean gzip) throws IOException {
+        return false;
+    }
+
+    /// Deletes a file, and its gzip-compressed copy, written by the previous build
+    default void delete(String path) throws IOException {}
+
+    /// Waits for all files to be written and releases the output
+    @Override
+    void close() throws IOException;
+
+    /// Releases the output after a failed build, without completing it
+    ///
+    /// Files may be left partially written; By default, this waits for files already submitted to be written.
+    default void abort() throws IOException {
+        close();
+    }
+}
@@ -0,0 +1,495 @@
+package net.sentientturtle.nee.output;
+
+import org.jspecify.annotations.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.zip.Deflater;
+
+/// {@link OutputSink} that writes a zip archive
+///
+/// Entries are compressed on the calling thread without holding any shared lock, and then handed to a single writer thread which appends local headers and data to the archive.
+/// The central directory is written when the archive is closed.
+/// Entry order in the archive is the order in which entries finish compressing.
+///
+/// Optionally, entries of a previously written archive can be copied as-is, without decompressing or recompressing them.
+/// Likewise, all entries of other archives can be copied with {@link #copyArchive}, to merge archives written by separate processes.
+public final class ZipArchiveWriter implements OutputSink {
+    private static final int METHOD_STORED = 0;
+    private static final int METHOD_DEFLATED = 8;
+    private static final int FLAG_UTF8 = 0x0800;
+    private static final int VERSION = 20;
+    private static final int VERSION_ZIP64 = 45;
+    private static final long ZIP64_LIMIT = 0xFFFFFFFFL;
+    private static final int ZIP64_ENTRY_LIMIT = 0xFFFF;
+
+    /// Compressed entry, ready to be appended to the archive
+    private record Entry(byte[] name, int method, int crc, long compressedSize, long size, ByteBuffer data, int externalAttributes) {
+        Entry withoutData() {
+            return new Entry(name, method, crc, compressedSize, size, null, externalAttributes);
+        }
+    }
+    /// Central directory record of an appended entry
+    private record CentralEntry(Entry entry, long offset) {}
+
+    private static final Entry END = new Entry(new byte[0], 0, 0, 0, 0, ByteBuffer.allocate(0), 0);
+
+    private final int level;
+    private final @Nullable PreviousArchive previous;
+    private final int dosTime;
+    private final int dosDate;
+    private final BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(256);
+    private final Thread writerThread;
+    private volatile Throwable failure = null;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    // Held while submitting, so that closing waits for in-flight submissions to be queued before the end marker
+    private final ReentrantReadWriteLock submitLock = new ReentrantReadWriteLock();
+
+    // Only accessed by the writer thread
+    private final OutputStream out;
+    private final ByteBuffer header = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN);
+    private final byte[] transferBuffer = new byte[64 * 1024];
+    private final ArrayList<CentralEntry> centralDirectory = new ArrayList<>();
+    private long position = 0;
+
+    /// @param file  Archive file to create, replacing it if it already exists
+    /// @param level Deflater compression level; {@link Deflater#NO_COMPRESSION} stores entries uncompressed
+    public ZipArchiveWriter(Path file, int level) throws IOException {
+        this(file, level, null);
+    }
+
+    /// @param file     Archive file to create, replacing it if it already exists
+    /// @param level    Deflater compression level; {@link Deflater#NO_COMPRESSION} stores entries uncompressed
+    /// @param previous Archive written by a previous build, from which entries may be copied with {@link #copyFromPrevious}
+    public ZipArchiveWriter(Path file, int level, @Nullable Path previous) throws IOException {
+        this.level = level;
+        this.previous = previous != null ? new PreviousArchive(previous) : null;
+        this.out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 20);
+
+        LocalDateTime now = LocalDateTime.now();
+        this.dosTime = (now.getHour() << 11) | (now.getMinute() << 5) | (now.getSecond() >> 1);
+        this.dosDate = ((now.getYear() - 1980) << 9) | (now.getMonthValue() << 5) | now.getDayOfMonth();
+
+        this.writerThread = new Thread(this::run, "zip-archive-writer");
+        // Does not keep the JVM alive should the build fail without closing the archive
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    @Override
+    public void write(String name, byte[] data, int length, boolean gzip) throws IOException {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        int crc = Compression.crc32(data, 0, length);
+        if (level == Deflater.NO_COMPRESSION) {
+            // Stored data is written later by the writer thread, so it is copied out of the caller's buffer
+            submit(new Entry(nameBytes, METHOD_STORED, crc, length, length, ByteBuffer.wrap(Arrays.copyOf(data, length)), 0));
+        } else {
+            byte[] compressed = Compression.deflate(data, 0, length, level);
+            submit(new Entry(nameBytes, METHOD_DEFLATED, crc, compressed.length, length, ByteBuffer.wrap(compressed), 0));
+        }
+
+        if (gzip) submitGzip(name, Compression.gzip(data, 0, length));
+    }
+
+    /// Stored entries are written straight from the buffer by the writer thread, so memory-mapped files are not copied onto the heap
+    @Override
+    public void write(String name, ByteBuffer data, boolean gzip) throws IOException {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        int crc = Compression.crc32(data);
+        int length = data.remaining();
+        if (level == Deflater.NO_COMPRESSION) {
+            submit(new Entry(nameBytes, METHOD_STORED, crc, length, length, data.duplicate(), 0));
+        } else {
+            byte[] compressed = Compression.deflate(data, level);
+            submit(new Entry(nameBytes, METHOD_DEFLATED, crc, compressed.length, length, ByteBuffer.wrap(compressed), 0));
+        }
+
+        if (gzip) submitGzip(name, Compression.gzip(data));
+    }
+
+    private void submitGzip(String name, byte[] gzipped) throws IOException {
+        // Gzip data does not compress further, so the copy is always stored
+        submit(new Entry(
+            (name + ".gz").getBytes(StandardCharsets.UTF_8),
+            METHOD_STORED,
+            Compression.crc32(gzipped, 0, gzipped.length),
+            gzipped.length,
+            gzipped.length,
+            ByteBuffer.wrap(gzipped),
+            0
+        ));
+    }
+
+    @Override
+    public void writeDirectory(String name) throws IOException {
+        if (!name.endsWith("/")) name = name + "/";
+        submit(new Entry(name.getBytes(StandardCharsets.UTF_8), METHOD_STORED, 0, 0, 0, ByteBuffer.allocate(0), 0x10));
+    }
+
+    @Override
+    public boolean copyFromPrevious(String path, boolean gzip) throws IOException {
+        if (previous == null) return false;
+        Entry entry = previous.read(path);
+        Entry gzipEntry = gzip ? previous.read(path + ".gz") : null;
+        if (entry == null || (gzip && gzipEntry == null)) return false;
+
+        submit(entry);
+        if (gzipEntry != null) submit(gzipEntry);
+        return true;
+    }
+
+    /// Copies entries of another archive as-is, without decompressing or recompressing them
+    ///
+    /// @param file   Archive to copy from
+    /// @param filter Called with the name of each entry; Only entries for which it returns true are copied
+    public void copyArchive(Path file, Predicate<String> filter) throws IOException {
+        try (PreviousArchive archive = new PreviousArchive(file)) {
+            for (String name : archive.names()) {
+                if (!filter.test(name)) continue;
+                Entry entry = archive.read(name);
+                if (entry == null) throw new IOException("Zip entry too large to copy: " + name);
+                submit(entry);
+            }
+        }
+    }
+
+    private void submit(Entry entry) throws IOException {
+        submitLock.readLock().lock();
+        try {
+            if (closed.get()) throw new IOException("Archive already closed");
+            checkFailure();
+            queue.put(entry);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } finally {
+            submitLock.readLock().unlock();
+        }
+    }
+
+    private void checkFailure() throws IOException {
+        Throwable throwable = failure;
+        if (throwable != null) throw new IOException("Failed to write archive", throwable);
+    }
+
+    /// Waits for all submitted entries to be written, then writes the central directory and closes the archive file
+    @Override
+    public void close() throws IOException {
+        if (finish(null)) checkFailure();
+    }
+
+    /// Discards entries not yet written, and closes the archive file without writing the central directory
+    @Override
+    public void abort() throws IOException {
+        finish(new IOException("Archive aborted"));
+    }
+
+    /// Ends the writer thread and waits for it to close the archive file
+    ///
+    /// @param abort Failure to discard remaining entries with, or null to write them and the central directory
+    /// @return False if the archive was already closed
+    private boolean finish(@Nullable IOException abort) throws IOException {
+        if (!closed.compareAndSet(false, true)) return false;
+        if (abort != null && failure == null) failure = abort;
+        try {
+            // Submissions that started before closing are queued ahead of the end marker; Later submissions fail
+            submitLock.writeLock().lock();
+            submitLock.writeLock().unlock();
+            queue.put(END);
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } finally {
+            if (previous != null) previous.close();
+        }
+        return true;
+    }
+
+    private void run() {
+        try {
+            Entry entry;
+            while ((entry = queue.take()) != END) {
+                // After a failure, entries are drained and discarded so that submitting threads do not block
+                if (failure == null) {
+                    try {
+                        writeLocalEntry(entry);
+                    } catch (Throwable t) {
+                        failure = t;
+                    }
+                }
+            }
+            if (failure == null) writeCentralDirectory();
+        } catch (Throwable t) {
+            if (failure == null) failure = t;
+        } finally {
+            try {
+                out.close();
+            } catch (IOException e) {
+                if (failure == null) failure = e;
+            }
+        }
+    }
+
+    private void writeLocalEntry(Entry entry) throws IOException {
+        if (entry.compressedSize >= ZIP64_LIMIT || entry.size >= ZIP64_LIMIT) throw new IOException("Zip entry too large: " + new String(entry.name, StandardCharsets.UTF_8));
+        centralDirectory.add(new CentralEntry(entry.withoutData(), position));
+
+        header.clear();
+        header.putInt(0x04034b50);
+        header.putShort((short) VERSION);
+        header.putShort((short) FLAG_UTF8);
+        header.putShort((short) entry.method);
+        header.putShort((short) dosTime);
+        header.putShort((short) dosDate);
+        header.putInt(entry.crc);
+        header.putInt((int) entry.compressedSize);
+        header.putInt((int) entry.size);
+        header.putShort((short) entry.name.length);
+        header.putShort((short) 0);
+        writeHeader();
+        writeBytes(entry.name);
+        writeBuffer(entry.data);
+    }
+
+    private void writeCentralDirectory() throws IOException {
+        long directoryOffset = position;
+        for (CentralEntry centralEntry : centralDirectory) {
+            Entry entry = centralEntry.entry;
+            boolean zip64 = centralEntry.offset >= ZIP64_LIMIT;
+
+            header.clear();
+            header.putInt(0x02014b50);
+            header.putShort((short) (zip64 ? VERSION_ZIP64 : VERSION));
+            header.putShort((short) (zip64 ? VERSION_ZIP64 : VERSION));
+            header.putShort((short) FLAG_UTF8);
+            header.putShort((short) entry.method);
+            header.putShort((short) dosTime);
+            header.putShort((short) dosDate);
+            header.putInt(entry.crc);
+            header.putInt((int) entry.compressedSize);
+            header.putInt((int) entry.size);
+            header.putShort((short) entry.name.length);
+            header.putShort((short) (zip64 ? 12 : 0));
+            header.putShort((short) 0);     // Comment length
+            header.putShort((short) 0);     // Disk number
+            header.putShort((short) 0);     // Internal attributes
+            header.putInt(entry.externalAttributes);
+            header.putInt(zip64 ? (int) ZIP64_LIMIT : (int) centralEntry.offset);
+            writeHeader();
+            writeBytes(entry.name);
+            if (zip64) {
+                header.clear();
+                header.putShort((short) 0x0001);
+                header.putShort((short) 8);
+                header.putLong(centralEntry.offset);
+                writeHeader();
+            }
+        }
+        long directorySize = position - directoryOffset;
+        int entryCount = centralDirectory.size();
+
+        if (entryCount >= ZIP64_ENTRY_LIMIT || directoryOffset >= ZIP64_LIMIT || directorySize >= ZIP64_LIMIT) {
+            long zip64EndOffset = position;
+            header.clear();
+            header.putInt(0x06064b50);
+            header.putLong(44);                 // Size of remaining record
+            header.putShort((short) VERSION_ZIP64);
+            header.putShort((short) VERSION_ZIP64);
+            header.putInt(0);                   // Disk number
+            header.putInt(0);                   // Disk with central directory
+            header.putLong(entryCount);
+            header.putLong(entryCount);
+            header.putLong(directorySize);
+            header.putLong(directoryOffset);
+            writeHeader();
+
+            header.clear();
+            header.putInt(0x07064b50);
+            header.putInt(0);                   // Disk with zip64 end of central directory
+            header.putLong(zip64EndOffset);
+            header.putInt(1);                   // Total number of disks
+            writeHeader();
+        }
+
+        header.clear();
+        header.putInt(0x06054b50);
+        header.putShort((short) 0);             // Disk number
+        header.putShort((short) 0);             // Disk with central directory
+        header.putShort((short) Math.min(entryCount, ZIP64_ENTRY_LIMIT));
+        header.putShort((short) Math.min(entryCount, ZIP64_ENTRY_LIMIT));
+        header.putInt((int) Math.min(directorySize, ZIP64_LIMIT));
+        header.putInt((int) Math.min(directoryOffset, ZIP64_LIMIT));
+        header.putShort((short) 0);             // Comment length
+        writeHeader();
+        out.flush();
+    }
+
+    private void writeHeader() throws IOException {
+        header.flip();
+        out.write(header.array(), 0, header.limit());
+        position += header.limit();
+    }
+
+    private void writeBytes(byte[] bytes) throws IOException {
+        out.write(bytes);
+        position += bytes.length;
+    }
+
+    private void writeBuffer(ByteBuffer buffer) throws IOException {
+        int length = buffer.remaining();
+        if (buffer.hasArray()) {
+            out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), length);
+        } else {
+            // Direct buffers are copied in chunks
+            for (int offset = 0; offset < length; offset += transferBuffer.length) {
+                int chunk = Math.min(transferBuffer.length, length - offset);
+                buffer.get(buffer.position() + offset, transferBuffer, 0, chunk);
+                out.write(transferBuffer, 0, chunk);
+            }
+        }
+        position += length;
+    }
+
+    /// Central directory of a previously written archive, allowing raw entry data to be read
+    private static final class PreviousArchive implements Closeable {
+        private record Location(int method, int crc, long compressedSize, long size, long offset) {}
+
+        private final FileChannel channel;
+        private final HashMap<String, Location> entries = new HashMap<>();
+
+        PreviousArchive(Path file) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            long fileSize = channel.size();
+
+            // End of central directory record is 22 bytes, followed by a comment of up to 64KiB
+            int tailSize = (int) Math.min(fileSize, 22 + 0xFFFF);
+            ByteBuffer tail = read(fileSize - tailSize, tailSize);
+            int end = -1;
+            for (int i = tailSize - 22; i >= 0; i--) {
+                if (tail.getInt(i) == 0x06054b50) {
+                    end = i;
+                    break;
+                }
+            }
+            if (end < 0) throw new IOException("Not a zip archive: " + file);
+
+            long entryCount = tail.getShort(end + 10) & 0xFFFF;
+            long directorySize = tail.getInt(end + 12) & ZIP64_LIMIT;
+            long directoryOffset = tail.getInt(end + 16) & ZIP64_LIMIT;
+
+            long endPosition = fileSize - tailSize + end;
+            if (endPosition >= 20) {
+                ByteBuffer locator = read(endPosition - 20, 20);
+                if (locator.getInt(0) == 0x07064b50) {
+                    ByteBuffer zip64End = read(locator.getLong(8), 56);
+                    if (zip64End.getInt(0) != 0x06064b50) throw new IOException("Malformed zip64 end of central directory: " + file);
+                    entryCount = zip64End.getLong(32);
+                    directorySize = zip64End.getLong(40);
+                    directoryOffset = zip64End.getLong(48);
+                }
+            }
+
+            ByteBuffer directory = read(directoryOffset, Math.toIntExact(directorySize));
+            int position = 0;
+            for (long i = 0; i < entryCount; i++) {
+                if (directory.getInt(position) != 0x02014b50) throw new IOException("Malformed central directory: " + file);
+                int method = directory.getShort(position + 10) & 0xFFFF;
+                int crc = directory.getInt(position + 16);
+                long compressedSize = directory.getInt(position + 20) & ZIP64_LIMIT;
+                long size = directory.getInt(position + 24) & ZIP64_LIMIT;
+                int nameLength = directory.getShort(position + 28) & 0xFFFF;
+                int extraLength = directory.getShort(position + 30) & 0xFFFF;
+                int commentLength = directory.getShort(position + 32) & 0xFFFF;
+                long offset = directory.getInt(position + 42) & ZIP64_LIMIT;
+                String name = new String(directory.array(), position + 46, nameLength, StandardCharsets.UTF_8);
+
+                // Zip64 extra field holds only the values that overflowed, in this order
+                int extra = position + 46 + nameLength;
+                int extraEnd = extra + extraLength;
+                while (extra + 4 <= extraEnd) {
+                    int id = directory.getShort(extra) & 0xFFFF;
+                    int length = directory.getShort(extra + 2) & 0xFFFF;
+                    if (id == 0x0001) {
+                        int field = extra + 4;
+                        if (size == ZIP64_LIMIT) {
+                            size = directory.getLong(field);
+                            field += 8;
+                        }
+                        if (compressedSize == ZIP64_LIMIT) {
+                            compressedSize = directory.getLong(field);
+                            field += 8;
+                        }
+                        if (offset == ZIP64_LIMIT) {
+                            offset = directory.getLong(field);
+                        }
+                    }
+                    extra += 4 + length;
+                }
+
+                entries.put(name, new Location(method, crc, compressedSize, size, offset));
+                position += 46 + nameLength + extraLength + commentLength;
+            }
+        }
+
+        /// @return Names of all entries in the archive
+        Set<String> names() {
+            return entries.keySet();
+        }
+
+        /// @return The raw entry, or null if the archive does not contain it
+        @Nullable Entry read(String name) throws IOException {
+            Location location = entries.get(name);
+            // Entries are read onto the heap, which limits them to the maximum array length
+            if (location == null || location.compressedSize > Integer.MAX_VALUE - 8 || location.size >= ZIP64_LIMIT) return null;
+
+            ByteBuffer localHeader = read(location.offset, 30);
+            if (localHeader.getInt(0) != 0x04034b50) throw new IOException("Malformed local header for entry: " + name);
+            long dataOffset = location.offset + 30 + (localHeader.getShort(26) & 0xFFFF) + (localHeader.getShort(28) & 0xFFFF);
+
+            return new Entry(
+                name.getBytes(StandardCharsets.UTF_8),
+                location.method,
+                location.crc,
+                location.compressedSize,
+                location.size,
+                read(dataOffset, (int) location.compressedSize),
+                name.endsWith("/") ? 0x10 : 0
+            );
+        }
+
+        private ByteBuffer read(long position, int length) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) throw new EOFException();
+            }
+            return buffer.flip();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,2 @@
+/// Writers for generated website output
+package net.sentientturtle.nee.output;
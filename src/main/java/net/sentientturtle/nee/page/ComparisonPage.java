@@ -25,6 +25,11 @@ public class ComparisonPage extends Page {
         this.parentType = Objects.requireNonNull(parentType);
     }
 
+    /// @return Whether the type is shown on a comparison page, in addition to its own type page
+    public static boolean isCompared(SDEData sde, Type type) {
+        return sde.getParentTypeMap().containsKey(type.typeID);
+    }
+
     @Override
     public String name() {
         return parentType.name + ":Compare";
@@ -244,9 +249,9 @@ public class ComparisonPage extends Page {
                             .filter(t -> {
                                 HashSet<Integer> targetUsedWithGroups = new HashSet<>();
                                 for (int attributeID : TypePage.USED_WITH_GROUP_ATTRIBUTES) {
-                                    Double groupID = data.getTypeAttributes().getOrDefault(t.typeID, Map.of()).get(attributeID);
-                                    if (groupID != null) {
-                                        targetUsedWithGroups.add((int) (double) groupID);
+                                    double groupID = data.getTypeAttribute(t.typeID, attributeID, Double.NaN);
+                                    if (!Double.isNaN(groupID)) {
+                                        targetUsedWithGroups.add((int) groupID);
                                     }
                                 }
 
@@ -256,7 +261,7 @@ public class ComparisonPage extends Page {
 
                                 // Exclude charges which do not have the module type set as usedWith
                                 if (targetUsedWithGroups.contains(type.groupID)) {
-                                    double chargeSize = data.getTypeAttributes().get(t.typeID).getOrDefault(128, 0.0);
+                                    double chargeSize = data.getTypeAttribute(t.typeID, 128, 0.0);
                                     // exclude charges with a different chargeSize as this module
                                     return chargeSize == targetChargeSize;
                                 } else {
@@ -14,7 +14,7 @@ import static net.sentientturtle.html.HTML.*;
  */
 @SuppressWarnings("WeakerAccess")
 public abstract class Page extends Frame {
-    private HTML getHeader(HtmlContext context) {
+    private static HTML getHeader(HtmlContext context) {
         return DIV().id(context.tryID("header")).content(
             SPAN("header_span").content(
                 IMG(ResourceLocation.file("bookicon.png"), null, 64).className("header_icon"),
@@ -48,40 +48,16 @@ public abstract class Page extends Frame {
 
     @Override
     public void renderTo(HtmlContext context) throws RenderingException {
-        var head = HEAD().content(
-            META().attribute("charset", "UTF-8"),
-            META().attribute("name", "viewport").attribute("content", "width=device-width, initial-scale=1, minimum-scale=1"),
-            TITLE(this.title()),
-            LINK().attribute("rel", "stylesheet").attribute("href", c -> c.pathTo("stylesheet.css") + "?v=" + Main.BUILD_NUMBER),
-            LINK().attribute("rel", "stylesheet").attribute("href", c -> c.pathTo("theme.css")).id(context.tryID("theme_stylesheet")),
-            LINK().attribute("rel", "icon").attribute("href", c -> ResourceLocation.file("bookicon.png").getURI(c))
-        );
-
-        head.content(META().attribute("property", "og:site_name").attribute("content", Main.WEBSITE_NAME));
-        head.content(META().attribute("property", "og:title").attribute("content", this.name()));
-        String page_description = this.description();
-        if (page_description != null) {
-            head.content(META().attribute("property", "og:description").attribute("content", page_description));
-        }
-        ResourceLocation icon = this.getIcon(context);
-        if (icon != null) {
-            head.content(META().attribute("property", "og:image").attribute("content", icon.getURI(context, true, Main.DEPLOYMENT_URL)));
-        }
-
-        for (HTML entry : headEntries(context)) {
-            head.content(entry);
-        }
-
-        head.content(HTML.RAW("<script type='module' src='" + HTMLUtil.escapeAttributeValue(context.pathTo("script.js")) + "'></script>"));
-
         Element content = DOCUMENT_ROOT().content(
-            head,
+            getHead(context),
             BODY().className("body_grid").content(
-                getHeader(context),
-                new Sidebar().id(context.tryID("sidebar")),
+                template(context, "page_header", c -> HTML.multi(
+                    Page.getHeader(c),
+                    new Sidebar().id(c.tryID("sidebar"))
+                )),
                 DIV().id(context.tryID("content"))
                     .content(getContent(context)),
-                Page.getFooter(context)
+                template(context, "page_footer", Page::getFooter)
             )
         );
         try {
@@ -236,9 +236,9 @@ public class TypePage extends Page implements HasPersistentUrl {
             .filter(t -> {
                 HashSet<Integer> targetUsedWithGroups = new HashSet<>();
                 for (int attributeID : USED_WITH_GROUP_ATTRIBUTES) {
-                    Double groupID = data.getTypeAttributes().getOrDefault(t.typeID, Map.of()).get(attributeID);
-                    if (groupID != null) {
-                        targetUsedWithGroups.add((int) (double) groupID);
+                    double groupID = data.getTypeAttribute(t.typeID, attributeID, Double.NaN);
+                    if (!Double.isNaN(groupID)) {
+                        targetUsedWithGroups.add((int) groupID);
                     }
                 }
 
@@ -248,7 +248,7 @@ public class TypePage extends Page implements HasPersistentUrl {
 
                 // Exclude charges which do not have the module type set as usedWith
                 if (targetUsedWithGroups.contains(type.groupID)) {
-                    double chargeSize = data.getTypeAttributes().get(t.typeID).getOrDefault(128, 0.0);
+                    double chargeSize = data.getTypeAttribute(t.typeID, 128, 0.0);
                     // exclude charges with a different chargeSize as this module
                     return chargeSize == targetChargeSize;
                 } else {
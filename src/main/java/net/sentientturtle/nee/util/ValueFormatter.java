@@ -0,0 +1,136 @@
+package net.sentientturtle.nee.util;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/// Thread-safe formatting of numbers, durations and dates, in English style to match that of the game
+///
+/// Numbers are formatted as with the {@link DecimalFormat} pattern `###,##0.##`; Grouped by thousands, with at most two decimals, rounded half-even.
+/// Values that are integers, or that are unambiguously rounded to two decimals, are written directly into the output builder.
+/// The remaining values (very large magnitudes and values within rounding error of a tie) are formatted with a per-thread {@link DecimalFormat}.
+public final class ValueFormatter {
+    private static final String NAN = "???";     // NaN treated as "Unknown"
+    private static final String INFINITY = "∞";
+    private static final DecimalFormat DECIMAL_FORMAT;
+    private static final ThreadLocal<DecimalFormat> decimalFormat;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd MMM yyyy HH:mm:ss", Locale.ENGLISH)
+        .withZone(ZoneId.of("Etc/UTC"));
+
+    // Values below this magnitude, multiplied by 100, are exactly representable as long
+    private static final double FAST_PATH_LIMIT = (double) (1L << 53) / 100.0;
+
+    static {
+        DecimalFormatSymbols symbols = new DecimalFormatSymbols(Locale.ENGLISH);
+        symbols.setDecimalSeparator('.');
+        symbols.setGroupingSeparator(',');
+        symbols.setNaN(NAN);
+        symbols.setInfinity(INFINITY);
+        DECIMAL_FORMAT = new DecimalFormat("###,##0.##", symbols);
+        decimalFormat = ThreadLocal.withInitial(() -> (DecimalFormat) DECIMAL_FORMAT.clone());
+    }
+
+    private ValueFormatter() {}
+
+    /// @return The value formatted as with the pattern `###,##0.##`
+    public static String formatNumber(double value) {
+        return appendNumber(new StringBuilder(16), value).toString();
+    }
+
+    /// Appends the value formatted as with the pattern `###,##0.##`
+    ///
+    /// @return The builder
+    public static StringBuilder appendNumber(StringBuilder builder, double value) {
+        if (Double.isNaN(value)) return builder.append(NAN);
+
+        // Negative values that round to zero, and negative zero, are formatted as "-0"
+        boolean negative = Double.doubleToRawLongBits(value) < 0;
+        double magnitude = Math.abs(value);
+        if (magnitude == Double.POSITIVE_INFINITY) {
+            if (negative) builder.append('-');
+            return builder.append(INFINITY);
+        }
+        if (magnitude >= FAST_PATH_LIMIT) return builder.append(decimalFormat.get().format(value));
+
+        long hundredths;
+        if (magnitude == Math.rint(magnitude)) {
+            hundredths = ((long) magnitude) * 100;
+        } else {
+            double scaled = magnitude * 100.0;
+            double floor = Math.floor(scaled);
+            double fraction = scaled - floor;
+            // The product may be off from the exact value by rounding error; Near a tie this may change the result, so these are left to DecimalFormat
+            if (Math.abs(fraction - 0.5) <= 4 * Math.ulp(scaled)) return builder.append(decimalFormat.get().format(value));
+            hundredths = (long) floor + (fraction > 0.5 ? 1 : 0);
+        }
+
+        if (negative) builder.append('-');
+        appendGrouped(builder, hundredths / 100);
+        int decimals = (int) (hundredths % 100);
+        if (decimals != 0) {
+            builder.append('.').append((char) ('0' + decimals / 10));
+            if (decimals % 10 != 0) builder.append((char) ('0' + decimals % 10));
+        }
+        return builder;
+    }
+
+    /// Appends a non-negative value with thousands separators
+    private static void appendGrouped(StringBuilder builder, long value) {
+        if (value < 1000) {
+            builder.append(value);
+        } else {
+            appendGrouped(builder, value / 1000);
+            int group = (int) (value % 1000);
+            builder.append(',')
+                .append((char) ('0' + group / 100))
+                .append((char) ('0' + group / 10 % 10))
+                .append((char) ('0' + group % 10));
+        }
+    }
+
+    /// @return The duration formatted as years, months, days, hours, minutes and seconds, omitting leading zero units, e.g. ` 1h  5m 30s`
+    public static String formatDuration(long seconds) {
+        StringBuilder builder = new StringBuilder(24);
+        if (seconds >= 60L * 60 * 24 * 365) {
+            appendPadded(builder, seconds / (60 * 60 * 24 * 365)).append("y ");
+            appendPadded(builder, seconds % (60 * 60 * 24 * 365) / (60 * 60 * 24 * 30)).append("m ");
+        } else if (seconds >= 60L * 60 * 24 * 30) {
+            appendPadded(builder, seconds / (60 * 60 * 24 * 30)).append("m ");
+        }
+        if (seconds >= 60L * 60 * 24 * 30) {
+            appendPadded(builder, seconds % (60 * 60 * 24 * 30) / (60 * 60 * 24)).append("d ");
+        } else if (seconds >= 60L * 60 * 24) {
+            appendPadded(builder, seconds / (60 * 60 * 24)).append("d ");
+        }
+        if (seconds >= 60L * 60 * 24) {
+            appendPadded(builder, seconds % (60 * 60 * 24) / (60 * 60)).append("h ");
+        } else if (seconds >= 60L * 60) {
+            appendPadded(builder, seconds / (60 * 60)).append("h ");
+        }
+        if (seconds >= 60L * 60) {
+            appendPadded(builder, seconds % (60 * 60) / 60).append("m ");
+        } else if (seconds >= 60) {
+            appendPadded(builder, seconds / 60).append("m ");
+        }
+        if (seconds >= 60) {
+            appendPadded(builder, seconds % 60);
+        } else {
+            appendPadded(builder, seconds);
+        }
+        return builder.append('s').toString();
+    }
+
+    /// Appends the value padded with spaces to a width of two, as with `%2d`
+    private static StringBuilder appendPadded(StringBuilder builder, long value) {
+        if (value >= 0 && value < 10) builder.append(' ');
+        return builder.append(value);
+    }
+
+    /// @return The date and time in UTC, formatted as e.g. `01 Jan 2024 12:00:00`
+    public static String formatDate(long epochSecond) {
+        return DATE_FORMAT.format(Instant.ofEpochSecond(epochSecond));
+    }
+}
@@ -0,0 +1,74 @@
+package net.sentientturtle.nee.data.sde;
+
+import net.sentientturtle.nee.benchmark.BenchmarkData;
+import net.sentientturtle.nee.data.datatypes.Region;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/// Round trips the synthetic benchmark SDE through {@link SnapshotSDEData}
+public class SnapshotSDEDataTest {
+    private static final String KEY = "test";
+
+    private static Path writeSnapshot(SDEData data) throws IOException {
+        Path file = Files.createTempFile("nee-test", ".snapshot");
+        file.toFile().deleteOnExit();
+        SnapshotSDEData.write(data, file, KEY);
+        return file;
+    }
+
+    @Test
+    public void roundTrip() throws IOException {
+        SDEData original = BenchmarkData.dataSources(0.1).sdeData();
+        Path first = writeSnapshot(original);
+        SnapshotSDEData loaded = SnapshotSDEData.read(first, KEY);
+        assertNotNull(loaded);
+
+        // Data types do not implement equals; Instead, a snapshot of the loaded data must be identical to that of the original data
+        Path second = writeSnapshot(loaded);
+        assertTrue(Arrays.equals(Files.readAllBytes(first), Files.readAllBytes(second)), "Snapshot of loaded data differs from original snapshot");
+
+        assertEquals(original.getRegions().keySet(), loaded.getRegions().keySet());
+        for (Region region : original.getRegions().values()) {
+            Region loadedRegion = loaded.getRegions().get(region.regionID);
+            assertEquals(region.zMin, loadedRegion.zMin, "zMin of region " + region.regionID);
+            assertEquals(region.zMax, loadedRegion.zMax, "zMax of region " + region.regionID);
+        }
+    }
+
+    @Test
+    public void otherKey() throws IOException {
+        Path file = writeSnapshot(BenchmarkData.dataSources(0.1).sdeData());
+        assertNull(SnapshotSDEData.read(file, KEY + "-other"));
+    }
+
+    @Test
+    public void truncated() throws IOException {
+        Path file = writeSnapshot(BenchmarkData.dataSources(0.1).sdeData());
+        long size = Files.size(file);
+        for (long length : new long[]{0, 4, 12, size / 3, size / 2, size - 1}) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(length);
+            }
+            assertNull(SnapshotSDEData.read(file, KEY), "Snapshot truncated to " + length + " bytes");
+        }
+    }
+
+    @Test
+    public void corrupt() throws IOException {
+        Path file = writeSnapshot(BenchmarkData.dataSources(0.1).sdeData());
+        byte[] bytes = Files.readAllBytes(file);
+        // The size of the first collection, following the magic, version, and key
+        ByteBuffer.wrap(bytes, 12 + KEY.length(), 4).putInt(Integer.MAX_VALUE);
+        Files.write(file, bytes);
+        assertNull(SnapshotSDEData.read(file, KEY));
+    }
+}
@@ -0,0 +1,163 @@
+package net.sentientturtle.nee.data.sharedcache;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.IIOException;
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/// Compositing by {@link IconCompositor}, and how closely it matches the ImageMagick invocations it replaces
+public class IconCompositorTest {
+    /// Largest difference in any premultiplied 8-bit channel permitted between the output of ImageMagick and {@link IconCompositor}
+    private static final int MAX_CHANNEL_DELTA = 8;
+    private static final Path OVERLAY_DIRECTORY = Path.of("rsc/EVE/type_overlays_old");
+    private static final Path ICON = Path.of("rsc/bookicon.png");
+
+    private static Path solid(int size, int argb) throws IOException {
+        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                image.setRGB(x, y, argb);
+            }
+        }
+        Path file = Files.createTempFile("nee-test", ".png");
+        file.toFile().deleteOnExit();
+        ImageIO.write(image, "png", file.toFile());
+        return file;
+    }
+
+    private static BufferedImage decode(byte[] png) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        assertNotNull(image);
+        return image;
+    }
+
+    @Test
+    public void blueprint() throws IOException {
+        Path background = solid(128, 0xFFFF0000);
+        Path icon = solid(64, 0x00000000);
+        Path overlay = solid(64, 0xFF000040);
+        Path techOverlay = solid(32, 0xFF00FF00);
+
+        byte[] png = IconCompositor.blueprint(background, icon, overlay, techOverlay);
+        BufferedImage image = decode(png);
+        assertEquals(64, image.getWidth());
+        assertEquals(64, image.getHeight());
+        assertEquals(0xFF00FF00, image.getRGB(0, 0), "Tech overlay");
+        assertEquals(0xFFFF0040, image.getRGB(32, 32), "Background plus overlay");
+
+        // The cached background must not be altered by compositing onto it
+        assertArrayEquals(png, IconCompositor.blueprint(background, icon, overlay, techOverlay));
+        assertEquals(0xFFFF0040, decode(IconCompositor.blueprint(background, icon, overlay, null)).getRGB(0, 0), "Without tech overlay");
+    }
+
+    @Test
+    public void overlay() throws IOException {
+        BufferedImage image = decode(IconCompositor.overlay(solid(128, 0x800000FF), solid(64, 0xFF00FF00)));
+        assertEquals(64, image.getWidth());
+        assertEquals(0xFF00FF00, image.getRGB(15, 15), "Tech overlay");
+        assertEquals(0x800000FF, image.getRGB(16, 16), "Icon");
+    }
+
+    @Test
+    public void unsupportedFallsBack() throws IOException {
+        // A PNG signature followed by a malformed header; ImageIO fails with an IIOException, which must fall back to ImageMagick rather than propagate
+        Path file = Files.createTempFile("nee-test", ".png");
+        file.toFile().deleteOnExit();
+        Files.write(file, new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13, 'I', 'H', 'D', 'R', 0, 0, 0, 0});
+        assertThrows(IIOException.class, () -> ImageIO.read(file.toFile()));
+
+        // ImageMagick fails on the file as well, or is not installed
+        Exception exception = assertThrows(Exception.class, () -> IconCompositor.toPNG(file));
+        assertFalse(exception instanceof IIOException, exception.toString());
+    }
+
+    private static boolean hasImageMagick() {
+        try {
+            return new ProcessBuilder("magick", "-version").start().waitFor() == 0;
+        } catch (IOException | InterruptedException e) {
+            return false;
+        }
+    }
+
+    private static byte[] imageMagick(String... arguments) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add("magick");
+        command.addAll(List.of(arguments));
+        command.add("png:-");
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        byte[] bytes = process.getInputStream().readAllBytes();
+        assertEquals(0, process.waitFor(), String.join(" ", command));
+        return bytes;
+    }
+
+    private static void assertEquivalent(byte[] expected, byte[] actual, String message) throws IOException {
+        BufferedImage expectedImage = decode(expected);
+        BufferedImage actualImage = decode(actual);
+        assertEquals(expectedImage.getWidth(), actualImage.getWidth(), message);
+        assertEquals(expectedImage.getHeight(), actualImage.getHeight(), message);
+
+        int maxDelta = 0;
+        for (int y = 0; y < expectedImage.getHeight(); y++) {
+            for (int x = 0; x < expectedImage.getWidth(); x++) {
+                int expectedPixel = expectedImage.getRGB(x, y);
+                int actualPixel = actualImage.getRGB(x, y);
+                int expectedAlpha = expectedPixel >>> 24;
+                int actualAlpha = actualPixel >>> 24;
+                maxDelta = Math.max(maxDelta, Math.abs(expectedAlpha - actualAlpha));
+                // Compared premultiplied, as the color of nearly transparent pixels is insignificant
+                for (int shift = 0; shift < 24; shift += 8) {
+                    int expectedChannel = ((expectedPixel >> shift) & 0xFF) * expectedAlpha / 255;
+                    int actualChannel = ((actualPixel >> shift) & 0xFF) * actualAlpha / 255;
+                    maxDelta = Math.max(maxDelta, Math.abs(expectedChannel - actualChannel));
+                }
+            }
+        }
+        assertTrue(maxDelta <= MAX_CHANNEL_DELTA, message + ": channel differs by " + maxDelta);
+    }
+
+    @Test
+    public void matchesImageMagick() throws IOException, InterruptedException {
+        assumeTrue(hasImageMagick(), "ImageMagick is not installed");
+
+        List<Path> overlays;
+        try (Stream<Path> files = Files.list(OVERLAY_DIRECTORY)) {
+            overlays = files.filter(file -> file.toString().endsWith(".png")).sorted().toList();
+        }
+        assertTrue(overlays.size() > 1);
+
+        for (int i = 0; i < overlays.size(); i++) {
+            String overlay = overlays.get(i).toString();
+            String next = overlays.get((i + 1) % overlays.size()).toString();
+            assertEquivalent(
+                imageMagick(overlay),
+                IconCompositor.toPNG(overlays.get(i)),
+                "toPNG " + overlay
+            );
+            assertEquivalent(
+                imageMagick(ICON.toString(), "-resize", "64x64", "(", overlay, "-resize", "16x16!", ")", "-composite"),
+                IconCompositor.overlay(ICON, overlays.get(i)),
+                "overlay " + overlay
+            );
+            assertEquivalent(
+                imageMagick(
+                    ICON.toString(), next, "-resize", "64x64", "-composite",
+                    "-compose", "plus", overlay, "-composite",
+                    "-compose", "over", "(", overlay, "-resize", "16x16!", ")", "-composite"
+                ),
+                IconCompositor.blueprint(ICON, Path.of(next), overlays.get(i), overlays.get(i)),
+                "blueprint " + overlay
+            );
+        }
+    }
+}
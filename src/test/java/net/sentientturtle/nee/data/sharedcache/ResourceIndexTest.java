@@ -0,0 +1,95 @@
+package net.sentientturtle.nee.data.sharedcache;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/// Parsing and caching of the shared cache index by {@link ResourceIndex}
+public class ResourceIndexTest {
+    private static final int ENTRIES = 1000;
+
+    private static Path indexFile() throws IOException {
+        Path file = Files.createTempFile("nee-test", ".txt");
+        file.toFile().deleteOnExit();
+        StringBuilder index = new StringBuilder();
+        for (int i = 0; i < ENTRIES; i++) {
+            index.append("res:/UI/Texture/Icons/").append(i).append(".png,")
+                .append(i % 16).append("/").append(i).append("_file,")
+                .append("hash").append(i).append(",0,0\n");
+        }
+        // Of resources listed more than once, the last listing is used
+        index.append("res:/ui/texture/icons/0.png,0/replaced_file,replaced,0,0\n");
+        Files.writeString(file, index);
+        return file;
+    }
+
+    private static Path cacheFile() throws IOException {
+        Path file = Files.createTempFile("nee-test", ".cache");
+        file.toFile().deleteOnExit();
+        Files.delete(file);
+        return file;
+    }
+
+    private static void assertEntries(ResourceIndex index) {
+        assertEquals(ENTRIES, index.size());
+        for (int i = 1; i < ENTRIES; i++) {
+            int entry = index.indexOf("res:/ui/texture/icons/" + i + ".png");
+            assertTrue(entry >= 0, "Resource " + i);
+            assertEquals((i % 16) + "/" + i + "_file", index.location(entry));
+            assertEquals("hash" + i, index.hash(entry));
+        }
+        int replaced = index.indexOf("RES:/UI/TEXTURE/ICONS/0.PNG");
+        assertEquals("0/replaced_file", index.location(replaced));
+        assertEquals("replaced", index.hash(replaced));
+        assertEquals(-1, index.indexOf("res:/ui/texture/icons/missing.png"));
+    }
+
+    @Test
+    public void parseAndCache() throws IOException {
+        Path indexFile = indexFile();
+        Path cacheFile = cacheFile();
+        assertEntries(ResourceIndex.load(indexFile, null));
+        assertEntries(ResourceIndex.load(indexFile, cacheFile));
+        assertTrue(Files.exists(cacheFile));
+        assertEntries(ResourceIndex.load(indexFile, cacheFile));
+    }
+
+    @Test
+    public void truncatedCache() throws IOException {
+        Path indexFile = indexFile();
+        Path cacheFile = cacheFile();
+        ResourceIndex.load(indexFile, cacheFile);
+        byte[] cache = Files.readAllBytes(cacheFile);
+        for (int length : new int[]{0, 8, 16, 20, 24, cache.length / 2, cache.length - 2}) {
+            Files.write(cacheFile, cache);
+            try (FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.WRITE)) {
+                channel.truncate(length);
+            }
+            // The index is parsed again, and the cache rewritten
+            assertEntries(ResourceIndex.load(indexFile, cacheFile));
+            assertArrayEquals(cache, Files.readAllBytes(cacheFile), "Cache rewritten after truncation to " + length + " bytes");
+        }
+    }
+
+    @Test
+    public void corruptCache() throws IOException {
+        Path indexFile = indexFile();
+        Path cacheFile = cacheFile();
+        ResourceIndex.load(indexFile, cacheFile);
+        byte[] cache = Files.readAllBytes(cacheFile);
+        // The offset count follows the magic, version, and checksum
+        for (int offsetCount : new int[]{-1, 0, Integer.MAX_VALUE, ENTRIES * 3}) {
+            byte[] corrupt = cache.clone();
+            ByteBuffer.wrap(corrupt, 16, 4).putInt(offsetCount);
+            Files.write(cacheFile, corrupt);
+            assertEntries(ResourceIndex.load(indexFile, cacheFile));
+        }
+    }
+}
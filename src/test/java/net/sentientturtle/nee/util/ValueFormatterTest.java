@@ -0,0 +1,117 @@
+package net.sentientturtle.nee.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/// Checks {@link ValueFormatter} against the shared {@link DecimalFormat}, {@link String#format} and {@link SimpleDateFormat} formatting it replaced
+public class ValueFormatterTest {
+    private static final DecimalFormat LEGACY_DECIMAL_FORMAT;
+    private static final SimpleDateFormat LEGACY_DATE_FORMAT;
+
+    static {
+        DecimalFormatSymbols symbols = new DecimalFormatSymbols(Locale.ENGLISH);
+        symbols.setDecimalSeparator('.');
+        symbols.setGroupingSeparator(',');
+        symbols.setNaN("???");
+        LEGACY_DECIMAL_FORMAT = new DecimalFormat("###,##0.##", symbols);
+
+        LEGACY_DATE_FORMAT = new SimpleDateFormat("dd MMM yyyy HH:mm:ss", Locale.ENGLISH);
+        LEGACY_DATE_FORMAT.setTimeZone(TimeZone.getTimeZone("Etc/UTC"));
+    }
+
+    private static void assertNumber(double value) {
+        assertEquals(LEGACY_DECIMAL_FORMAT.format(value), ValueFormatter.formatNumber(value), "formatNumber(" + value + ")");
+    }
+
+    private static String legacyFormatDuration(long durationLong) {
+        if (durationLong < 60) {
+            return String.format("%2ds", durationLong);
+        } else if (durationLong < 60 * 60) {
+            return String.format("%2dm %2ds", durationLong / 60, durationLong % 60);
+        } else if (durationLong < 60 * 60 * 24) {
+            return String.format("%2dh %2dm %2ds", durationLong / (60 * 60), durationLong % (60 * 60) / 60, durationLong % 60);
+        } else if (durationLong < 60.0 * 60.0 * 24.0 * 30.0) {
+            return String.format("%2dd", durationLong / (60 * 60 * 24)) + " " + String.format("%2dh %2dm %2ds", durationLong % (60 * 60 * 24) / (60 * 60), durationLong % (60 * 60) / 60, durationLong % 60);
+        } else if (durationLong < 60.0 * 60.0 * 24.0 * 365.0) {
+            return String.format("%2dm", durationLong / (60 * 60 * 24 * 30)) + " " + String.format("%2dd", durationLong % (60 * 60 * 24 * 30) / (60 * 60 * 24)) + " " + String.format("%2dh %2dm %2ds", durationLong % (60 * 60 * 24) / (60 * 60), durationLong % (60 * 60) / 60, durationLong % 60);
+        } else {
+            return String.format("%2dy", durationLong / (60 * 60 * 24 * 365)) + " " + String.format("%2dm", durationLong % (60 * 60 * 24 * 365) / (60 * 60 * 24 * 30)) + " " + String.format("%2dd", durationLong % (60 * 60 * 24 * 30) / (60 * 60 * 24)) + " " + String.format("%2dh %2dm %2ds", durationLong % (60 * 60 * 24) / (60 * 60), durationLong % (60 * 60) / 60, durationLong % 60);
+        }
+    }
+
+    @Test
+    public void specialValues() {
+        for (double value : new double[]{0.0, -0.0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.MIN_VALUE, -Double.MIN_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE}) {
+            assertNumber(value);
+        }
+    }
+
+    @Test
+    public void negativeValues() {
+        for (double value : new double[]{-1, -0.001, -0.004, -0.005, -0.006, -0.5, -999.999, -1000, -1234567.891, -0.1 - 0.2}) {
+            assertNumber(value);
+        }
+    }
+
+    @Test
+    public void ties() {
+        // Values of the form x.xx5, which are not exactly representable and lie just above or below the tie
+        for (long thousandths = -100_000; thousandths <= 100_000; thousandths += 5) {
+            assertNumber(thousandths / 1000.0);
+        }
+        for (double value : new double[]{0.125, 0.375, 2.675, 1.005, 1.015, 1.025, 1234567.125, 1e12 + 0.125, 0.045}) {
+            assertNumber(value);
+            assertNumber(-value);
+        }
+    }
+
+    @Test
+    public void largeMagnitudes() {
+        double limit = (double) (1L << 53) / 100.0;
+        for (double value : new double[]{999_999.995, 1e9, 1e12 + 0.01, 1e15, 1e16, 1e17, 1e20, 1e300, limit, Math.nextDown(limit), Math.nextUp(limit), Long.MAX_VALUE}) {
+            assertNumber(value);
+            assertNumber(-value);
+        }
+    }
+
+    @Test
+    public void randomValues() {
+        Random random = new Random(0);
+        for (int i = 0; i < 200_000; i++) {
+            double value = random.nextDouble() * Math.pow(10, random.nextInt(-4, 18));
+            assertNumber(random.nextBoolean() ? value : -value);
+            // Values with few decimals, as are common in the SDE
+            assertNumber(Math.round(value * 1000) / 1000.0);
+        }
+    }
+
+    @Test
+    public void durations() {
+        for (long seconds = -100; seconds <= 200_000; seconds++) {
+            assertEquals(legacyFormatDuration(seconds), ValueFormatter.formatDuration(seconds), "formatDuration(" + seconds + ")");
+        }
+        Random random = new Random(0);
+        for (int i = 0; i < 100_000; i++) {
+            long seconds = random.nextLong(40_000_000L * 100);
+            assertEquals(legacyFormatDuration(seconds), ValueFormatter.formatDuration(seconds), "formatDuration(" + seconds + ")");
+        }
+    }
+
+    @Test
+    public void dates() {
+        Random random = new Random(0);
+        for (int i = 0; i < 10_000; i++) {
+            long epochSecond = random.nextLong(0, 4_102_444_800L);  // Up to 2100
+            assertEquals(LEGACY_DATE_FORMAT.format(new Date(epochSecond * 1000)), ValueFormatter.formatDate(epochSecond), "formatDate(" + epochSecond + ")");
+        }
+    }
+}